@@ -4,6 +4,9 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.accessor.LambdaAccessorModule;
+import org.example.custom_serializer.buffer.BufferPool;
+import org.example.custom_serializer.buffer.PooledJsonFactory;
 import org.example.custom_serializer.deserializer.OrderDeserializer;
 import org.example.custom_serializer.model.Customer;
 import org.example.custom_serializer.model.Order;
@@ -21,7 +24,8 @@ public class CustomSerializerDemo {
     ;
 
     static void main(String... args) {
-        ObjectMapper objectMapper = new ObjectMapper();
+        // buffers shared across threads instead of Jackson's per-thread recycler
+        ObjectMapper objectMapper = new ObjectMapper(new PooledJsonFactory(new BufferPool()));
         SimpleModule module = new SimpleModule();
         OrderSerializer orderSerializer = new OrderSerializer(Order.class);
         OrderDeserializer orderDeserializer = new OrderDeserializer(Order.class);
@@ -31,6 +35,8 @@ public class CustomSerializerDemo {
         module.addSerializer(Customer.class, customerSerializer);
 
         objectMapper.registerModule(module);
+        // generated getters/setters instead of reflection for the beans without custom (de)serializers
+        objectMapper.registerModule(new LambdaAccessorModule("org.example.custom_serializer.model"));
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.configure(DeserializationFeature.FAIL_ON_MISSING_CREATOR_PROPERTIES, false);
 
@@ -0,0 +1,100 @@
+package org.example.custom_serializer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.deserializer.OrderDeserializer;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.GeneratedCodecModule;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.Person;
+import org.example.custom_serializer.serializer.CustomerSerializer;
+import org.example.custom_serializer.serializer.OrderSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Reads and writes {@code orders.json} with the serializers that the {@code json_codegen}
+ * annotation processor generates for the {@code @GenerateCodec} model classes, checks that they
+ * agree with the hand-written {@link OrderSerializer}/{@link OrderDeserializer}, and times both.
+ * Rough numbers, not a JMH run. Argument: repetitions per round.
+ */
+public class GeneratedCodecDemo {
+    private static final Logger LOGGER = Logger.getLogger(GeneratedCodecDemo.class.getName());
+
+    static void main(String... args) throws IOException {
+        int repetitions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        ObjectMapper generated = new ObjectMapper().registerModule(new GeneratedCodecModule());
+
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Order.class, new OrderDeserializer(Order.class));
+        module.addSerializer(Order.class, new OrderSerializer(Order.class));
+        module.addSerializer(Customer.class, new CustomerSerializer(Customer.class));
+        ObjectMapper handWritten = new ObjectMapper().registerModule(module)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        TypeReference<List<Order>> listOfOrders = new TypeReference<>() {
+        };
+        byte[] json;
+        try (InputStream in = ClassLoader.getSystemResourceAsStream("orders.json")) {
+            json = in.readAllBytes();
+        }
+        List<Order> orders = generated.readValue(json, listOfOrders);
+        if (!orders.equals(handWritten.readValue(json, listOfOrders))) {
+            throw new AssertionError("generated deserializer disagrees with OrderDeserializer");
+        }
+        byte[] written = generated.writerFor(listOfOrders).writeValueAsBytes(orders);
+        // same fields and values; the generated serializer keeps declaration order
+        if (!generated.readTree(written).equals(handWritten.readTree(handWritten.writerFor(listOfOrders).writeValueAsBytes(orders)))) {
+            throw new AssertionError("generated serializer disagrees with OrderSerializer");
+        }
+        if (!generated.readValue(written, listOfOrders).equals(orders)) {
+            throw new AssertionError("generated output does not read back");
+        }
+        LOGGER.info(String.format("Orders: %s", new String(written)));
+
+        // nested lists get one generated reader per level
+        String person = "{\"name\":\"Jane\",\"email\":\"jane@example.com\",\"birthDate\":0,"
+                + "\"addressLines\":[[\"1 Main St\",\"Apt 2\"],[],null,[\"PO Box 3\",null]]}";
+        String personWritten = generated.writeValueAsString(generated.readValue(person, Person.class));
+        if (!personWritten.equals(person)) {
+            throw new AssertionError("generated codec changed a nested list: " + personWritten);
+        }
+
+        ObjectReader generatedReader = generated.readerFor(listOfOrders);
+        ObjectReader handWrittenReader = handWritten.readerFor(listOfOrders);
+        ObjectWriter generatedWriter = generated.writerFor(listOfOrders);
+        ObjectWriter handWrittenWriter = handWritten.writerFor(listOfOrders);
+        for (int round = 0; round < 5; round++) {
+            long read = time(repetitions, () -> handWrittenReader.readValue(json));
+            long readGenerated = time(repetitions, () -> generatedReader.readValue(json));
+            long write = time(repetitions, () -> handWrittenWriter.writeValueAsBytes(orders));
+            long writeGenerated = time(repetitions, () -> generatedWriter.writeValueAsBytes(orders));
+            System.out.printf("round %d: read %.1f ms -> %.1f ms (x%.2f) | write %.1f ms -> %.1f ms (x%.2f)%n", round,
+                    read / 1e6, readGenerated / 1e6, (double) read / readGenerated,
+                    write / 1e6, writeGenerated / 1e6, (double) write / writeGenerated);
+        }
+    }
+
+    /** results go here so the JIT cannot drop the work */
+    private static volatile Object sink;
+
+    private interface Task {
+        Object run() throws IOException;
+    }
+
+    private static long time(int repetitions, Task task) throws IOException {
+        long begin = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            sink = task.run();
+        }
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,154 @@
+package org.example.custom_serializer.accessor;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.model.Address;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.OrderItem;
+import org.example.custom_serializer.serializer.CustomerSerializer;
+import org.example.custom_serializer.serializer.OrderSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reflection vs {@link LambdaAccessorModule}: the same mapper configuration with and without the
+ * module, on
+ * <ul>
+ *     <li>orders written as in {@code CustomSerializerDemo} (custom order/customer serializers,
+ *     bean-serialized items and addresses),</li>
+ *     <li>order items and customers written and read as plain beans.</li>
+ * </ul>
+ * Rough numbers, not a JMH run; five rounds, the first two are warm-up.
+ * Arguments: orders, items per order, repetitions per round.
+ */
+public class AccessorBenchmark {
+
+    static void main(String... args) throws Exception {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int itemsPerOrder = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        List<Order> orders = new ArrayList<>();
+        List<OrderItem> items = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            Address address = new Address("Street " + i, "City " + (i % 50), String.format("%05d", i), "USA");
+            Customer customer = new Customer("CUST-" + i, "First" + i + " Last" + i, "c" + i + "@example.com", address);
+            List<OrderItem> orderItems = new ArrayList<>();
+            for (int j = 0; j < itemsPerOrder; j++) {
+                orderItems.add(new OrderItem("PROD-" + j, "Product " + j, 1 + j % 5, 9.99 + j));
+            }
+            orders.add(new Order("ORD-" + i, customer, orderItems, 100.0 + i, LocalDate.of(2025, 1, 1).plusDays(i % 365)));
+            items.addAll(orderItems);
+            customers.add(customer);
+        }
+
+        ObjectMapper reflection = demoMapper();
+        ObjectMapper lambda = demoMapper().registerModule(new LambdaAccessorModule("org.example.custom_serializer.model"));
+        ObjectMapper reflectionBeans = new ObjectMapper();
+        ObjectMapper lambdaBeans = new ObjectMapper().registerModule(new LambdaAccessorModule("org.example.custom_serializer.model"));
+
+        byte[] itemsJson = reflectionBeans.writeValueAsBytes(items);
+        byte[] customersJson = reflectionBeans.writeValueAsBytes(customers);
+        if (!lambdaBeans.readerForListOf(Customer.class).readValue(customersJson).equals(customers)
+                || !new String(lambda.writeValueAsBytes(orders)).equals(new String(reflection.writeValueAsBytes(orders)))) {
+            throw new AssertionError("the module changed the output");
+        }
+        Counter counter = new Counter(5, 6L, 7.5, 8);
+        if (!new ObjectMapper().registerModule(new LambdaAccessorModule("org.example.custom_serializer.accessor"))
+                .writeValueAsString(counter).equals(new ObjectMapper().writeValueAsString(counter))) {
+            throw new AssertionError("the module changed the output of shape = STRING numbers");
+        }
+
+        ObjectReader reflectionItems = reflectionBeans.readerForListOf(OrderItem.class);
+        ObjectReader lambdaItems = lambdaBeans.readerForListOf(OrderItem.class);
+        ObjectReader reflectionCustomerReader = reflectionBeans.readerForListOf(Customer.class);
+        ObjectReader lambdaCustomerReader = lambdaBeans.readerForListOf(Customer.class);
+        ObjectWriter reflectionCustomerWriter = reflectionBeans.writerFor(reflectionBeans.getTypeFactory()
+                .constructCollectionType(List.class, Customer.class));
+        ObjectWriter lambdaCustomerWriter = lambdaBeans.writerFor(lambdaBeans.getTypeFactory()
+                .constructCollectionType(List.class, Customer.class));
+
+        System.out.printf("%,d orders x %d items, %d repetitions%n", orderCount, itemsPerOrder, repetitions);
+        for (int round = 0; round < 5; round++) {
+            System.out.printf("round %d:%n", round);
+            report("write orders", time(repetitions, () -> reflection.writeValueAsBytes(orders)),
+                    time(repetitions, () -> lambda.writeValueAsBytes(orders)));
+            report("write items", time(repetitions, () -> reflectionBeans.writeValueAsBytes(items)),
+                    time(repetitions, () -> lambdaBeans.writeValueAsBytes(items)));
+            report("read items", time(repetitions, () -> reflectionItems.readValue(itemsJson)),
+                    time(repetitions, () -> lambdaItems.readValue(itemsJson)));
+            report("write customers", time(repetitions, () -> reflectionCustomerWriter.writeValueAsBytes(customers)),
+                    time(repetitions, () -> lambdaCustomerWriter.writeValueAsBytes(customers)));
+            report("read customers", time(repetitions, () -> reflectionCustomerReader.readValue(customersJson)),
+                    time(repetitions, () -> lambdaCustomerReader.readValue(customersJson)));
+        }
+    }
+
+    /** numbers written as strings next to one written directly from its primitive getter */
+    public static final class Counter {
+        private final int count;
+        private final long total;
+        private final double average;
+        private final int plain;
+
+        Counter(int count, long total, double average, int plain) {
+            this.count = count;
+            this.total = total;
+            this.average = average;
+            this.plain = plain;
+        }
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        public int getCount() {
+            return count;
+        }
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        public long getTotal() {
+            return total;
+        }
+
+        @JsonFormat(shape = JsonFormat.Shape.STRING)
+        public double getAverage() {
+            return average;
+        }
+
+        public int getPlain() {
+            return plain;
+        }
+    }
+
+    private static ObjectMapper demoMapper() {
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(Order.class, new OrderSerializer(Order.class));
+        module.addSerializer(Customer.class, new CustomerSerializer(Customer.class));
+        return new ObjectMapper().registerModule(module);
+    }
+
+    /** results go here so the JIT cannot drop the work */
+    private static volatile Object sink;
+
+    private interface Task {
+        Object run() throws Exception;
+    }
+
+    private static long time(int repetitions, Task task) throws Exception {
+        long begin = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            sink = task.run();
+        }
+        return System.nanoTime() - begin;
+    }
+
+    private static void report(String name, long reflectionNanos, long lambdaNanos) {
+        System.out.printf("  %-16s reflection %8.1f ms | lambda %8.1f ms | x%.2f%n",
+                name, reflectionNanos / 1e6, lambdaNanos / 1e6, (double) reflectionNanos / lambdaNanos);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.custom_serializer.accessor;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerBuilder;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+import com.fasterxml.jackson.databind.deser.impl.MethodProperty;
+import com.fasterxml.jackson.databind.deser.std.StdValueInstantiator;
+import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in module that replaces reflective bean access with {@link LambdaAccessors generated
+ * lambdas} for classes in the given packages, in the spirit of Jackson's Afterburner/Blackbird
+ * modules but without the extra dependency.
+ * <p>
+ * Covers getter-based properties when serializing, and setter-based properties plus the no-arg
+ * constructor when deserializing. Fields, creators with arguments, custom serializers and
+ * anything that cannot be spun keep Jackson's regular implementation, so registering the module
+ * never changes the JSON, only how the bean is read and written.
+ * <pre>{@code
+ * objectMapper.registerModule(new LambdaAccessorModule("org.example.custom_serializer.model"));
+ * }</pre>
+ */
+public final class LambdaAccessorModule extends SimpleModule {
+
+    private final List<String> packages;
+
+    /**
+     * @param packages package names whose classes (including subpackages) get generated accessors
+     */
+    public LambdaAccessorModule(String... packages) {
+        super("LambdaAccessorModule");
+        if (packages.length == 0) {
+            throw new IllegalArgumentException("at least one package is required");
+        }
+        this.packages = List.of(packages);
+        setSerializerModifier(new SerializerModifier());
+        setDeserializerModifier(new DeserializerModifier());
+    }
+
+    private boolean covers(Class<?> beanClass) {
+        String name = beanClass.getName();
+        for (String pkg : packages) {
+            if (name.startsWith(pkg) && name.length() > pkg.length() && name.charAt(pkg.length()) == '.') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class SerializerModifier extends BeanSerializerModifier {
+        @Override
+        public List<BeanPropertyWriter> changeProperties(SerializationConfig config, BeanDescription beanDesc,
+                                                         List<BeanPropertyWriter> beanProperties) {
+            if (!covers(beanDesc.getBeanClass())) {
+                return beanProperties;
+            }
+            List<BeanPropertyWriter> result = new ArrayList<>(beanProperties.size());
+            for (BeanPropertyWriter writer : beanProperties) {
+                // subclasses (unwrapping, virtual, ...) serialize differently: leave them alone
+                if (writer.getClass() == BeanPropertyWriter.class && writer.getMember() instanceof AnnotatedMethod getter) {
+                    result.add(LambdaPropertyWriter.of(writer, getter.getAnnotated()));
+                } else {
+                    result.add(writer);
+                }
+            }
+            return result;
+        }
+    }
+
+    private final class DeserializerModifier extends BeanDeserializerModifier {
+        @Override
+        public BeanDeserializerBuilder updateBuilder(DeserializationConfig config, BeanDescription beanDesc,
+                                                     BeanDeserializerBuilder builder) {
+            if (!covers(beanDesc.getBeanClass())) {
+                return builder;
+            }
+            List<SettableBeanProperty> properties = new ArrayList<>();
+            builder.getProperties().forEachRemaining(properties::add);
+            for (SettableBeanProperty property : properties) {
+                if (property instanceof MethodProperty && property.getMember() instanceof AnnotatedMethod setter) {
+                    builder.addOrReplaceProperty(LambdaSetterProperty.of(property, setter.getAnnotated()), true);
+                }
+            }
+            ValueInstantiator instantiator = builder.getValueInstantiator();
+            if (instantiator instanceof StdValueInstantiator std
+                    && std.canCreateUsingDefault()
+                    && std.getDefaultCreator() instanceof AnnotatedConstructor constructor) {
+                builder.setValueInstantiator(LambdaInstantiator.of(instantiator, constructor.getAnnotated()));
+            }
+            return builder;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.custom_serializer.accessor;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Spins getters, setters and no-arg constructors into lambdas with {@link LambdaMetafactory}.
+ * <p>
+ * The result is an ordinary class implementing a {@code java.util.function} interface with a
+ * direct {@code invokevirtual} of the target, which the JIT inlines like hand-written code;
+ * {@code Method.invoke} goes through argument arrays, access checks and (for primitives) boxing
+ * on every call. Primitive getters and setters also get a primitive-specialized variant.
+ */
+final class LambdaAccessors {
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private LambdaAccessors() {
+    }
+
+    static Function<Object, Object> getter(Method method) throws ReflectiveOperationException {
+        return spin(method, Function.class, "apply", GETTER,
+                MethodType.methodType(method.getReturnType(), method.getDeclaringClass()).wrap());
+    }
+
+    static ToIntFunction<Object> intGetter(Method method) throws ReflectiveOperationException {
+        return spin(method, ToIntFunction.class, "applyAsInt", MethodType.methodType(int.class, Object.class),
+                MethodType.methodType(int.class, method.getDeclaringClass()));
+    }
+
+    static ToLongFunction<Object> longGetter(Method method) throws ReflectiveOperationException {
+        return spin(method, ToLongFunction.class, "applyAsLong", MethodType.methodType(long.class, Object.class),
+                MethodType.methodType(long.class, method.getDeclaringClass()));
+    }
+
+    static ToDoubleFunction<Object> doubleGetter(Method method) throws ReflectiveOperationException {
+        return spin(method, ToDoubleFunction.class, "applyAsDouble", MethodType.methodType(double.class, Object.class),
+                MethodType.methodType(double.class, method.getDeclaringClass()));
+    }
+
+    static BiConsumer<Object, Object> setter(Method method) throws ReflectiveOperationException {
+        Class<?> parameter = MethodType.methodType(method.getParameterTypes()[0]).wrap().returnType();
+        return spin(method, BiConsumer.class, "accept", SETTER,
+                MethodType.methodType(void.class, method.getDeclaringClass(), parameter));
+    }
+
+    static ObjIntConsumer<Object> intSetter(Method method) throws ReflectiveOperationException {
+        return spin(method, ObjIntConsumer.class, "accept", MethodType.methodType(void.class, Object.class, int.class),
+                MethodType.methodType(void.class, method.getDeclaringClass(), int.class));
+    }
+
+    static ObjLongConsumer<Object> longSetter(Method method) throws ReflectiveOperationException {
+        return spin(method, ObjLongConsumer.class, "accept", MethodType.methodType(void.class, Object.class, long.class),
+                MethodType.methodType(void.class, method.getDeclaringClass(), long.class));
+    }
+
+    static ObjDoubleConsumer<Object> doubleSetter(Method method) throws ReflectiveOperationException {
+        return spin(method, ObjDoubleConsumer.class, "accept", MethodType.methodType(void.class, Object.class, double.class),
+                MethodType.methodType(void.class, method.getDeclaringClass(), double.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> constructor(Constructor<?> constructor) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = lookup(constructor.getDeclaringClass());
+        return (Supplier<Object>) metafactory(lookup, Supplier.class, "get", MethodType.methodType(Object.class),
+                lookup.unreflectConstructor(constructor), MethodType.methodType(constructor.getDeclaringClass()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T spin(Method method, Class<? super T> type, String name, MethodType erased,
+                              MethodType instantiated) throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = lookup(method.getDeclaringClass());
+        return (T) metafactory(lookup, type, name, erased, lookup.unreflect(method), instantiated);
+    }
+
+    private static Object metafactory(MethodHandles.Lookup lookup, Class<?> type, String name, MethodType erased,
+                                      MethodHandle target, MethodType instantiated) throws ReflectiveOperationException {
+        try {
+            CallSite site = LambdaMetafactory.metafactory(lookup, name, MethodType.methodType(type),
+                    erased, target, instantiated);
+            return site.getTarget().invoke();
+        } catch (ReflectiveOperationException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ReflectiveOperationException("cannot spin accessor for " + target, e);
+        }
+    }
+
+    /**
+     * A lookup with full privileges in the bean's class, which the metafactory needs to define the
+     * lambda class next to it.
+     */
+    private static MethodHandles.Lookup lookup(Class<?> beanClass) throws IllegalAccessException {
+        return MethodHandles.privateLookupIn(beanClass, MethodHandles.lookup());
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.custom_serializer.accessor;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ValueInstantiator;
+
+import java.lang.reflect.Constructor;
+import java.util.function.Supplier;
+
+/**
+ * Creates beans through a generated no-arg constructor call; every other creator (delegating,
+ * property-based, from-string) is left to the wrapped instantiator.
+ */
+final class LambdaInstantiator extends ValueInstantiator.Delegating {
+
+    private final Supplier<Object> constructor;
+
+    private LambdaInstantiator(ValueInstantiator delegate, Supplier<Object> constructor) {
+        super(delegate);
+        this.constructor = constructor;
+    }
+
+    /**
+     * @return the lambda-backed instantiator, or {@code delegate} itself if the constructor cannot be spun
+     */
+    static ValueInstantiator of(ValueInstantiator delegate, Constructor<?> constructor) {
+        try {
+            return new LambdaInstantiator(delegate, LambdaAccessors.constructor(constructor));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return delegate;
+        }
+    }
+
+    @Override
+    public ValueInstantiator createContextual(DeserializationContext ctxt, BeanDescription beanDesc)
+            throws JsonMappingException {
+        ValueInstantiator contextual = delegate().createContextual(ctxt, beanDesc);
+        return contextual == delegate() ? this : new LambdaInstantiator(contextual, constructor);
+    }
+
+    @Override
+    public boolean canCreateUsingDefault() {
+        return true;
+    }
+
+    @Override
+    public Object createUsingDefault(DeserializationContext ctxt) {
+        return constructor.get();
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.custom_serializer.accessor;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.PropertyName;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.PropertySerializerMap;
+import com.fasterxml.jackson.databind.ser.std.NumberSerializers;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * {@link BeanPropertyWriter} that reads the property through a generated getter.
+ * <p>
+ * {@code int}, {@code long} and {@code double} properties with Jackson's own number serializer
+ * (no custom serializer, type info or inclusion filter) are written straight from the primitive
+ * getter, without boxing; everything else follows the base class logic with the value fetched
+ * through the generic getter. That includes other standard serializers: a {@code ToStringSerializer}
+ * from {@code @JsonFormat(shape = STRING)}, for one, writes the number as a string.
+ */
+final class LambdaPropertyWriter extends BeanPropertyWriter {
+
+    private final Function<Object, Object> getter;
+    private final ToIntFunction<Object> intGetter;
+    private final ToLongFunction<Object> longGetter;
+    private final ToDoubleFunction<Object> doubleGetter;
+    /** primitive getter present and nothing configured that the direct write would bypass */
+    private boolean direct;
+
+    private LambdaPropertyWriter(BeanPropertyWriter base, Method method) throws ReflectiveOperationException {
+        super(base);
+        Class<?> type = method.getReturnType();
+        this.getter = LambdaAccessors.getter(method);
+        this.intGetter = type == int.class ? LambdaAccessors.intGetter(method) : null;
+        this.longGetter = type == long.class ? LambdaAccessors.longGetter(method) : null;
+        this.doubleGetter = type == double.class ? LambdaAccessors.doubleGetter(method) : null;
+        this.direct = canWriteDirectly();
+    }
+
+    private LambdaPropertyWriter(LambdaPropertyWriter base, PropertyName name) {
+        super(base, name);
+        this.getter = base.getter;
+        this.intGetter = base.intGetter;
+        this.longGetter = base.longGetter;
+        this.doubleGetter = base.doubleGetter;
+        this.direct = canWriteDirectly();
+    }
+
+    /**
+     * @return the lambda-backed writer, or {@code base} itself if the getter cannot be spun
+     */
+    static BeanPropertyWriter of(BeanPropertyWriter base, Method method) {
+        try {
+            return new LambdaPropertyWriter(base, method);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return base;
+        }
+    }
+
+    @Override
+    protected BeanPropertyWriter _new(PropertyName newName) {
+        return new LambdaPropertyWriter(this, newName);
+    }
+
+    @Override
+    public void assignSerializer(JsonSerializer<Object> ser) {
+        super.assignSerializer(ser);
+        direct = canWriteDirectly();
+    }
+
+    @Override
+    public void assignTypeSerializer(TypeSerializer typeSer) {
+        super.assignTypeSerializer(typeSer);
+        direct = canWriteDirectly();
+    }
+
+    private boolean canWriteDirectly() {
+        return (intGetter != null || longGetter != null || doubleGetter != null)
+                && _typeSerializer == null
+                && _suppressableValue == null
+                && (_serializer == null || isPlainNumberSerializer(_serializer.getClass()));
+    }
+
+    private boolean isPlainNumberSerializer(Class<?> serializer) {
+        if (intGetter != null) return serializer == NumberSerializers.IntegerSerializer.class;
+        if (longGetter != null) return serializer == NumberSerializers.LongSerializer.class;
+        return serializer == NumberSerializers.DoubleSerializer.class;
+    }
+
+    @Override
+    public void serializeAsField(Object bean, JsonGenerator gen, SerializerProvider prov) throws Exception {
+        if (direct) {
+            gen.writeFieldName(_name);
+            if (intGetter != null) {
+                gen.writeNumber(intGetter.applyAsInt(bean));
+            } else if (longGetter != null) {
+                gen.writeNumber(longGetter.applyAsLong(bean));
+            } else {
+                gen.writeNumber(doubleGetter.applyAsDouble(bean));
+            }
+            return;
+        }
+        // same steps as BeanPropertyWriter.serializeAsField, which inlines its reflective get()
+        Object value = getter.apply(bean);
+        if (value == null) {
+            if (_nullSerializer != null) {
+                gen.writeFieldName(_name);
+                _nullSerializer.serialize(null, gen, prov);
+            }
+            return;
+        }
+        JsonSerializer<Object> ser = _serializer;
+        if (ser == null) {
+            Class<?> cls = value.getClass();
+            PropertySerializerMap serializers = _dynamicSerializers;
+            ser = serializers.serializerFor(cls);
+            if (ser == null) {
+                ser = _findAndAddDynamic(serializers, cls, prov);
+            }
+        }
+        if (_suppressableValue != null) {
+            if (MARKER_FOR_EMPTY == _suppressableValue) {
+                if (ser.isEmpty(prov, value)) {
+                    return;
+                }
+            } else if (_suppressableValue.equals(value)) {
+                return;
+            }
+        }
+        if (value == bean && _handleSelfReference(bean, gen, prov, ser)) {
+            return;
+        }
+        gen.writeFieldName(_name);
+        if (_typeSerializer == null) {
+            ser.serialize(value, gen, prov);
+        } else {
+            ser.serializeWithType(value, gen, prov, _typeSerializer);
+        }
+    }
+}
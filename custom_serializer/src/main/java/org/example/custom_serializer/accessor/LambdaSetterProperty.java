@@ -0,0 +1,116 @@
+package org.example.custom_serializer.accessor;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.SettableBeanProperty;
+import com.fasterxml.jackson.databind.deser.impl.NullsConstantProvider;
+import com.fasterxml.jackson.databind.util.ClassUtil;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Setter-based property that assigns through a generated setter instead of {@code Method.invoke}.
+ * <p>
+ * Value deserialization stays with the wrapped property. For {@code int}, {@code long} and
+ * {@code double} setters whose deserializer is Jackson's own, a plain number token is read as a
+ * primitive and passed on unboxed; any other token (strings, nulls, coercions) takes the regular
+ * path so error handling and coercion settings are unchanged.
+ */
+final class LambdaSetterProperty extends SettableBeanProperty.Delegating {
+
+    private final BiConsumer<Object, Object> setter;
+    private final ObjIntConsumer<Object> intSetter;
+    private final ObjLongConsumer<Object> longSetter;
+    private final ObjDoubleConsumer<Object> doubleSetter;
+    private final boolean stdDeserializer;
+    private final boolean skipNulls;
+
+    private LambdaSetterProperty(SettableBeanProperty delegate, Method method) throws ReflectiveOperationException {
+        super(delegate);
+        Class<?> type = method.getParameterTypes()[0];
+        this.setter = LambdaAccessors.setter(method);
+        this.intSetter = type == int.class ? LambdaAccessors.intSetter(method) : null;
+        this.longSetter = type == long.class ? LambdaAccessors.longSetter(method) : null;
+        this.doubleSetter = type == double.class ? LambdaAccessors.doubleSetter(method) : null;
+        this.stdDeserializer = hasStdDeserializer(delegate);
+        this.skipNulls = NullsConstantProvider.isSkipper(delegate.getNullValueProvider());
+    }
+
+    private LambdaSetterProperty(SettableBeanProperty delegate, LambdaSetterProperty accessors) {
+        super(delegate);
+        this.setter = accessors.setter;
+        this.intSetter = accessors.intSetter;
+        this.longSetter = accessors.longSetter;
+        this.doubleSetter = accessors.doubleSetter;
+        this.stdDeserializer = hasStdDeserializer(delegate);
+        this.skipNulls = NullsConstantProvider.isSkipper(delegate.getNullValueProvider());
+    }
+
+    /**
+     * @return the lambda-backed property, or {@code delegate} itself if the setter cannot be spun
+     */
+    static SettableBeanProperty of(SettableBeanProperty delegate, Method method) {
+        try {
+            return new LambdaSetterProperty(delegate, method);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return delegate;
+        }
+    }
+
+    private static boolean hasStdDeserializer(SettableBeanProperty property) {
+        return property.hasValueDeserializer()
+                && !property.hasValueTypeDeserializer()
+                && ClassUtil.isJacksonStdImpl(property.getValueDeserializer());
+    }
+
+    @Override
+    protected SettableBeanProperty withDelegate(SettableBeanProperty delegate) {
+        return new LambdaSetterProperty(delegate, this);
+    }
+
+    @Override
+    public void deserializeAndSet(JsonParser p, DeserializationContext ctxt, Object instance) throws IOException {
+        if (stdDeserializer) {
+            JsonToken token = p.currentToken();
+            if (intSetter != null && token == JsonToken.VALUE_NUMBER_INT) {
+                intSetter.accept(instance, p.getIntValue());
+                return;
+            }
+            if (longSetter != null && token == JsonToken.VALUE_NUMBER_INT) {
+                longSetter.accept(instance, p.getLongValue());
+                return;
+            }
+            if (doubleSetter != null && (token == JsonToken.VALUE_NUMBER_FLOAT || token == JsonToken.VALUE_NUMBER_INT)) {
+                doubleSetter.accept(instance, p.getDoubleValue());
+                return;
+            }
+        }
+        if (skipNulls && p.hasToken(JsonToken.VALUE_NULL)) {
+            return;
+        }
+        setter.accept(instance, delegate.deserialize(p, ctxt));
+    }
+
+    @Override
+    public Object deserializeSetAndReturn(JsonParser p, DeserializationContext ctxt, Object instance) throws IOException {
+        deserializeAndSet(p, ctxt, instance);
+        return instance;
+    }
+
+    @Override
+    public void set(Object instance, Object value) {
+        setter.accept(instance, value);
+    }
+
+    @Override
+    public Object setAndReturn(Object instance, Object value) {
+        setter.accept(instance, value);
+        return instance;
+    }
+}
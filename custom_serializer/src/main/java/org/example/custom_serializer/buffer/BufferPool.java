@@ -0,0 +1,167 @@
+package org.example.custom_serializer.buffer;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free pool of the byte and char buffers Jackson's parsers and generators work in,
+ * shared by all threads instead of being held per thread.
+ * <p>
+ * Each buffer kind (read, write-encoding, token, text, ... as numbered by
+ * {@link com.fasterxml.jackson.core.util.BufferRecycler}) has its own set of slots, split into
+ * stripes. A thread starts looking in the stripe picked by its id and moves on to the others,
+ * taking or returning a buffer with a single CAS. When every slot is empty a new buffer is
+ * allocated; when every slot is full a returned buffer is left to the GC. So the pool never
+ * holds more than {@code stripes * buffersPerStripe} buffers of a kind, no matter how many
+ * (virtual) threads pass through it.
+ */
+public final class BufferPool {
+
+    /** buffer kinds numbered by {@code BufferRecycler}: 4 byte and 4 char kinds in Jackson 2.13 */
+    private static final int KINDS = 4;
+
+    private final Slots<byte[]>[] byteBuffers;
+    private final Slots<char[]>[] charBuffers;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder returned = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * One stripe per available processor, four buffers of each kind per stripe.
+     */
+    public BufferPool() {
+        this(Runtime.getRuntime().availableProcessors(), 4);
+    }
+
+    /**
+     * @param stripes          rounded up to a power of two
+     * @param buffersPerStripe slots per stripe and buffer kind
+     */
+    public BufferPool(int stripes, int buffersPerStripe) {
+        if (stripes <= 0 || buffersPerStripe <= 0) {
+            throw new IllegalArgumentException("stripes and buffersPerStripe must be positive");
+        }
+        int stripeCount = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        @SuppressWarnings("unchecked")
+        Slots<byte[]>[] bytes = (Slots<byte[]>[]) new Slots<?>[KINDS];
+        @SuppressWarnings("unchecked")
+        Slots<char[]>[] chars = (Slots<char[]>[]) new Slots<?>[KINDS];
+        byteBuffers = bytes;
+        charBuffers = chars;
+        for (int kind = 0; kind < KINDS; kind++) {
+            byteBuffers[kind] = new Slots<>(stripeCount, buffersPerStripe);
+            charBuffers[kind] = new Slots<>(stripeCount, buffersPerStripe);
+        }
+    }
+
+    /**
+     * @return a pooled buffer of at least {@code minSize} bytes, or null if the caller must allocate
+     */
+    byte[] acquireBytes(int kind, int minSize) {
+        byte[] buffer = byteBuffers[kind].take();
+        if (buffer != null && buffer.length >= minSize) {
+            hits.increment();
+            return buffer;
+        }
+        if (buffer != null) {
+            // too small for this caller, still good for the next one
+            byteBuffers[kind].offer(buffer);
+        }
+        misses.increment();
+        return null;
+    }
+
+    void releaseBytes(int kind, byte[] buffer) {
+        count(byteBuffers[kind].offer(buffer));
+    }
+
+    /**
+     * @return a pooled buffer of at least {@code minSize} chars, or null if the caller must allocate
+     */
+    char[] acquireChars(int kind, int minSize) {
+        char[] buffer = charBuffers[kind].take();
+        if (buffer != null && buffer.length >= minSize) {
+            hits.increment();
+            return buffer;
+        }
+        if (buffer != null) {
+            charBuffers[kind].offer(buffer);
+        }
+        misses.increment();
+        return null;
+    }
+
+    void releaseChars(int kind, char[] buffer) {
+        count(charBuffers[kind].offer(buffer));
+    }
+
+    private void count(boolean pooled) {
+        (pooled ? returned : dropped).increment();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), returned.sum(), dropped.sum());
+    }
+
+    /**
+     * @param hits     buffers handed out from the pool
+     * @param misses   buffers the caller had to allocate
+     * @param returned buffers taken back into the pool
+     * @param dropped  buffers released while the pool was full
+     */
+    public record Stats(long hits, long misses, long returned, long dropped) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%,d misses=%,d (%.1f%% hit) returned=%,d dropped=%,d",
+                    hits, misses, hitRate() * 100, returned, dropped);
+        }
+    }
+
+    private static final class Slots<T> {
+        private final AtomicReferenceArray<T> slots;
+        private final int stripeMask;
+        private final int perStripe;
+
+        Slots(int stripes, int perStripe) {
+            this.slots = new AtomicReferenceArray<>(stripes * perStripe);
+            this.stripeMask = stripes - 1;
+            this.perStripe = perStripe;
+        }
+
+        private int home() {
+            return ((int) Thread.currentThread().threadId() & stripeMask) * perStripe;
+        }
+
+        T take() {
+            int length = slots.length();
+            for (int i = 0, slot = home(); i < length; i++, slot = slot + 1 == length ? 0 : slot + 1) {
+                // plain read first: only CAS on slots that look occupied
+                if (slots.get(slot) != null) {
+                    T buffer = slots.getAndSet(slot, null);
+                    if (buffer != null) {
+                        return buffer;
+                    }
+                }
+            }
+            return null;
+        }
+
+        boolean offer(T buffer) {
+            int length = slots.length();
+            for (int i = 0, slot = home(); i < length; i++, slot = slot + 1 == length ? 0 : slot + 1) {
+                if (slots.get(slot) == null && slots.compareAndSet(slot, null, buffer)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.custom_serializer.buffer;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+
+/**
+ * {@link BufferRecycler} without buffers of its own: allocations and releases go to a shared
+ * {@link BufferPool}, so one instance serves every thread.
+ */
+final class PooledBufferRecycler extends BufferRecycler {
+
+    private final BufferPool pool;
+
+    PooledBufferRecycler(BufferPool pool) {
+        // the per-instance slots of the base class stay unused
+        super(0, 0);
+        this.pool = pool;
+    }
+
+    @Override
+    public byte[] allocByteBuffer(int ix, int minSize) {
+        int size = Math.max(minSize, byteBufferLength(ix));
+        byte[] buffer = pool.acquireBytes(ix, size);
+        return buffer != null ? buffer : balloc(size);
+    }
+
+    @Override
+    public void releaseByteBuffer(int ix, byte[] buffer) {
+        pool.releaseBytes(ix, buffer);
+    }
+
+    @Override
+    public char[] allocCharBuffer(int ix, int minSize) {
+        int size = Math.max(minSize, charBufferLength(ix));
+        char[] buffer = pool.acquireChars(ix, size);
+        return buffer != null ? buffer : calloc(size);
+    }
+
+    @Override
+    public void releaseCharBuffer(int ix, char[] buffer) {
+        pool.releaseChars(ix, buffer);
+    }
+}
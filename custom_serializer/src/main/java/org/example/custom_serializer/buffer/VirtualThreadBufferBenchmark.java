@@ -0,0 +1,108 @@
+package org.example.custom_serializer.buffer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.model.Address;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.OrderItem;
+import org.example.custom_serializer.serializer.CustomerSerializer;
+import org.example.custom_serializer.serializer.OrderSerializer;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * One virtual thread per request, each writing an order with {@code OrderSerializer}: the default
+ * thread-local buffer recycling against {@link PooledJsonFactory}. Prints wall time and, where the
+ * JVM reports it, heap allocated by all threads during the round; then the pool statistics.
+ * Rough numbers, not a JMH run; five rounds, the first two are warm-up.
+ * Arguments: virtual threads per round, writes per thread.
+ */
+public class VirtualThreadBufferBenchmark {
+
+    static void main(String... args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int writesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Address address = new Address("Street " + i, "City " + (i % 50), String.format("%05d", i), "USA");
+            Customer customer = new Customer("CUST-" + i, "First" + i + " Last" + i, "c" + i + "@example.com", address);
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < 10; j++) {
+                items.add(new OrderItem("PROD-" + j, "Product " + j, 1 + j % 5, 9.99 + j));
+            }
+            orders.add(new Order("ORD-" + i, customer, items, 100.0 + i, LocalDate.of(2025, 1, 1).plusDays(i)));
+        }
+
+        BufferPool pool = new BufferPool();
+        ObjectWriter threadLocal = mapper(new ObjectMapper()).writerFor(Order.class);
+        ObjectWriter pooled = mapper(new ObjectMapper(new PooledJsonFactory(pool))).writerFor(Order.class);
+        for (Order order : orders) {
+            if (!Arrays.equals(threadLocal.writeValueAsBytes(order), pooled.writeValueAsBytes(order))) {
+                throw new AssertionError("pooled output differs for " + order.getOrderId());
+            }
+        }
+
+        System.out.printf("%,d virtual threads x %d writes%n", threads, writesPerThread);
+        for (int round = 0; round < 5; round++) {
+            System.out.printf("round %d: thread-local %s | pooled %s%n", round,
+                    run(threadLocal, orders, threads, writesPerThread),
+                    run(pooled, orders, threads, writesPerThread));
+        }
+        System.out.println("pool: " + pool.stats());
+    }
+
+    private static ObjectMapper mapper(ObjectMapper mapper) {
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(Order.class, new OrderSerializer(Order.class));
+        module.addSerializer(Customer.class, new CustomerSerializer(Customer.class));
+        return mapper.registerModule(module);
+    }
+
+    private static String run(ObjectWriter writer, List<Order> orders, int threads, int writesPerThread)
+            throws Exception {
+        long allocatedBefore = allocatedBytes();
+        long begin = System.nanoTime();
+        long written = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> results = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                Order order = orders.get(t % orders.size());
+                results.add(executor.submit(() -> {
+                    int bytes = 0;
+                    for (int i = 0; i < writesPerThread; i++) {
+                        bytes += writer.writeValueAsBytes(order).length;
+                    }
+                    return bytes;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                written += result.get();
+            }
+        }
+        long nanos = System.nanoTime() - begin;
+        long allocated = allocatedBytes() - allocatedBefore;
+        return String.format("%7.1f ms, %,d KB written, %s", nanos / 1e6, written >> 10,
+                allocatedBefore < 0 ? "allocation n/a" : String.format("%,d KB allocated", allocated >> 10));
+    }
+
+    /**
+     * @return heap allocated by all threads so far, or -1 if this JVM does not track it
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.custom_serializer.bulk;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.bulk.OrderBulkWriter.Framing;
+import org.example.custom_serializer.deserializer.OrderDeserializer;
+import org.example.custom_serializer.model.Address;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.OrderItem;
+import org.example.custom_serializer.serializer.CustomerSerializer;
+import org.example.custom_serializer.serializer.OrderSerializer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Logger;
+import java.util.stream.LongStream;
+
+/**
+ * Deserialize, transform, serialize without collecting: {@code orders.json} is read element by
+ * element with a {@link MappingIterator}, discounted, and written by {@link OrderBulkWriter} as a
+ * JSON array and as NDJSON. The array output is checked against {@code writeValue} of the
+ * collected list. Then a lazily generated stream of orders (default 500,000, about 300 MB of
+ * JSON) goes to an NDJSON file while the peak heap stays flat. Argument: generated orders.
+ */
+public class BulkPipelineDemo {
+    private static final Logger LOGGER = Logger.getLogger(BulkPipelineDemo.class.getName());
+
+    static void main(String... args) throws IOException {
+        long generated = args.length > 0 ? Long.parseLong(args[0]) : 500_000;
+
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Order.class, new OrderDeserializer(Order.class));
+        module.addSerializer(Order.class, new OrderSerializer(Order.class));
+        module.addSerializer(Customer.class, new CustomerSerializer(Customer.class));
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(module)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        Path array = Files.createTempFile("orders", ".json");
+        Path ndjson = Files.createTempFile("orders", ".ndjson");
+        Path large = Files.createTempFile("orders-large", ".ndjson");
+        try {
+            for (Framing framing : Framing.values()) {
+                try (InputStream in = ClassLoader.getSystemResourceAsStream("orders.json");
+                     MappingIterator<Order> orders = objectMapper.readerFor(Order.class).readValues(in);
+                     OrderBulkWriter writer = OrderBulkWriter.open(objectMapper,
+                             framing == Framing.JSON_ARRAY ? array : ndjson, framing, 1)) {
+                    while (orders.hasNext()) {
+                        writer.write(discount(orders.next()));
+                    }
+                }
+            }
+            List<Order> collected = new ArrayList<>();
+            try (InputStream in = ClassLoader.getSystemResourceAsStream("orders.json")) {
+                for (Order order : objectMapper.readValue(in, new TypeReference<List<Order>>() {
+                })) {
+                    collected.add(discount(order));
+                }
+            }
+            byte[] expected = objectMapper.writerFor(new TypeReference<List<Order>>() {
+            }).writeValueAsBytes(collected);
+            if (!Arrays.equals(expected, Files.readAllBytes(array))) {
+                throw new AssertionError("streamed array differs from writeValue of the list");
+            }
+            LOGGER.info(String.format("Discounted orders as NDJSON:%n%s", Files.readString(ndjson)));
+
+            long begin = System.nanoTime();
+            long written;
+            long batches;
+            FlushCountingOutputStream out = new FlushCountingOutputStream(Files.newOutputStream(large));
+            try (OrderBulkWriter writer = OrderBulkWriter.open(objectMapper, out, Framing.NDJSON, 10_000)) {
+                written = writer.writeAll(LongStream.range(0, generated).mapToObj(BulkPipelineDemo::order));
+                batches = writer.getFlushes();
+            }
+            // one flush per batch, plus the ones from closing
+            if (out.flushes > batches + 2) {
+                throw new AssertionError(out.flushes + " flushes reached the file for " + batches + " batches");
+            }
+            System.out.printf("%,d generated orders, %,d MB of NDJSON in %.1f s, %,d flushes, peak heap %,d MB of %,d MB max%n",
+                    written, Files.size(large) >> 20, (System.nanoTime() - begin) / 1e9, out.flushes,
+                    peakHeapUsed() >> 20, Runtime.getRuntime().maxMemory() >> 20);
+        } finally {
+            Files.deleteIfExists(array);
+            Files.deleteIfExists(ndjson);
+            Files.deleteIfExists(large);
+        }
+    }
+
+    private static Order discount(Order order) {
+        order.setTotalAmount(Math.round(order.getTotalAmount() * 90) / 100.0);
+        return order;
+    }
+
+    private static Order order(long i) {
+        Address address = new Address("Street " + i, "City " + (i % 50), String.format("%05d", i % 100_000), "USA");
+        Customer customer = new Customer("CUST-" + i, "First" + i + " Last" + i, "c" + i + "@example.com", address);
+        List<OrderItem> items = new ArrayList<>();
+        for (int j = 0; j < 5; j++) {
+            items.add(new OrderItem("PROD-" + j, "Product " + j, 1 + j % 5, 9.99 + j));
+        }
+        return new Order("ORD-" + i, customer, items, 100.0 + i % 1_000, LocalDate.of(2025, 1, 1).plusDays(i % 365));
+    }
+
+    /** counts the flushes that actually reach the file */
+    private static final class FlushCountingOutputStream extends FilterOutputStream {
+        long flushes;
+
+        FlushCountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushes++;
+            out.flush();
+        }
+    }
+
+    private static long peakHeapUsed() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
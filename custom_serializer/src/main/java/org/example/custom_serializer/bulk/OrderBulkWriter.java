@@ -0,0 +1,145 @@
+package org.example.custom_serializer.bulk;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.custom_serializer.model.Order;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes orders one at a time through a {@link SequenceWriter}, so a {@code List<Order>} never
+ * has to exist: only the order being written is held, whatever the length of the output.
+ * <p>
+ * Values are written with {@code writerFor(Order.class)}, which picks the mapper's registered
+ * {@code OrderSerializer} (writing a raw {@code List} would fall back to bean serialization for
+ * the elements). Output is flushed to the target every {@code batchSize} orders, and on close.
+ * <pre>{@code
+ * try (OrderBulkWriter writer = OrderBulkWriter.open(objectMapper, path, Framing.NDJSON, 1_000)) {
+ *     writer.writeAll(orders.stream().map(Discounts::apply));
+ * }
+ * }</pre>
+ * Not thread-safe.
+ */
+public class OrderBulkWriter implements AutoCloseable {
+
+    public enum Framing {
+        /** {@code [order,order,...]}, readable by {@code readValue(..., List<Order>)} */
+        JSON_ARRAY,
+        /** one order per line, each line ending with {@code \n} */
+        NDJSON
+    }
+
+    private final JsonGenerator generator;
+    private final SequenceWriter sequence;
+    private final Framing framing;
+    private final int batchSize;
+    private long ordersWritten;
+    private long flushes;
+
+    private OrderBulkWriter(ObjectMapper mapper, OutputStream out, Framing framing, int batchSize) throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.framing = framing;
+        this.batchSize = batchSize;
+        this.generator = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        // SequenceWriter would otherwise flush after every value, so batchSize would not matter
+        ObjectWriter writer = mapper.writerFor(Order.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (framing == Framing.NDJSON) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            this.sequence = writer.writeValues(generator);
+        } else {
+            this.sequence = writer.writeValuesAsArray(generator);
+        }
+    }
+
+    /**
+     * @param mapper mapper with the {@code Order} serializer registered; its factory's
+     *               {@code AUTO_CLOSE_TARGET} setting decides whether {@link #close()} closes {@code out}
+     */
+    public static OrderBulkWriter open(ObjectMapper mapper, OutputStream out, Framing framing, int batchSize)
+            throws IOException {
+        return new OrderBulkWriter(mapper, out, framing, batchSize);
+    }
+
+    /**
+     * Creates or truncates {@code file}; it is closed with the writer.
+     */
+    public static OrderBulkWriter open(ObjectMapper mapper, Path file, Framing framing, int batchSize)
+            throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        try {
+            OrderBulkWriter writer = new OrderBulkWriter(mapper, out, framing, batchSize);
+            writer.generator.enable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            out.close();
+            throw e;
+        }
+    }
+
+    public void write(Order order) throws IOException {
+        sequence.write(order);
+        if (++ordersWritten % batchSize == 0) {
+            sequence.flush();
+            flushes++;
+        }
+    }
+
+    /**
+     * Writes and discards the orders as the iterator produces them.
+     *
+     * @return the number of orders written by this call
+     */
+    public long writeAll(Iterator<? extends Order> orders) throws IOException {
+        long before = ordersWritten;
+        while (orders.hasNext()) {
+            write(orders.next());
+        }
+        return ordersWritten - before;
+    }
+
+    /**
+     * Consumes {@code orders} (and closes it, releasing whatever it reads from).
+     *
+     * @return the number of orders written by this call
+     */
+    public long writeAll(Stream<? extends Order> orders) throws IOException {
+        try (orders) {
+            return writeAll(orders.iterator());
+        }
+    }
+
+    public long getOrdersWritten() {
+        return ordersWritten;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    /**
+     * Ends the framing (closing bracket, final newline) and flushes.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sequence.close();
+            if (framing == Framing.NDJSON && ordersWritten > 0) {
+                generator.writeRaw('\n');
+            }
+        } finally {
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.custom_serializer.cache;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Wraps a serializer so that each object is serialized once and afterwards copied from a
+ * {@link SerializedBytesCache} with {@link JsonGenerator#writeRawValue}.
+ * <pre>{@code
+ * SerializedBytesCache cache = new SerializedBytesCache(16 << 20);
+ * module.addSerializer(Customer.class,
+ *         new CachingSerializer<>(Customer.class, new CustomerSerializer(Customer.class), cache));
+ * }</pre>
+ * Only objects that do not change after they are first written are safe to cache by identity.
+ * For mutable ones pass a {@code version} function (a revision counter, a last-modified stamp):
+ * the cached JSON is reused only while it returns an equal value. Output of a pretty-printing
+ * generator depends on the indentation level, so it always goes through the wrapped serializer,
+ * as does polymorphic ({@code serializeWithType}) output.
+ */
+public class CachingSerializer<T> extends StdSerializer<T> implements ContextualSerializer {
+
+    private static final JsonFactory FALLBACK_FACTORY = new JsonFactory();
+
+    private final JsonSerializer<T> delegate;
+    private final SerializedBytesCache cache;
+    private final Function<? super T, ?> version;
+
+    /**
+     * Caches by identity alone.
+     */
+    public CachingSerializer(Class<T> type, JsonSerializer<T> delegate, SerializedBytesCache cache) {
+        this(type, delegate, cache, null);
+    }
+
+    /**
+     * @param version stamp compared on every lookup, or null to cache by identity alone
+     */
+    public CachingSerializer(Class<T> type, JsonSerializer<T> delegate, SerializedBytesCache cache,
+                             Function<? super T, ?> version) {
+        super(type);
+        this.delegate = delegate;
+        this.cache = cache;
+        this.version = version;
+    }
+
+    @Override
+    public void serialize(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (gen.getPrettyPrinter() != null) {
+            delegate.serialize(value, gen, provider);
+            return;
+        }
+        Object stamp = version == null ? null : version.apply(value);
+        // keyed by the delegate: the same object written by another serializer is another entry
+        EncodedValue json = cache.get(delegate, value, stamp);
+        if (json == null) {
+            json = encode(value, gen, provider);
+            cache.put(delegate, value, stamp, json);
+        }
+        gen.writeRawValue(json);
+    }
+
+    /**
+     * Runs the wrapped serializer against a byte buffer, with the target generator's codec and
+     * features so the bytes are what it would have written itself.
+     */
+    private EncodedValue encode(T value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        ObjectCodec codec = gen.getCodec();
+        JsonFactory factory = codec != null ? codec.getFactory() : FALLBACK_FACTORY;
+        ByteArrayBuilder buffer = new ByteArrayBuilder();
+        try (JsonGenerator out = factory.createGenerator(buffer, JsonEncoding.UTF8)) {
+            out.overrideStdFeatures(gen.getFeatureMask(), ~0);
+            out.setCodec(codec);
+            delegate.serialize(value, out, provider);
+        }
+        return new EncodedValue(buffer.toByteArray());
+    }
+
+    @Override
+    public void serializeWithType(T value, JsonGenerator gen, SerializerProvider provider, TypeSerializer typeSer)
+            throws IOException {
+        delegate.serializeWithType(value, gen, provider, typeSer);
+    }
+
+    @Override
+    public boolean isEmpty(SerializerProvider provider, T value) {
+        return delegate.isEmpty(provider, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        JsonSerializer<?> contextual = provider.handleSecondaryContextualization(delegate, property);
+        return contextual == delegate
+                ? this
+                : new CachingSerializer<>(handledType(), (JsonSerializer<T>) contextual, cache, version);
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.custom_serializer.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.model.Address;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.OrderItem;
+import org.example.custom_serializer.serializer.CustomerSerializer;
+import org.example.custom_serializer.serializer.OrderSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Notification fan-out: every order is written once per recipient, and many orders share a
+ * customer. Compares the plain {@code OrderSerializer}/{@code CustomerSerializer} mapper with
+ * one that caches customers only, and one that caches both, then prints the cache statistics.
+ * Rough numbers, not a JMH run; five rounds, the first two are warm-up.
+ * Arguments: orders, distinct customers, recipients per order, cache size in KiB.
+ */
+public class FanOutBenchmark {
+
+    static void main(String... args) throws Exception {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int customerCount = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int recipients = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long cacheBytes = (args.length > 3 ? Long.parseLong(args[3]) : 4_096) << 10;
+
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < customerCount; i++) {
+            Address address = new Address("Street " + i, "City " + (i % 50), String.format("%05d", i), "USA");
+            customers.add(new Customer("CUST-" + i, "First" + i + " Last" + i, "c" + i + "@example.com", address));
+        }
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < orderCount; i++) {
+            List<OrderItem> items = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                items.add(new OrderItem("PROD-" + j, "Product " + j, 1 + j % 5, 9.99 + j));
+            }
+            orders.add(new Order("ORD-" + i, customers.get(i % customerCount), items, 100.0 + i,
+                    LocalDate.of(2025, 1, 1).plusDays(i % 365)));
+        }
+
+        SerializedBytesCache customerCache = new SerializedBytesCache(cacheBytes);
+        SerializedBytesCache sharedCache = new SerializedBytesCache(cacheBytes);
+        ObjectWriter plain = mapper(null, false).writerFor(Order.class);
+        ObjectWriter customersCached = mapper(customerCache, false).writerFor(Order.class);
+        ObjectWriter allCached = mapper(sharedCache, true).writerFor(Order.class);
+        for (Order order : orders) {
+            byte[] expected = plain.writeValueAsBytes(order);
+            if (!Arrays.equals(expected, customersCached.writeValueAsBytes(order))
+                    || !Arrays.equals(expected, allCached.writeValueAsBytes(order))) {
+                throw new AssertionError("cached output differs for " + order.getOrderId());
+            }
+        }
+
+        System.out.printf("%,d orders, %,d customers, %d recipients each, %,d KiB cache%n",
+                orderCount, customerCount, recipients, cacheBytes >> 10);
+        for (int round = 0; round < 5; round++) {
+            long uncached = fanOut(plain, orders, recipients);
+            long customerOnly = fanOut(customersCached, orders, recipients);
+            long both = fanOut(allCached, orders, recipients);
+            System.out.printf("round %d: plain %7.1f ms | customers cached %7.1f ms (x%.2f) | orders+customers cached %7.1f ms (x%.2f)%n",
+                    round, uncached / 1e6, customerOnly / 1e6, (double) uncached / customerOnly,
+                    both / 1e6, (double) uncached / both);
+        }
+        System.out.println("customer cache: " + customerCache.stats());
+        System.out.println("shared cache:   " + sharedCache.stats());
+    }
+
+    private static ObjectMapper mapper(SerializedBytesCache cache, boolean cacheOrders) {
+        SimpleModule module = new SimpleModule();
+        OrderSerializer orderSerializer = new OrderSerializer(Order.class);
+        CustomerSerializer customerSerializer = new CustomerSerializer(Customer.class);
+        if (cache == null) {
+            module.addSerializer(Order.class, orderSerializer);
+            module.addSerializer(Customer.class, customerSerializer);
+        } else {
+            module.addSerializer(Order.class,
+                    cacheOrders ? new CachingSerializer<>(Order.class, orderSerializer, cache) : orderSerializer);
+            module.addSerializer(Customer.class, new CachingSerializer<>(Customer.class, customerSerializer, cache));
+        }
+        return new ObjectMapper().registerModule(module);
+    }
+
+    /** results go here so the JIT cannot drop the work */
+    private static volatile Object sink;
+
+    private static long fanOut(ObjectWriter writer, List<Order> orders, int recipients) throws Exception {
+        long begin = System.nanoTime();
+        for (Order order : orders) {
+            for (int r = 0; r < recipients; r++) {
+                sink = writer.writeValueAsBytes(order);
+            }
+        }
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.custom_serializer.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded store of already-encoded JSON, shared by any number of {@link CachingSerializer}s.
+ * <p>
+ * Entries are keyed by the identity of the serialized object (and the serializer that wrote
+ * it), optionally checked against a version stamp, and hold the UTF-8 bytes of its JSON. The
+ * bound is the total number of those bytes; when it is exceeded the least recently used entries
+ * go first. Values larger than an eighth of the budget are never stored, so one huge object
+ * cannot flush everything else.
+ * <p>
+ * The cache keeps the cached objects reachable until they are evicted or
+ * {@link #invalidate(Object) invalidated}.
+ */
+public class SerializedBytesCache {
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    /** access-ordered: iteration starts at the least recently used entry */
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    /**
+     * @param maxBytes upper bound for the total size of the cached JSON
+     */
+    public SerializedBytesCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = Math.max(1, maxBytes / 8);
+    }
+
+    /**
+     * @return the cached JSON of {@code value} as written by {@code owner}, or null if absent or
+     * cached for a different {@code version}
+     */
+    EncodedValue get(Object owner, Object value, Object version) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(new Key(owner, value));
+        }
+        if (entry == null || !Objects.equals(entry.version, version)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        bytesServed.add(entry.json.length());
+        return entry.json;
+    }
+
+    void put(Object owner, Object value, Object version, EncodedValue json) {
+        long size = json.length();
+        if (size > maxEntryBytes) {
+            return;
+        }
+        synchronized (this) {
+            Entry previous = entries.put(new Key(owner, value), new Entry(version, json));
+            bytes += size - (previous == null ? 0 : previous.json.length());
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (bytes > maxBytes) {
+                bytes -= eldest.next().json.length();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Drops every cached encoding of {@code value}; call it after mutating an object that is
+     * cached without a version stamp. Objects whose cached JSON embeds {@code value} (an order
+     * containing the customer) are not affected.
+     */
+    public synchronized void invalidate(Object value) {
+        for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Key, Entry> entry = it.next();
+            if (entry.getKey().value == value) {
+                bytes -= entry.getValue().json.length();
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public Stats stats() {
+        int size;
+        long currentBytes;
+        synchronized (this) {
+            size = entries.size();
+            currentBytes = bytes;
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size, currentBytes, bytesServed.sum());
+    }
+
+    /**
+     * @param bytes       current size of the cached JSON
+     * @param bytesServed JSON bytes written from the cache instead of being serialized
+     */
+    public record Stats(long hits, long misses, long evictions, int entries, long bytes, long bytesServed) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("hits=%,d misses=%,d (%.1f%% hit) evictions=%,d entries=%,d bytes=%,d served=%,d",
+                    hits, misses, hitRate() * 100, evictions, entries, bytes, bytesServed);
+        }
+    }
+
+    private record Entry(Object version, EncodedValue json) {
+    }
+
+    /** identity of the object, plus the serializer so two encodings of one object do not collide */
+    private static final class Key {
+        final Object owner;
+        final Object value;
+
+        Key(Object owner, Object value) {
+            this.owner = owner;
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key that && that.owner == owner && that.value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(owner) + System.identityHashCode(value);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.example.custom_serializer.ingest;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.example.custom_serializer.model.Order;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Turns JSON arriving in arbitrary fragments (socket reads) into {@link Order}s without blocking.
+ * <p>
+ * Bytes go to Jackson's non-blocking parser, which hands out tokens as far as the input goes
+ * and then reports {@link JsonToken#NOT_AVAILABLE}. The tokens of the order being received are
+ * copied into a {@link TokenBuffer}; once its closing brace arrives the buffer is replayed
+ * through the mapper, so the registered {@code OrderDeserializer} runs exactly as it does for a
+ * file, and the order goes to the callback.
+ * <p>
+ * Accepts a stream of order objects (whitespace or newline separated), one or more arrays of
+ * orders (like {@code orders.json}), or a mix. One instance per connection; not thread-safe.
+ */
+public class AsyncOrderParser implements AutoCloseable {
+
+    private final ObjectMapper mapper;
+    private final ObjectReader orderReader;
+    private final Consumer<Order> onOrder;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private byte[] scratch = new byte[0];
+    /** tokens of the order being received, or null between orders */
+    private TokenBuffer current;
+    /** nesting depth, counting an enclosing array of orders */
+    private int depth;
+    private int orderDepth;
+    private long bytesFed;
+    private long ordersParsed;
+
+    /**
+     * @param mapper mapper with the {@code Order} deserializer registered
+     */
+    public AsyncOrderParser(ObjectMapper mapper, Consumer<Order> onOrder) throws IOException {
+        this.mapper = mapper;
+        this.orderReader = mapper.readerFor(Order.class);
+        this.onOrder = onOrder;
+        this.parser = mapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Consumes all remaining bytes of {@code chunk} and delivers every order they complete.
+     *
+     * @throws JsonParseException if the input is not JSON or not orders; the parser is then unusable
+     */
+    public void feed(ByteBuffer chunk) throws IOException {
+        int length = chunk.remaining();
+        if (length == 0) {
+            return;
+        }
+        if (chunk.hasArray()) {
+            int start = chunk.arrayOffset() + chunk.position();
+            feeder.feedInput(chunk.array(), start, start + length);
+            chunk.position(chunk.limit());
+        } else {
+            if (scratch.length < length) {
+                scratch = new byte[length];
+            }
+            chunk.get(scratch, 0, length);
+            feeder.feedInput(scratch, 0, length);
+        }
+        bytesFed += length;
+        // the feeder keeps a reference to the array: drain it before the caller reuses the buffer
+        drain();
+    }
+
+    public void feed(byte[] bytes, int offset, int length) throws IOException {
+        feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Signals that the peer is done.
+     *
+     * @throws JsonParseException if the input stopped inside an order or an array
+     */
+    public void endOfInput() throws IOException {
+        feeder.endOfInput();
+        drain();
+        if (current != null || depth != 0) {
+            throw new JsonParseException(parser, "input ended inside " + (current != null ? "an order" : "an array"));
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (current == null) {
+                startOrSkip(token);
+                continue;
+            }
+            current.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == orderDepth) {
+                emit();
+            }
+        }
+    }
+
+    /**
+     * Between orders only the start of an order or an enclosing array can appear.
+     */
+    private void startOrSkip(JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT -> {
+                current = new TokenBuffer(mapper, false);
+                current.copyCurrentEvent(parser);
+                orderDepth = depth++;
+            }
+            case START_ARRAY -> {
+                if (depth != 0) {
+                    throw new JsonParseException(parser, "expected an order object, found a nested array");
+                }
+                depth = 1;
+            }
+            case END_ARRAY -> depth = 0;
+            default -> throw new JsonParseException(parser, "expected an order object, found " + token);
+        }
+    }
+
+    private void emit() throws IOException {
+        TokenBuffer tokens = current;
+        current = null;
+        Order order;
+        try (JsonParser replay = tokens.asParser(mapper)) {
+            order = orderReader.readValue(replay);
+        }
+        ordersParsed++;
+        onOrder.accept(order);
+    }
+
+    public long getBytesFed() {
+        return bytesFed;
+    }
+
+    public long getOrdersParsed() {
+        return ordersParsed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.custom_serializer.ingest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.deserializer.OrderDeserializer;
+import org.example.custom_serializer.model.Order;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.logging.Logger;
+
+/**
+ * Loopback check for {@link AsyncOrderParser}: a selector-driven server reads {@code orders.json}
+ * that a client sends several times over in random 1–64 byte fragments, and each connection's
+ * parser reports orders as soon as their last byte arrives.
+ * Arguments: number of clients, copies of {@code orders.json} per client.
+ */
+public class LoopbackIngestDemo {
+    private static final Logger LOGGER = Logger.getLogger(LoopbackIngestDemo.class.getName());
+
+    static void main(String... args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int copies = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Order.class, new OrderDeserializer(Order.class));
+        objectMapper.registerModule(module);
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        byte[] document;
+        try (InputStream in = ClassLoader.getSystemResourceAsStream("orders.json")) {
+            document = in.readAllBytes();
+        }
+
+        List<Order> received = new ArrayList<>();
+        try (Selector selector = Selector.open();
+             ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+            InetSocketAddress address = (InetSocketAddress) server.getLocalAddress();
+
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                Thread sender = new Thread(() -> send(address, document, copies, new Random(client)));
+                sender.setDaemon(true);
+                sender.start();
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+            int open = clients;
+            int accepted = 0;
+            while (open > 0) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isAcceptable()) {
+                        SocketChannel channel = server.accept();
+                        if (channel == null) {
+                            continue;
+                        }
+                        channel.configureBlocking(false);
+                        String peer = "client-" + accepted++;
+                        AsyncOrderParser parser = new AsyncOrderParser(objectMapper, order -> {
+                            LOGGER.info(String.format("%s: %s", peer, order.getOrderId()));
+                            received.add(order);
+                        });
+                        channel.register(selector, SelectionKey.OP_READ, parser);
+                    } else if (key.isReadable()) {
+                        SocketChannel channel = (SocketChannel) key.channel();
+                        AsyncOrderParser parser = (AsyncOrderParser) key.attachment();
+                        buffer.clear();
+                        int read = channel.read(buffer);
+                        if (read < 0) {
+                            parser.endOfInput();
+                            LOGGER.info(String.format("connection closed after %,d bytes, %d orders",
+                                    parser.getBytesFed(), parser.getOrdersParsed()));
+                            parser.close();
+                            key.cancel();
+                            channel.close();
+                            open--;
+                        } else {
+                            buffer.flip();
+                            parser.feed(buffer);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Order> expected = objectMapper.readerForListOf(Order.class).readValue(document);
+        boolean complete = received.size() == expected.size() * clients * copies
+                && received.containsAll(expected);
+        LOGGER.info(String.format("received %d orders, %s", received.size(),
+                complete ? "all match orders.json" : "MISMATCH"));
+    }
+
+    private static void send(InetSocketAddress address, byte[] document, int copies, Random random) {
+        try (SocketChannel channel = SocketChannel.open(address)) {
+            // no Nagle delay and the occasional pause keep the fragments from being coalesced
+            channel.socket().setTcpNoDelay(true);
+            for (int i = 0; i < copies; i++) {
+                for (int offset = 0; offset < document.length; ) {
+                    int length = Math.min(1 + random.nextInt(64), document.length - offset);
+                    ByteBuffer fragment = ByteBuffer.wrap(document, offset, length);
+                    while (fragment.hasRemaining()) {
+                        channel.write(fragment);
+                    }
+                    offset += length;
+                    if (random.nextInt(8) == 0) {
+                        Thread.sleep(1);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package org.example.custom_serializer.ingest;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.example.custom_serializer.model.Order;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes the elements of a JSON array of orders ({@code orders.json} style) one by one, as
+ * the subscriber asks for them.
+ * <p>
+ * Nothing is read ahead of demand: each {@code request(n)} parses at most {@code n} more orders
+ * from the stream (through the mapper, so the registered {@code OrderDeserializer} is used), and
+ * a slow subscriber simply leaves the rest of the input unread. {@code cancel()} closes the
+ * stream without reading further. Every subscription opens its own stream from the source.
+ * <p>
+ * Parsing runs on the given executor (a virtual thread per drain by default), never on the
+ * thread calling {@code request}, and signals to one subscriber are never concurrent.
+ */
+public class OrderPublisher implements Flow.Publisher<Order> {
+
+    private final ObjectMapper mapper;
+    private final ObjectReader orderReader;
+    private final Callable<? extends InputStream> source;
+    private final Executor executor;
+
+    /**
+     * @param mapper mapper with the {@code Order} deserializer registered
+     * @param source opens the input, once per subscription
+     */
+    public OrderPublisher(ObjectMapper mapper, Callable<? extends InputStream> source) {
+        this(mapper, source, task -> Thread.ofVirtual().start(task));
+    }
+
+    public OrderPublisher(ObjectMapper mapper, Callable<? extends InputStream> source, Executor executor) {
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.orderReader = mapper.readerFor(Order.class);
+        this.source = Objects.requireNonNull(source, "source");
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Order> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new OrderSubscription(subscriber));
+    }
+
+    private final class OrderSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super Order> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        /** drain requests not yet handled; the drain loop runs while it is non-zero */
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // touched only by the drain loop
+        private JsonParser parser;
+        private boolean done;
+
+        OrderSubscription(Flow.Subscriber<? super Order> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("request must be positive: " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+
+        private void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                drain();
+                missed = pending.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drain() {
+            if (done) {
+                return;
+            }
+            try {
+                if (parser == null && !cancelled) {
+                    parser = mapper.createParser(source.call());
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        throw MismatchedInputException.from(parser, Order.class, "expected an array of orders");
+                    }
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                while (true) {
+                    if (cancelled) {
+                        finish();
+                        return;
+                    }
+                    if (invalidRequest != null) {
+                        finish();
+                        subscriber.onError(invalidRequest);
+                        return;
+                    }
+                    if (emitted == requested) {
+                        break;
+                    }
+                    if (parser.nextToken() == JsonToken.END_ARRAY) {
+                        finish();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(orderReader.readValue(parser));
+                    emitted++;
+                }
+                if (requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+            } catch (Exception e) {
+                finish();
+                subscriber.onError(e);
+            }
+        }
+
+        private void finish() {
+            done = true;
+            if (parser != null) {
+                try {
+                    parser.close();
+                } catch (IOException ignored) {
+                    // nothing more will be read from it either way
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.custom_serializer.ingest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.deserializer.OrderDeserializer;
+import org.example.custom_serializer.model.Order;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.logging.Logger;
+
+/**
+ * {@link OrderPublisher} against a slow subscriber: the input is a generated array of a million
+ * copies of {@code order.json} (about 600 MB, never materialized), the subscriber requests one
+ * order at a time, takes a few milliseconds per order and cancels after the given count. The
+ * log shows how little of the input was actually read.
+ * Arguments: orders to take before cancelling, milliseconds per order.
+ */
+public class OrderPublisherDemo {
+    private static final Logger LOGGER = Logger.getLogger(OrderPublisherDemo.class.getName());
+
+    static void main(String... args) throws Exception {
+        int take = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        long delayMillis = args.length > 1 ? Long.parseLong(args[1]) : 20;
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Order.class, new OrderDeserializer(Order.class));
+        objectMapper.registerModule(module);
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+        byte[] order;
+        try (InputStream in = ClassLoader.getSystemResourceAsStream("order.json")) {
+            order = in.readAllBytes();
+        }
+        RepeatedArrayStream input = new RepeatedArrayStream(order, 1_000_000);
+
+        CountDownLatch finished = new CountDownLatch(1);
+        new OrderPublisher(objectMapper, () -> input).subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+            private int received;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(Order item) {
+                LOGGER.info(String.format("order %d: %s, %,d bytes read so far", ++received, item.getOrderId(), input.bytesRead));
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (received == take) {
+                    subscription.cancel();
+                    finished.countDown();
+                } else {
+                    subscription.request(1);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                LOGGER.severe(throwable.toString());
+                finished.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                finished.countDown();
+            }
+        });
+        finished.await();
+        Thread.sleep(50); // let the drain loop observe the cancellation and close the stream
+        LOGGER.info(String.format("cancelled after %d orders: read %,d of %,d bytes, stream closed: %s",
+                take, input.bytesRead, input.length, input.closed));
+    }
+
+    /**
+     * {@code [order,order,...]} generated on the fly.
+     */
+    private static final class RepeatedArrayStream extends InputStream {
+        private final byte[] element;
+        private final long length;
+        private long position;
+        volatile long bytesRead;
+        volatile boolean closed;
+
+        RepeatedArrayStream(byte[] element, long count) {
+            this.element = element;
+            // '[' + elements + separating commas + ']'
+            this.length = 2 + count * element.length + (count - 1);
+        }
+
+        @Override
+        public int read() {
+            if (position == length) {
+                return -1;
+            }
+            int b = byteAt(position++);
+            bytesRead = position;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int len) {
+            if (position == length) {
+                return -1;
+            }
+            int n = (int) Math.min(len, length - position);
+            for (int i = 0; i < n; i++) {
+                buffer[offset + i] = (byte) byteAt(position++);
+            }
+            bytesRead = position;
+            return n;
+        }
+
+        private int byteAt(long index) {
+            if (index == 0) return '[';
+            if (index == length - 1) return ']';
+            long offset = (index - 1) % (element.length + 1);
+            return offset == element.length ? ',' : element[(int) offset];
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+        }
+    }
+}
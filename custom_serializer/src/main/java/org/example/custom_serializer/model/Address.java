@@ -1,7 +1,10 @@
 package org.example.custom_serializer.model;
 
+import org.example.codegen.GenerateCodec;
+
 import java.util.Objects;
 
+@GenerateCodec
 public class Address {
     private String street;
     private String city;
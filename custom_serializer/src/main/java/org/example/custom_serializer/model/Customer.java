@@ -1,15 +1,23 @@
 package org.example.custom_serializer.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.example.codegen.CodecJoin;
+import org.example.codegen.CodecName;
+import org.example.codegen.GenerateCodec;
 
 import java.util.Objects;
 
+@GenerateCodec
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Customer {
+    @CodecName(value = "ID", aliases = "id")
     private String id;
+    @CodecJoin(name = "name", part = 0)
     private String firstName;
+    @CodecJoin(name = "name", part = 1)
     private String lastName;
     private String email;
+    @CodecName(value = "addresses", aliases = "shippingAddress")
     private Address shippingAddress;
 
     public Customer() {
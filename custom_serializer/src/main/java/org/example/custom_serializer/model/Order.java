@@ -1,14 +1,20 @@
 package org.example.custom_serializer.model;
 
+import org.example.codegen.CodecName;
+import org.example.codegen.GenerateCodec;
+
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 
+@GenerateCodec
 public final class Order {
+    @CodecName(value = "ID", aliases = "orderId")
     private String orderId;
     private Customer customer;
     private List<OrderItem> items;
+    @CodecName(value = "amount", aliases = "totalAmount")
     private double totalAmount;
     private LocalDate orderDate;
 
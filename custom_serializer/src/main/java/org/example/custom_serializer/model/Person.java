@@ -1,13 +1,20 @@
 package org.example.custom_serializer.model;
 
+import org.example.codegen.GenerateCodec;
+
 import java.util.Date;
+import java.util.List;
 
+@GenerateCodec
 public class Person {
     private String name;
     private String email;
     
 //    @JsonDeserialize(using = PersonDeserializer.class)
     private Date birthDate;
+
+    // one list of lines per address; a nested list for the generated codec
+    private List<List<String>> addressLines;
     
     // Default constructor
     public Person() {}
@@ -36,6 +43,14 @@ public class Person {
     public void setBirthDate(Date birthDate) {
         this.birthDate = birthDate;
     }
+
+    public List<List<String>> getAddressLines() {
+        return addressLines;
+    }
+
+    public void setAddressLines(List<List<String>> addressLines) {
+        this.addressLines = addressLines;
+    }
 //
     @Override
     public String toString() {
@@ -43,6 +58,7 @@ public class Person {
                 "name='" + name + '\'' +
                 ", email='" + email + '\'' +
                 ", birthDate=" + birthDate +
+                ", addressLines=" + addressLines +
                 '}';
     }
 }
@@ -0,0 +1,283 @@
+package org.example.custom_serializer.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes an RFC 6902 JSON Patch that turns one JSON document into another, using only
+ * {@code add}, {@code remove} and {@code replace}.
+ * <p>
+ * Objects are compared member by member, recursing into members present on both sides. Arrays
+ * are aligned with Myers' O(ND) difference algorithm after trimming the common prefix and
+ * suffix, so inserting or removing a few elements of a long array (an order's items) costs a
+ * few operations rather than one per shifted element. An element replaced in place is diffed
+ * recursively, so changing one item's quantity yields a single {@code replace} of that quantity.
+ * Arrays differing in more than {@value #MAX_EDIT_DISTANCE} elements are compared position by
+ * position instead. Elements appended at the end use the {@code -} index.
+ */
+public final class JsonDiff {
+
+    /** upper bound for the array edit distance searched; keeps the trace at O(D^2) ints */
+    static final int MAX_EDIT_DISTANCE = 1_000;
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+
+    private final ArrayNode patch = NODES.arrayNode();
+
+    private JsonDiff() {
+    }
+
+    /**
+     * @return the patch as an array of operation objects; empty if the documents are equal
+     */
+    public static ArrayNode diff(JsonNode source, JsonNode target) {
+        JsonDiff diff = new JsonDiff();
+        diff.value("", source, target);
+        return diff.patch;
+    }
+
+    /**
+     * Diffs the trees of two objects as {@code mapper} serializes them, so the patch paths use
+     * the wire names written by the registered serializers ({@code ID}, {@code amount}, ...).
+     */
+    public static ArrayNode diff(ObjectMapper mapper, Object source, Object target) {
+        return diff(mapper.valueToTree(source), mapper.valueToTree(target));
+    }
+
+    private void value(String path, JsonNode source, JsonNode target) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            object(path, (ObjectNode) source, (ObjectNode) target);
+        } else if (source.isArray() && target.isArray()) {
+            array(path, (ArrayNode) source, (ArrayNode) target);
+        } else {
+            operation("replace", path, target);
+        }
+    }
+
+    private void object(String path, ObjectNode source, ObjectNode target) {
+        for (Iterator<Map.Entry<String, JsonNode>> it = source.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            JsonNode targetValue = target.get(field.getKey());
+            if (targetValue == null) {
+                operation("remove", path + "/" + escape(field.getKey()), null);
+            } else {
+                value(path + "/" + escape(field.getKey()), field.getValue(), targetValue);
+            }
+        }
+        for (Iterator<Map.Entry<String, JsonNode>> it = target.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> field = it.next();
+            if (!source.has(field.getKey())) {
+                operation("add", path + "/" + escape(field.getKey()), field.getValue());
+            }
+        }
+    }
+
+    private void array(String path, ArrayNode source, ArrayNode target) {
+        int n = source.size();
+        int m = target.size();
+        int prefix = 0;
+        while (prefix < n && prefix < m && source.get(prefix).equals(target.get(prefix))) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < n - prefix && suffix < m - prefix
+                && source.get(n - 1 - suffix).equals(target.get(m - 1 - suffix))) {
+            suffix++;
+        }
+        ArrayEdits edits = new ArrayEdits(path, source, target, n);
+        edits.index = prefix;
+        List<Step> script = script(source, prefix, n - suffix, target, prefix, m - suffix);
+        if (script == null) {
+            // too different to align: compare position by position
+            int common = Math.min(n, m) - prefix - suffix;
+            for (int i = 0; i < common; i++) {
+                edits.change(prefix + i, prefix + i);
+            }
+            for (int i = common; i < n - prefix - suffix; i++) {
+                edits.remove();
+            }
+            for (int j = common; j < m - prefix - suffix; j++) {
+                edits.insert(prefix + j);
+            }
+            return;
+        }
+        // a run of deletions and insertions between two kept elements: pair them up as changes
+        List<Integer> deleted = new ArrayList<>();
+        List<Integer> inserted = new ArrayList<>();
+        for (Step step : script) {
+            if (step.kind == Step.KEEP) {
+                edits.flush(deleted, inserted);
+                edits.index++;
+            } else if (step.kind == Step.DELETE) {
+                deleted.add(step.position);
+            } else {
+                inserted.add(step.position);
+            }
+        }
+        edits.flush(deleted, inserted);
+    }
+
+    /** emits the operations for one array while tracking the current index and length */
+    private final class ArrayEdits {
+        final String path;
+        final ArrayNode source;
+        final ArrayNode target;
+        int length;
+        int index;
+
+        ArrayEdits(String path, ArrayNode source, ArrayNode target, int length) {
+            this.path = path;
+            this.source = source;
+            this.target = target;
+            this.length = length;
+        }
+
+        void change(int sourcePosition, int targetPosition) {
+            value(path + "/" + index, source.get(sourcePosition), target.get(targetPosition));
+            index++;
+        }
+
+        void remove() {
+            operation("remove", path + "/" + index, null);
+            length--;
+        }
+
+        void insert(int targetPosition) {
+            operation("add", path + "/" + (index == length ? "-" : Integer.toString(index)), target.get(targetPosition));
+            index++;
+            length++;
+        }
+
+        void flush(List<Integer> deleted, List<Integer> inserted) {
+            int paired = Math.min(deleted.size(), inserted.size());
+            for (int i = 0; i < paired; i++) {
+                change(deleted.get(i), inserted.get(i));
+            }
+            for (int i = paired; i < deleted.size(); i++) {
+                remove();
+            }
+            for (int i = paired; i < inserted.size(); i++) {
+                insert(inserted.get(i));
+            }
+            deleted.clear();
+            inserted.clear();
+        }
+    }
+
+    private record Step(int kind, int position) {
+        static final int KEEP = 0;
+        static final int DELETE = 1;
+        static final int INSERT = 2;
+    }
+
+    /**
+     * Myers' greedy shortest edit script between {@code a[aFrom, aTo)} and {@code b[bFrom, bTo)}.
+     *
+     * @return the steps in order, positions being indexes into {@code a} (keep, delete) or
+     * {@code b} (insert); null if the edit distance exceeds {@link #MAX_EDIT_DISTANCE}
+     */
+    private static List<Step> script(ArrayNode a, int aFrom, int aTo, ArrayNode b, int bFrom, int bTo) {
+        int n = aTo - aFrom;
+        int m = bTo - bFrom;
+        int[] aHash = new int[n];
+        int[] bHash = new int[m];
+        for (int i = 0; i < n; i++) {
+            aHash[i] = a.get(aFrom + i).hashCode();
+        }
+        for (int j = 0; j < m; j++) {
+            bHash[j] = b.get(bFrom + j).hashCode();
+        }
+        int max = Math.min(n + m, MAX_EDIT_DISTANCE);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        // trace.get(d) holds v[-d..d] as it was before step d + 1
+        List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])
+                        ? v[offset + k + 1]
+                        : v[offset + k - 1] + 1;
+                int y = x - k;
+                while (x < n && y < m && aHash[x] == bHash[y] && a.get(aFrom + x).equals(b.get(bFrom + y))) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    int[] last = new int[2 * d + 1];
+                    System.arraycopy(v, offset - d, last, 0, 2 * d + 1);
+                    trace.add(last);
+                    return backtrack(trace, n, m, aFrom, bFrom);
+                }
+            }
+            int[] snapshot = new int[2 * d + 1];
+            System.arraycopy(v, offset - d, snapshot, 0, 2 * d + 1);
+            trace.add(snapshot);
+        }
+        return null;
+    }
+
+    private static List<Step> backtrack(List<int[]> trace, int n, int m, int aFrom, int bFrom) {
+        List<Step> reversed = new ArrayList<>();
+        int x = n;
+        int y = m;
+        for (int d = trace.size() - 1; d > 0; d--) {
+            int[] previous = trace.get(d - 1);
+            int k = x - y;
+            boolean down = k == -d || (k != d && at(previous, d - 1, k - 1) < at(previous, d - 1, k + 1));
+            int previousK = down ? k + 1 : k - 1;
+            int previousX = at(previous, d - 1, previousK);
+            int previousY = previousX - previousK;
+            while (x > previousX + (down ? 0 : 1) && y > previousY + (down ? 1 : 0)) {
+                x--;
+                y--;
+                reversed.add(new Step(Step.KEEP, aFrom + x));
+            }
+            if (down) {
+                y--;
+                reversed.add(new Step(Step.INSERT, bFrom + y));
+            } else {
+                x--;
+                reversed.add(new Step(Step.DELETE, aFrom + x));
+            }
+        }
+        while (x > 0) {
+            x--;
+            reversed.add(new Step(Step.KEEP, aFrom + x));
+        }
+        List<Step> steps = new ArrayList<>(reversed.size());
+        for (int i = reversed.size() - 1; i >= 0; i--) {
+            steps.add(reversed.get(i));
+        }
+        return steps;
+    }
+
+    /** v[k] from the snapshot of step d, which covers k in [-d, d] */
+    private static int at(int[] snapshot, int d, int k) {
+        return snapshot[k + d];
+    }
+
+    private void operation(String op, String path, JsonNode value) {
+        ObjectNode operation = patch.addObject();
+        operation.put("op", op);
+        operation.put("path", path);
+        if (value != null) {
+            operation.set("value", value.deepCopy());
+        }
+    }
+
+    static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
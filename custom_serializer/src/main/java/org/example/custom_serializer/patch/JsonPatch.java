@@ -0,0 +1,179 @@
+package org.example.custom_serializer.patch;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Applies an RFC 6902 JSON Patch to a tree: all six operations, each seeing the result of the
+ * previous one. This is the reference implementation; {@link StreamingPatchApplier} applies the
+ * {@code add}/{@code remove}/{@code replace} subset without building the document tree.
+ * <p>
+ * Failures (missing path, index out of bounds, failed {@code test}) throw
+ * {@link IllegalArgumentException}; the input document is never modified.
+ */
+public final class JsonPatch {
+
+    private JsonPatch() {
+    }
+
+    /**
+     * @return the patched copy of {@code document}
+     */
+    public static JsonNode apply(JsonNode document, JsonNode patch) {
+        if (!patch.isArray()) {
+            throw new IllegalArgumentException("a JSON Patch is an array of operations");
+        }
+        JsonNode result = document.deepCopy();
+        for (JsonNode operation : patch) {
+            JsonPointer path = JsonPointer.compile(text(operation, "path"));
+            String op = text(operation, "op");
+            result = switch (op) {
+                case "add", "remove", "replace" -> apply(result, op, path, operation.get("value"));
+                case "move" -> {
+                    JsonPointer from = JsonPointer.compile(text(operation, "from"));
+                    if (!from.equals(path) && path.toString().startsWith(from + "/")) {
+                        throw new IllegalArgumentException("cannot move " + from + " into its own child " + path);
+                    }
+                    JsonNode value = get(result, from);
+                    yield add(remove(result, from), path, value);
+                }
+                case "copy" -> add(result, path, get(result, JsonPointer.compile(text(operation, "from"))).deepCopy());
+                case "test" -> {
+                    if (!get(result, path).equals(required(operation, "value"))) {
+                        throw new IllegalArgumentException("test failed at " + path);
+                    }
+                    yield result;
+                }
+                default -> throw new IllegalArgumentException("unknown operation '" + op + "'");
+            };
+        }
+        return result;
+    }
+
+    /**
+     * Applies one {@code add}, {@code remove} or {@code replace} to {@code root}, modifying it.
+     *
+     * @return the new root, which differs from {@code root} only when the whole document is replaced
+     */
+    static JsonNode apply(JsonNode root, String op, JsonPointer path, JsonNode value) {
+        return switch (op) {
+            case "add" -> add(root, path, requiredValue(value, op).deepCopy());
+            case "remove" -> remove(root, path);
+            case "replace" -> {
+                JsonNode replacement = requiredValue(value, op).deepCopy();
+                if (path.matches()) {
+                    yield replacement;
+                }
+                JsonNode parent = get(root, path.head());
+                if (parent instanceof ArrayNode array) {
+                    array.set(existingIndex(array, path), replacement);
+                } else if (parent instanceof ObjectNode object && object.has(path.last().getMatchingProperty())) {
+                    object.set(path.last().getMatchingProperty(), replacement);
+                } else {
+                    throw new IllegalArgumentException("no value at " + path);
+                }
+                yield root;
+            }
+            default -> throw new IllegalArgumentException("unknown operation '" + op + "'");
+        };
+    }
+
+    private static JsonNode add(JsonNode root, JsonPointer path, JsonNode value) {
+        if (path.matches()) {
+            return value;
+        }
+        JsonNode parent = get(root, path.head());
+        String token = path.last().getMatchingProperty();
+        if (parent instanceof ObjectNode object) {
+            object.set(token, value);
+        } else if (parent instanceof ArrayNode array) {
+            if (token.equals("-")) {
+                array.add(value);
+            } else {
+                int index = index(token, path);
+                if (index > array.size()) {
+                    throw new IllegalArgumentException("index out of bounds: " + path);
+                }
+                array.insert(index, value);
+            }
+        } else {
+            throw new IllegalArgumentException("not a container: " + path.head());
+        }
+        return root;
+    }
+
+    private static JsonNode remove(JsonNode root, JsonPointer path) {
+        if (path.matches()) {
+            throw new IllegalArgumentException("cannot remove the whole document");
+        }
+        JsonNode parent = get(root, path.head());
+        if (parent instanceof ArrayNode array) {
+            array.remove(existingIndex(array, path));
+        } else if (parent instanceof ObjectNode object && object.has(path.last().getMatchingProperty())) {
+            object.remove(path.last().getMatchingProperty());
+        } else {
+            throw new IllegalArgumentException("no value at " + path);
+        }
+        return root;
+    }
+
+    private static JsonNode get(JsonNode root, JsonPointer path) {
+        JsonNode node = root.at(path);
+        if (node.isMissingNode()) {
+            throw new IllegalArgumentException("no value at " + path);
+        }
+        return node;
+    }
+
+    private static int existingIndex(ArrayNode array, JsonPointer path) {
+        int index = index(path.last().getMatchingProperty(), path);
+        if (index >= array.size()) {
+            throw new IllegalArgumentException("index out of bounds: " + path);
+        }
+        return index;
+    }
+
+    static boolean isIndex(String token) {
+        if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            if (token.charAt(i) < '0' || token.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int index(String token, Object path) {
+        if (!isIndex(token)) {
+            throw new IllegalArgumentException("not an array index: " + path);
+        }
+        return Integer.parseInt(token);
+    }
+
+    static String text(JsonNode operation, String field) {
+        JsonNode value = required(operation, field);
+        if (!value.isTextual()) {
+            throw new IllegalArgumentException("'" + field + "' must be a string: " + operation);
+        }
+        return value.textValue();
+    }
+
+    private static JsonNode required(JsonNode operation, String field) {
+        JsonNode value = operation.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException("missing '" + field + "': " + operation);
+        }
+        return value;
+    }
+
+    private static JsonNode requiredValue(JsonNode value, String op) {
+        if (value == null) {
+            throw new IllegalArgumentException("'" + op + "' needs a value");
+        }
+        return value;
+    }
+}
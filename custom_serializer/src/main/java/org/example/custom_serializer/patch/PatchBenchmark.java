@@ -0,0 +1,100 @@
+package org.example.custom_serializer.patch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.example.custom_serializer.model.Address;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.OrderItem;
+import org.example.custom_serializer.serializer.CustomerSerializer;
+import org.example.custom_serializer.serializer.OrderSerializer;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order updates as deltas: for orders of 1 to 10,000 items, a new version (amount, customer
+ * email, one item's quantity, one item inserted and one removed) is diffed against the stored
+ * JSON. Prints full document vs patch size and compares applying the patch while streaming
+ * against reparsing the stored document into a tree, patching and writing it.
+ * Rough numbers, not a JMH run; the first of three rounds is warm-up.
+ */
+public class PatchBenchmark {
+
+    static void main(String... args) throws Exception {
+        SimpleModule module = new SimpleModule();
+        module.addSerializer(Order.class, new OrderSerializer(Order.class));
+        module.addSerializer(Customer.class, new CustomerSerializer(Customer.class));
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(module);
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d:%n", round);
+            for (int items : new int[]{1, 10, 100, 1_000, 10_000}) {
+                Order before = order(items);
+                Order after = order(items);
+                update(after);
+                byte[] stored = objectMapper.writeValueAsBytes(before);
+                JsonNode expected = objectMapper.readTree(objectMapper.writeValueAsBytes(after));
+                int repetitions = Math.max(5, 200_000 / (items + 10));
+
+                ArrayNode patch = JsonDiff.diff(objectMapper, before, after);
+                long diffNanos = time(repetitions, () -> JsonDiff.diff(objectMapper, before, after));
+                byte[] patchBytes = objectMapper.writeValueAsBytes(patch);
+
+                StreamingPatchApplier applier = new StreamingPatchApplier(patch);
+                if (!objectMapper.readTree(applier.apply(objectMapper, stored)).equals(expected)
+                        || !JsonPatch.apply(objectMapper.readTree(stored), patch).equals(expected)) {
+                    throw new AssertionError("patched order differs from the new version, " + items + " items");
+                }
+                long streamNanos = time(repetitions, () -> applier.apply(objectMapper, stored));
+                long treeNanos = time(repetitions, () ->
+                        objectMapper.writeValueAsBytes(JsonPatch.apply(objectMapper.readTree(stored), patch)));
+
+                System.out.printf("  %,6d items: document %,9d B, patch %,4d B (%d ops) | diff %8.1f us"
+                                + " | apply: streaming %8.1f us, reparse %8.1f us (x%.2f)%n",
+                        items, stored.length, patchBytes.length, patch.size(), diffNanos / 1e3 / repetitions,
+                        streamNanos / 1e3 / repetitions, treeNanos / 1e3 / repetitions, (double) treeNanos / streamNanos);
+            }
+        }
+    }
+
+    private static Order order(int itemCount) {
+        Address address = new Address("123 Main St", "New York", "10001", "USA");
+        Customer customer = new Customer("CUST-1001", "John Doe", "john.doe@example.com", address);
+        List<OrderItem> items = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new OrderItem("PROD-" + i, "Product " + i, 1 + i % 5, 9.99 + i % 100));
+        }
+        return new Order("ORD-12345", customer, items, 299.98, LocalDate.of(2025, 10, 7));
+    }
+
+    private static void update(Order order) {
+        List<OrderItem> items = order.getItems();
+        order.setTotalAmount(order.getTotalAmount() + 10);
+        order.getCustomer().setEmail("john@example.org");
+        OrderItem changed = items.get(items.size() / 2);
+        changed.setQuantity(changed.getQuantity() + 1);
+        items.add(items.size() / 3, new OrderItem("PROD-NEW", "Gift card", 1, 25.0));
+        if (items.size() > 2) {
+            items.remove(items.size() * 2 / 3);
+        }
+    }
+
+    /** results go here so the JIT cannot drop the work */
+    private static volatile Object sink;
+
+    private interface Task {
+        Object run() throws Exception;
+    }
+
+    private static long time(int repetitions, Task task) throws Exception {
+        long begin = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            sink = task.run();
+        }
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,379 @@
+package org.example.custom_serializer.patch;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies a JSON Patch while copying a stored document from a parser to a generator, in one
+ * pass and without building its tree: untouched parts are copied token by token, and only the
+ * values the patch brings in exist as {@link JsonNode}s.
+ * <p>
+ * The patch is compiled once into edits laid over the original document, so the usual
+ * sequential semantics hold (indexes of later operations see earlier inserts and removals), and
+ * the compiled applier can be reused for any number of documents. Supported are {@code add},
+ * {@code remove} and {@code replace}, which is everything {@link JsonDiff} emits; for
+ * {@code move}, {@code copy} and {@code test} use {@link JsonPatch#apply}. As the document is
+ * not known while compiling, a container addressed by numeric tokens is compiled both as an
+ * array and as an object and the one matching the document is used; and an array index cannot
+ * follow an append ({@code -}) to the same array.
+ * <p>
+ * A path that does not exist in the document fails with {@link IllegalArgumentException} when
+ * it is reached; the output written so far is then incomplete and must be discarded.
+ */
+public final class StreamingPatchApplier {
+
+    private final Edit root;
+
+    public StreamingPatchApplier(JsonNode patch) {
+        if (!patch.isArray()) {
+            throw new IllegalArgumentException("a JSON Patch is an array of operations");
+        }
+        Edit root = null;
+        for (JsonNode operation : patch) {
+            String op = JsonPatch.text(operation, "op");
+            if (!op.equals("add") && !op.equals("remove") && !op.equals("replace")) {
+                throw new UnsupportedOperationException("'" + op + "' is not supported while streaming; use JsonPatch.apply");
+            }
+            String path = JsonPatch.text(operation, "path");
+            JsonNode value = operation.get("value");
+            if (!op.equals("remove") && value == null) {
+                throw new IllegalArgumentException("'" + op + "' needs a value: " + operation);
+            }
+            List<String> tokens = new ArrayList<>();
+            for (JsonPointer pointer = JsonPointer.compile(path); !pointer.matches(); pointer = pointer.tail()) {
+                tokens.add(pointer.getMatchingProperty());
+            }
+            if (tokens.isEmpty()) {
+                if (op.equals("remove")) {
+                    throw new IllegalArgumentException("cannot remove the whole document");
+                }
+                root = new ValueEdit(value.deepCopy());
+            } else {
+                root = compile(root, tokens, 0, op, value, path);
+            }
+        }
+        this.root = root;
+    }
+
+    /**
+     * Reads one value from {@code in} and writes its patched version to {@code out}.
+     *
+     * @param out generator with a codec (as created by an {@code ObjectMapper}'s factory), used
+     *            to write the values the patch adds
+     */
+    public void apply(JsonParser in, JsonGenerator out) throws IOException {
+        if (in.nextToken() == null) {
+            throw new IllegalArgumentException("empty document");
+        }
+        write(root, in, out, "");
+    }
+
+    /**
+     * @return the patched document, encoded as {@code mapper} writes JSON
+     */
+    public byte[] apply(ObjectMapper mapper, byte[] document) throws IOException {
+        ByteArrayBuilder buffer = new ByteArrayBuilder(document.length + 256);
+        try (JsonParser in = mapper.getFactory().createParser(document);
+             JsonGenerator out = mapper.getFactory().createGenerator(buffer)) {
+            apply(in, out);
+        }
+        return buffer.toByteArray();
+    }
+
+    // --- compiling ---
+
+    /**
+     * Lays one operation over {@code edit}, the edits so far at the location {@code tokens[0, depth)}.
+     *
+     * @return the edit replacing {@code edit}
+     */
+    private static Edit compile(Edit edit, List<String> tokens, int depth, String op, JsonNode value, String path) {
+        if (edit instanceof ValueEdit replaced) {
+            // inside a value the patch brought in: edit that tree directly
+            StringBuilder relative = new StringBuilder();
+            for (String token : tokens.subList(depth, tokens.size())) {
+                relative.append('/').append(JsonDiff.escape(token));
+            }
+            return new ValueEdit(JsonPatch.apply(replaced.value, op, JsonPointer.compile(relative.toString()), value));
+        }
+        String token = tokens.get(depth);
+        if (edit == null) {
+            edit = JsonPatch.isIndex(token) || token.equals("-") ? new EitherEdit() : new ObjectEdit();
+        }
+        boolean last = depth == tokens.size() - 1;
+        if (edit instanceof ObjectEdit object) {
+            object.compile(token, last, tokens, depth, op, value, path);
+        } else {
+            ((EitherEdit) edit).compile(token, last, tokens, depth, op, value, path);
+        }
+        return edit;
+    }
+
+    private sealed interface Edit permits ValueEdit, ObjectEdit, EitherEdit {
+    }
+
+    /** the original value is replaced by {@code value} */
+    private record ValueEdit(JsonNode value) implements Edit {
+    }
+
+    private static final class Member {
+        /** null when removed */
+        Edit edit;
+        /** whether the member has to be in the original document */
+        boolean mustExist;
+
+        Member(Edit edit, boolean mustExist) {
+            this.edit = edit;
+            this.mustExist = mustExist;
+        }
+    }
+
+    private static final class ObjectEdit implements Edit {
+        final Map<String, Member> members = new LinkedHashMap<>();
+
+        void compile(String name, boolean last, List<String> tokens, int depth, String op, JsonNode value, String path) {
+            Member member = members.get(name);
+            if (member != null && member.edit == null && !(last && op.equals("add"))) {
+                throw new IllegalArgumentException("no value at " + path);
+            }
+            if (!last) {
+                if (member == null) {
+                    member = new Member(null, true);
+                    members.put(name, member);
+                }
+                member.edit = StreamingPatchApplier.compile(member.edit, tokens, depth + 1, op, value, path);
+                return;
+            }
+            switch (op) {
+                // added members may or may not replace an original one
+                case "add" -> members.put(name, new Member(new ValueEdit(value.deepCopy()), false));
+                case "replace" -> members.put(name,
+                        new Member(new ValueEdit(value.deepCopy()), member == null || member.mustExist));
+                default -> members.put(name, new Member(null, member == null || member.mustExist));
+            }
+        }
+    }
+
+    /**
+     * A container addressed by numeric tokens only: an array, or an object with members named
+     * like indexes. Operations go to both readings; one that cannot take an operation is dropped.
+     */
+    private static final class EitherEdit implements Edit {
+        ArrayEdit array = new ArrayEdit();
+        ObjectEdit object = new ObjectEdit();
+        RuntimeException arrayFailure;
+        RuntimeException objectFailure;
+
+        void compile(String token, boolean last, List<String> tokens, int depth, String op, JsonNode value, String path) {
+            if (array != null) {
+                try {
+                    array.compile(token, last, tokens, depth, op, value, path);
+                } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                    array = null;
+                    arrayFailure = e;
+                }
+            }
+            if (object != null) {
+                try {
+                    object.compile(token, last, tokens, depth, op, value, path);
+                } catch (IllegalArgumentException | UnsupportedOperationException e) {
+                    object = null;
+                    objectFailure = e;
+                }
+            }
+            if (array == null && object == null) {
+                // a reading that is merely unsupported here may still be the valid one
+                if (arrayFailure instanceof UnsupportedOperationException) {
+                    throw arrayFailure;
+                }
+                if (objectFailure instanceof UnsupportedOperationException) {
+                    throw objectFailure;
+                }
+                throw JsonPatch.isIndex(token) || token.equals("-") ? arrayFailure : objectFailure;
+            }
+        }
+    }
+
+    private sealed interface Slot permits Original, Inserted {
+    }
+
+    /** element {@code index} of the original array, with the edits below it */
+    private static final class Original implements Slot {
+        final int index;
+        Edit edit;
+
+        Original(int index) {
+            this.index = index;
+        }
+    }
+
+    private record Inserted(JsonNode value) implements Slot {
+    }
+
+    /**
+     * The patched array is {@code head}, then the original elements from {@code nextOriginal}
+     * on, then {@code appended}. Originals below {@code nextOriginal} missing from {@code head}
+     * were removed.
+     */
+    private static final class ArrayEdit {
+        final List<Slot> head = new ArrayList<>();
+        final List<JsonNode> appended = new ArrayList<>();
+        int nextOriginal;
+
+        void compile(String token, boolean last, List<String> tokens, int depth, String op, JsonNode value, String path) {
+            if (token.equals("-")) {
+                if (!last || !op.equals("add")) {
+                    throw new IllegalArgumentException("'-' only appends: " + path);
+                }
+                appended.add(value.deepCopy());
+                return;
+            }
+            int index = JsonPatch.index(token, path);
+            reach(last && op.equals("add") ? index : index + 1, path);
+            if (!last) {
+                Slot slot = head.get(index);
+                if (slot instanceof Original original) {
+                    original.edit = StreamingPatchApplier.compile(original.edit, tokens, depth + 1, op, value, path);
+                } else {
+                    Edit edit = StreamingPatchApplier.compile(new ValueEdit(((Inserted) slot).value), tokens, depth + 1,
+                            op, value, path);
+                    head.set(index, new Inserted(((ValueEdit) edit).value));
+                }
+                return;
+            }
+            switch (op) {
+                case "add" -> head.add(index, new Inserted(value.deepCopy()));
+                case "replace" -> head.set(index, new Inserted(value.deepCopy()));
+                default -> head.remove(index);
+            }
+        }
+
+        /** makes sure {@code head} covers the first {@code size} elements of the patched array */
+        private void reach(int size, String path) {
+            if (head.size() < size && !appended.isEmpty()) {
+                throw new UnsupportedOperationException("index after an append to the same array: " + path
+                        + "; use JsonPatch.apply");
+            }
+            while (head.size() < size) {
+                head.add(new Original(nextOriginal++));
+            }
+        }
+    }
+
+    // --- streaming ---
+
+    /**
+     * Writes the value at the parser's current token, patched by {@code edit} (null: unchanged).
+     */
+    private static void write(Edit edit, JsonParser in, JsonGenerator out, String path) throws IOException {
+        if (edit == null) {
+            out.copyCurrentStructure(in);
+        } else if (edit instanceof ValueEdit replaced) {
+            in.skipChildren();
+            out.writeTree(replaced.value);
+        } else if (edit instanceof ObjectEdit object) {
+            writeObject(object, in, out, path);
+        } else {
+            EitherEdit either = (EitherEdit) edit;
+            if (in.hasToken(JsonToken.START_OBJECT) && either.object == null) {
+                throw either.objectFailure;
+            }
+            if (in.hasToken(JsonToken.START_ARRAY) && either.array == null) {
+                throw either.arrayFailure;
+            }
+            if (either.object != null && (either.array == null || in.hasToken(JsonToken.START_OBJECT))) {
+                writeObject(either.object, in, out, path);
+            } else {
+                writeArray(either.array, in, out, path);
+            }
+        }
+    }
+
+    private static void writeObject(ObjectEdit edit, JsonParser in, JsonGenerator out, String path) throws IOException {
+        if (!in.hasToken(JsonToken.START_OBJECT)) {
+            throw new IllegalArgumentException("expected an object at " + (path.isEmpty() ? "the root" : path));
+        }
+        out.writeStartObject();
+        Set<String> seen = new HashSet<>();
+        for (String name = in.nextFieldName(); name != null; name = in.nextFieldName()) {
+            in.nextToken();
+            Member member = edit.members.get(name);
+            if (member == null) {
+                out.writeFieldName(name);
+                out.copyCurrentStructure(in);
+                continue;
+            }
+            seen.add(name);
+            if (member.edit == null) {
+                in.skipChildren();
+            } else {
+                out.writeFieldName(name);
+                write(member.edit, in, out, path + "/" + JsonDiff.escape(name));
+            }
+        }
+        for (Map.Entry<String, Member> entry : edit.members.entrySet()) {
+            Member member = entry.getValue();
+            if (seen.contains(entry.getKey()) || member.edit == null && !member.mustExist) {
+                continue;
+            }
+            if (member.mustExist || !(member.edit instanceof ValueEdit added)) {
+                throw new IllegalArgumentException("no value at " + path + "/" + JsonDiff.escape(entry.getKey()));
+            }
+            out.writeFieldName(entry.getKey());
+            out.writeTree(added.value);
+        }
+        out.writeEndObject();
+    }
+
+    private static void writeArray(ArrayEdit edit, JsonParser in, JsonGenerator out, String path) throws IOException {
+        if (!in.hasToken(JsonToken.START_ARRAY)) {
+            throw new IllegalArgumentException("expected an array at " + (path.isEmpty() ? "the root" : path));
+        }
+        out.writeStartArray();
+        int read = 0;
+        for (Slot slot : edit.head) {
+            if (slot instanceof Inserted inserted) {
+                out.writeTree(inserted.value);
+                continue;
+            }
+            Original original = (Original) slot;
+            while (read < original.index) {
+                next(in, path, read++);
+                in.skipChildren();
+            }
+            next(in, path, read++);
+            write(original.edit, in, out, path + "/" + original.index);
+        }
+        while (read < edit.nextOriginal) {
+            next(in, path, read++);
+            in.skipChildren();
+        }
+        while (in.nextToken() != JsonToken.END_ARRAY) {
+            out.copyCurrentStructure(in);
+        }
+        for (JsonNode value : edit.appended) {
+            out.writeTree(value);
+        }
+        out.writeEndArray();
+    }
+
+    private static void next(JsonParser in, String path, int index) throws IOException {
+        if (in.nextToken() == JsonToken.END_ARRAY) {
+            throw new IllegalArgumentException("array at " + (path.isEmpty() ? "the root" : path) + " has only "
+                    + index + " elements");
+        }
+    }
+}
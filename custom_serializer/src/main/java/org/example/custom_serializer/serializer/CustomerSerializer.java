@@ -19,11 +19,11 @@ public class CustomerSerializer extends StdSerializer<Customer> {
 
         jsonGenerator.writeStringField("ID", customer.getId());
         // totalAmount
-        jsonGenerator.writeStringField("name", String.format("%s %s", customer.getFirstName(), customer.getLastName()));
+        jsonGenerator.writeStringField("name", customer.getFirstName() + " " + customer.getLastName());
         // customer
         jsonGenerator.writeStringField("email", customer.getEmail());
         // items
-        jsonGenerator.writeObjectField("addresses", customer.getShippingAddress());
+        serializerProvider.defaultSerializeField("addresses", customer.getShippingAddress(), jsonGenerator);
         // totalAmount
         jsonGenerator.writeEndObject();
 
@@ -30,9 +30,9 @@ public class OrderSerializer extends StdSerializer<Order> {
         // totalAmount
         jsonGenerator.writeNumberField("amount", order.getTotalAmount());
         // customer
-        jsonGenerator.writeObjectField("customer", order.getCustomer());
+        serializerProvider.defaultSerializeField("customer", order.getCustomer(), jsonGenerator);
         // items
-        jsonGenerator.writeObjectField("items", order.getItems());
+        serializerProvider.defaultSerializeField("items", order.getItems(), jsonGenerator);
         // orderDate
         jsonGenerator.writeStringField("orderDate",
                 Optional.ofNullable(order.getOrderDate())
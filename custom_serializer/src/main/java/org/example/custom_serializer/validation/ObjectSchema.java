@@ -0,0 +1,161 @@
+package org.example.custom_serializer.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Declarative schema of a JSON object that binds it to a Java object while checking it.
+ * <p>
+ * Each declared member has a {@link ValueSchema} and a setter. Reading streams the members
+ * once: a member that matches its schema is set on a fresh instance right away, one that does
+ * not is recorded as a {@link Violation} and skipped, and required members not seen by the end
+ * of the object are reported as missing. Validation is therefore not a separate pass, and all
+ * violations of a value are found in one read. Unknown members are skipped; a {@code null}
+ * counts as absent for an optional member and is a violation for a required one. A member can
+ * be declared to take precedence over others ({@link #overrides}), whatever order they come in.
+ * <p>
+ * Members are declared while the schema is set up, typically in a static initializer; reading
+ * never modifies the schema, so it can be shared between threads afterwards.
+ */
+public final class ObjectSchema<T> implements ValueSchema<T> {
+
+    private final Supplier<T> factory;
+    private final Map<String, Member<T, ?>> members = new HashMap<>();
+    private final List<Member<T, ?>> declared = new ArrayList<>();
+    /** bit i set: declared.get(i) is required */
+    private long required;
+    /** bit j of entry i set: declared.get(i) is not bound once declared.get(j) has been */
+    private final long[] overriddenBy = new long[Long.SIZE];
+
+    private ObjectSchema(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @param factory creates the instance the members of one JSON object are set on
+     */
+    public static <T> ObjectSchema<T> of(Supplier<T> factory) {
+        return new ObjectSchema<>(factory);
+    }
+
+    public <V> ObjectSchema<T> required(String name, ValueSchema<V> schema, BiConsumer<? super T, ? super V> setter) {
+        return member(name, schema, setter, true);
+    }
+
+    public <V> ObjectSchema<T> optional(String name, ValueSchema<V> schema, BiConsumer<? super T, ? super V> setter) {
+        return member(name, schema, setter, false);
+    }
+
+    /**
+     * Makes the already declared {@code member} win over the {@code others}: once it has been
+     * bound they are still checked but no longer set, and its setter must overwrite whatever they
+     * set before it, so the result does not depend on the order of the members in the input.
+     */
+    public ObjectSchema<T> overrides(String member, String... others) {
+        int winner = declared(member).index;
+        for (String other : others) {
+            overriddenBy[declared(other).index] |= 1L << winner;
+        }
+        return this;
+    }
+
+    private Member<T, ?> declared(String name) {
+        Member<T, ?> member = members.get(name);
+        if (member == null) {
+            throw new IllegalArgumentException("member '" + name + "' is not declared");
+        }
+        return member;
+    }
+
+    private <V> ObjectSchema<T> member(String name, ValueSchema<V> schema, BiConsumer<? super T, ? super V> setter,
+                                       boolean isRequired) {
+        if (declared.size() == Long.SIZE) {
+            throw new IllegalStateException("at most " + Long.SIZE + " members per object");
+        }
+        Member<T, V> member = new Member<>(name, declared.size(), isRequired, schema, setter);
+        if (members.putIfAbsent(name, member) != null) {
+            throw new IllegalArgumentException("member '" + name + "' declared twice");
+        }
+        declared.add(member);
+        if (isRequired) {
+            required |= 1L << member.index;
+        }
+        return this;
+    }
+
+    /**
+     * Reads the object starting at the current token ({@code START_OBJECT}, or the first
+     * {@code FIELD_NAME} when the caller already consumed the start) up to its {@code END_OBJECT}.
+     *
+     * @return the bound instance, possibly incomplete if violations were added; null if the value
+     * is not an object at all
+     */
+    @Override
+    public T read(JsonParser p, List<Violation> violations) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return Violation.mismatch(p, violations, "object");
+        }
+        T target = factory.get();
+        long seen = 0;
+        long bound = 0;
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            Member<T, ?> member = members.get(p.currentName());
+            token = p.nextToken();
+            if (member == null) {
+                p.skipChildren();
+                continue;
+            }
+            seen |= 1L << member.index;
+            if (token == JsonToken.VALUE_NULL) {
+                if (member.required) {
+                    violations.add(Violation.at(p, "must not be null"));
+                }
+                continue;
+            }
+            if (member.read(p, target, (overriddenBy[member.index] & bound) == 0, violations)) {
+                bound |= 1L << member.index;
+            }
+        }
+        long missing = required & ~seen;
+        if (missing != 0) {
+            // on END_OBJECT the parser is back in the enclosing context, which points at this object
+            String pointer = p.getParsingContext().pathAsPointer().toString();
+            for (; missing != 0; missing &= missing - 1) {
+                violations.add(new Violation(pointer + "/" + escape(declared.get(Long.numberOfTrailingZeros(missing)).name),
+                        "is required"));
+            }
+        }
+        return target;
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+
+    private record Member<T, V>(String name, int index, boolean required, ValueSchema<V> schema,
+                                BiConsumer<? super T, ? super V> setter) {
+
+        /**
+         * @return whether the value was set on the target
+         */
+        boolean read(JsonParser p, T target, boolean bind, List<Violation> violations) throws IOException {
+            V value = schema.read(p, violations);
+            if (value == null || !bind) {
+                return false;
+            }
+            setter.accept(target, value);
+            return true;
+        }
+    }
+}
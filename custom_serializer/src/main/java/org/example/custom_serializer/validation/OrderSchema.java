@@ -0,0 +1,67 @@
+package org.example.custom_serializer.validation;
+
+import org.example.custom_serializer.model.Address;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.OrderItem;
+
+import java.time.format.DateTimeFormatter;
+
+import static org.example.custom_serializer.validation.ValueSchema.date;
+import static org.example.custom_serializer.validation.ValueSchema.intAtLeast;
+import static org.example.custom_serializer.validation.ValueSchema.listOf;
+import static org.example.custom_serializer.validation.ValueSchema.nonBlankString;
+import static org.example.custom_serializer.validation.ValueSchema.numberAtLeast;
+import static org.example.custom_serializer.validation.ValueSchema.string;
+
+/**
+ * The accepted input format of an order, as in {@code orders.json}. Only {@code orderDate} and
+ * the customer's name are optional; the name is either one {@code name} ("first last") or
+ * {@code firstName}/{@code lastName}, and {@code name} wins if both are given.
+ */
+public final class OrderSchema {
+
+    public static final ObjectSchema<Address> ADDRESS = ObjectSchema.of(Address::new)
+            .required("street", nonBlankString(), Address::setStreet)
+            .required("city", nonBlankString(), Address::setCity)
+            .required("zipCode", nonBlankString(), Address::setZipCode)
+            .required("country", nonBlankString(), Address::setCountry);
+
+    public static final ObjectSchema<Customer> CUSTOMER = ObjectSchema.of(OrderSchema::customer)
+            .required("id", nonBlankString(), Customer::setId)
+            .optional("name", string(), OrderSchema::setName)
+            .optional("firstName", string(), Customer::setFirstName)
+            .optional("lastName", string(), Customer::setLastName)
+            .overrides("name", "firstName", "lastName")
+            .required("email", nonBlankString(), Customer::setEmail)
+            .required("shippingAddress", ADDRESS, Customer::setShippingAddress);
+
+    public static final ObjectSchema<OrderItem> ORDER_ITEM = ObjectSchema.of(OrderItem::new)
+            .required("productId", nonBlankString(), OrderItem::setProductId)
+            .required("productName", string(), OrderItem::setProductName)
+            .required("quantity", intAtLeast(1), OrderItem::setQuantity)
+            .required("unitPrice", numberAtLeast(0), OrderItem::setUnitPrice);
+
+    public static final ObjectSchema<Order> ORDER = ObjectSchema.of(Order::new)
+            .required("orderId", nonBlankString(), Order::setOrderId)
+            .required("totalAmount", numberAtLeast(0), Order::setTotalAmount)
+            .optional("orderDate", date(DateTimeFormatter.ofPattern("yyyy-MM-dd")), Order::setOrderDate)
+            .required("customer", CUSTOMER, Order::setCustomer)
+            .required("items", listOf(ORDER_ITEM), Order::setItems);
+
+    private OrderSchema() {
+    }
+
+    private static Customer customer() {
+        Customer customer = new Customer();
+        customer.setFirstName("");
+        customer.setLastName("");
+        return customer;
+    }
+
+    private static void setName(Customer customer, String name) {
+        String[] nameParts = name.split("\\s+", 2);
+        customer.setFirstName(nameParts[0]);
+        customer.setLastName(nameParts.length > 1 ? nameParts[1] : "");
+    }
+}
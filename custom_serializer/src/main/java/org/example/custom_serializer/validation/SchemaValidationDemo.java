@@ -0,0 +1,194 @@
+package org.example.custom_serializer.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.example.custom_serializer.deserializer.OrderDeserializer;
+import org.example.custom_serializer.model.Address;
+import org.example.custom_serializer.model.Customer;
+import org.example.custom_serializer.model.GeneratedCodecModule;
+import org.example.custom_serializer.model.Order;
+import org.example.custom_serializer.model.OrderItem;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * {@link OrderDeserializer} checking {@link OrderSchema} while it reads: broken orders (a missing
+ * shipping address used to be a {@code NullPointerException}) fail with every violation and its
+ * JSON Pointer, and {@code orders.json} is timed against {@link TreeOrderDeserializer}, the
+ * previous unchecked deserializer that went through a tree, and against the unvalidated
+ * generated codec. Rough numbers, not a JMH run. Argument: repetitions per round.
+ */
+public class SchemaValidationDemo {
+    private static final Logger LOGGER = Logger.getLogger(SchemaValidationDemo.class.getName());
+
+    private static final String[] BROKEN = {
+            """
+            {"orderId": "ORD-1", "totalAmount": 10.5,
+             "customer": {"id": "CUST-1", "name": "John Doe", "email": "john@example.com"},
+             "items": []}""",
+            """
+            {"orderId": " ", "totalAmount": -1, "orderDate": "2025-13-01", "coupon": {"code": "X"},
+             "customer": {"id": "CUST-1", "email": null,
+                          "shippingAddress": {"street": "Main St 1", "city": "New York", "zipCode": 10001}},
+             "items": [{"productId": "PROD-1", "productName": "Mouse", "quantity": 0, "unitPrice": "49.99"},
+                       null,
+                       {"productId": "PROD-2", "productName": "Keyboard", "quantity": 2.5, "unitPrice": 99.99}]}""",
+            """
+            {"orderId": "ORD-3", "customer": "CUST-3", "items": {}}""",
+            """
+            [{"orderId": "ORD-4", "totalAmount": 1, "customer": {"id": "C", "email": "e@x",
+               "shippingAddress": {"street": "s", "city": "c", "zipCode": "z", "country": "USA"}}, "items": []},
+             {"orderId": "ORD-5", "totalAmount": 1, "customer": {"id": "C", "email": "e@x",
+               "shippingAddress": {"street": "s", "city": "c", "zipCode": "z", "country": "USA"}},
+              "items": [{"productId": "P", "productName": "p", "quantity": -3, "unitPrice": 1}]}]"""
+    };
+
+    static void main(String... args) throws IOException {
+        int repetitions = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+
+        SimpleModule module = new SimpleModule();
+        module.addDeserializer(Order.class, new OrderDeserializer(Order.class));
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(module);
+        ObjectMapper generated = new ObjectMapper().registerModule(new GeneratedCodecModule());
+        SimpleModule treeModule = new SimpleModule();
+        treeModule.addDeserializer(Order.class, new TreeOrderDeserializer());
+        ObjectMapper treeMapper = new ObjectMapper().registerModule(treeModule);
+        TypeReference<List<Order>> listOfOrders = new TypeReference<>() {
+        };
+
+        for (String json : BROKEN) {
+            try {
+                if (json.startsWith("[")) {
+                    objectMapper.readValue(json, listOfOrders);
+                } else {
+                    objectMapper.readValue(json, Order.class);
+                }
+                throw new AssertionError("accepted a broken order: " + json);
+            } catch (SchemaViolationException e) {
+                StringBuilder report = new StringBuilder("Rejected order:");
+                for (Violation violation : e.getViolations()) {
+                    report.append(System.lineSeparator()).append("  ").append(violation);
+                }
+                LOGGER.info(report.toString());
+            }
+        }
+
+        // "name" wins over firstName/lastName wherever it comes
+        Customer customer = objectMapper.readValue("""
+                {"orderId": "ORD-6", "totalAmount": 1, "items": [],
+                 "customer": {"id": "C", "firstName": "Jane", "lastName": "Roe", "name": "John Doe", "email": "e@x",
+                              "shippingAddress": {"street": "s", "city": "c", "zipCode": "z", "country": "USA"}}}""",
+                Order.class).getCustomer();
+        if (!customer.getFirstName().equals("John") || !customer.getLastName().equals("Doe")) {
+            throw new AssertionError("firstName/lastName overrode name: " + customer);
+        }
+
+        byte[] json;
+        try (InputStream in = ClassLoader.getSystemResourceAsStream("orders.json")) {
+            json = in.readAllBytes();
+        }
+        List<Order> orders = objectMapper.readValue(json, listOfOrders);
+        if (!orders.equals(generated.readValue(json, listOfOrders))) {
+            throw new AssertionError("OrderDeserializer disagrees with the generated deserializer");
+        }
+        if (!orders.equals(treeMapper.readValue(json, listOfOrders))) {
+            throw new AssertionError("OrderDeserializer disagrees with the tree-based deserializer");
+        }
+
+        ObjectReader validating = objectMapper.readerFor(listOfOrders);
+        ObjectReader tree = treeMapper.readerFor(listOfOrders);
+        ObjectReader unvalidated = generated.readerFor(listOfOrders);
+        for (int round = 0; round < 5; round++) {
+            long validated = time(repetitions, () -> validating.readValue(json));
+            long treeBased = time(repetitions, () -> tree.readValue(json));
+            long generatedOnly = time(repetitions, () -> unvalidated.readValue(json));
+            System.out.printf("round %d: validating read %.1f ms | tree-based, unchecked %.1f ms | generated, unvalidated %.1f ms%n",
+                    round, validated / 1e6, treeBased / 1e6, generatedOnly / 1e6);
+        }
+    }
+
+    /**
+     * The deserializer {@link OrderDeserializer} replaced, kept for the timing: it reads the whole
+     * order into a tree first and fails with a {@code NullPointerException} on a missing member.
+     */
+    private static final class TreeOrderDeserializer extends StdDeserializer<Order> {
+        private static final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+        TreeOrderDeserializer() {
+            super(Order.class);
+        }
+
+        @Override
+        public Order deserialize(JsonParser p, DeserializationContext context) throws IOException {
+            Order order = new Order();
+            JsonNode node = p.getCodec().readTree(p);
+
+            order.setOrderId(node.get("orderId").asText());
+            order.setTotalAmount(node.get("totalAmount").asDouble());
+            if (node.has("orderDate")) {
+                order.setOrderDate(LocalDate.parse(node.get("orderDate").asText(), dateFormat));
+            }
+
+            JsonNode customerNode = node.get("customer");
+            Customer customer = new Customer();
+            customer.setId(customerNode.get("id").asText());
+            if (customerNode.has("name")) {
+                String[] nameParts = customerNode.get("name").asText().split("\\s+", 2);
+                customer.setFirstName(nameParts[0]);
+                customer.setLastName(nameParts.length > 1 ? nameParts[1] : "");
+            } else {
+                customer.setFirstName(customerNode.has("firstName") ? customerNode.get("firstName").asText() : "");
+                customer.setLastName(customerNode.has("lastName") ? customerNode.get("lastName").asText() : "");
+            }
+            customer.setEmail(customerNode.get("email").asText());
+
+            JsonNode addressNode = customerNode.get("shippingAddress");
+            Address address = new Address();
+            address.setStreet(addressNode.get("street").asText());
+            address.setCity(addressNode.get("city").asText());
+            address.setZipCode(addressNode.get("zipCode").asText());
+            address.setCountry(addressNode.get("country").asText());
+            customer.setShippingAddress(address);
+            order.setCustomer(customer);
+
+            List<OrderItem> items = new ArrayList<>();
+            for (JsonNode itemNode : node.get("items")) {
+                OrderItem item = new OrderItem();
+                item.setProductId(itemNode.get("productId").asText());
+                item.setProductName(itemNode.get("productName").asText());
+                item.setQuantity(itemNode.get("quantity").asInt());
+                item.setUnitPrice(itemNode.get("unitPrice").asDouble());
+                items.add(item);
+            }
+            order.setItems(items);
+            return order;
+        }
+    }
+
+    /** results go here so the JIT cannot drop the work */
+    private static volatile Object sink;
+
+    private interface Task {
+        Object run() throws IOException;
+    }
+
+    private static long time(int repetitions, Task task) throws IOException {
+        long begin = System.nanoTime();
+        for (int i = 0; i < repetitions; i++) {
+            sink = task.run();
+        }
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.custom_serializer.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+
+import java.util.List;
+
+/**
+ * Thrown by a deserializer when the value it read violates its {@link ObjectSchema}. Carries
+ * every violation found in that value, not only the first one.
+ */
+public class SchemaViolationException extends JsonMappingException {
+
+    private final transient List<Violation> violations;
+
+    public SchemaViolationException(JsonParser p, List<Violation> violations) {
+        super(p, violations.size() + (violations.size() == 1 ? " schema violation: " : " schema violations: ")
+                + violations);
+        this.violations = List.copyOf(violations);
+    }
+
+    public List<Violation> getViolations() {
+        return violations;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.custom_serializer.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and checks one JSON value straight from the parser.
+ * <p>
+ * {@link #read} is called with the parser on the first token of a non-null value. A value that
+ * does not match is recorded as a {@link Violation} and skipped, leaving the parser on its last
+ * token like a successful read does, so the caller carries on with the next value.
+ */
+@FunctionalInterface
+public interface ValueSchema<V> {
+
+    /**
+     * @return the value, or null if it violates this schema; the violations are added to
+     * {@code violations}
+     */
+    V read(JsonParser p, List<Violation> violations) throws IOException;
+
+    static ValueSchema<String> string() {
+        return (p, violations) -> p.currentToken() == JsonToken.VALUE_STRING
+                ? p.getText()
+                : Violation.mismatch(p, violations, "string");
+    }
+
+    /** a string with at least one non-whitespace character */
+    static ValueSchema<String> nonBlankString() {
+        return (p, violations) -> {
+            if (p.currentToken() != JsonToken.VALUE_STRING) {
+                return Violation.mismatch(p, violations, "string");
+            }
+            String text = p.getText();
+            if (text.isBlank()) {
+                violations.add(Violation.at(p, "must not be blank"));
+                return null;
+            }
+            return text;
+        };
+    }
+
+    /** a JSON integer that fits an {@code int} and is at least {@code min} */
+    static ValueSchema<Integer> intAtLeast(int min) {
+        return (p, violations) -> {
+            if (p.currentToken() != JsonToken.VALUE_NUMBER_INT) {
+                return Violation.mismatch(p, violations, "integer");
+            }
+            if (p.getNumberType() != JsonParser.NumberType.INT) {
+                violations.add(Violation.at(p, "out of range: " + p.getText()));
+                return null;
+            }
+            int value = p.getIntValue();
+            if (value < min) {
+                violations.add(Violation.at(p, "must be at least " + min + ", was " + value));
+                return null;
+            }
+            return value;
+        };
+    }
+
+    /** any JSON number, read as a double, that is at least {@code min} */
+    static ValueSchema<Double> numberAtLeast(double min) {
+        return (p, violations) -> {
+            JsonToken token = p.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                return Violation.mismatch(p, violations, "number");
+            }
+            double value = p.getDoubleValue();
+            if (!(value >= min) || Double.isInfinite(value)) {
+                violations.add(Violation.at(p, "must be at least " + min + ", was " + p.getText()));
+                return null;
+            }
+            return value;
+        };
+    }
+
+    /** a string holding a date in the given format */
+    static ValueSchema<LocalDate> date(DateTimeFormatter format) {
+        return (p, violations) -> {
+            if (p.currentToken() != JsonToken.VALUE_STRING) {
+                return Violation.mismatch(p, violations, "date string");
+            }
+            try {
+                return LocalDate.parse(p.getText(), format);
+            } catch (DateTimeParseException e) {
+                violations.add(Violation.at(p, "not a valid date: '" + p.getText() + "'"));
+                return null;
+            }
+        };
+    }
+
+    /**
+     * A JSON array whose elements all match {@code element}; null elements are violations.
+     * Elements that do not match are left out of the returned list.
+     */
+    static <V> ValueSchema<List<V>> listOf(ValueSchema<V> element) {
+        return (p, violations) -> {
+            if (p.currentToken() != JsonToken.START_ARRAY) {
+                return Violation.mismatch(p, violations, "array");
+            }
+            List<V> values = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                if (p.currentToken() == JsonToken.VALUE_NULL) {
+                    violations.add(Violation.at(p, "must not be null"));
+                    continue;
+                }
+                V value = element.read(p, violations);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+            return values;
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.custom_serializer.validation;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * One schema violation.
+ *
+ * @param pointer JSON Pointer of the offending (or missing) value in the parsed document; empty
+ *                for the document itself
+ * @param message what is wrong with it
+ */
+public record Violation(String pointer, String message) {
+
+    /** a violation of the value at the parser's current token */
+    static Violation at(JsonParser p, String message) {
+        return new Violation(p.getParsingContext().pathAsPointer().toString(), message);
+    }
+
+    /** records that the current value is not a {@code expected} and skips it; returns null */
+    static <V> V mismatch(JsonParser p, List<Violation> violations, String expected) throws IOException {
+        violations.add(at(p, "expected " + expected + ", found " + describe(p.currentToken())));
+        p.skipChildren();
+        return null;
+    }
+
+    private static String describe(JsonToken token) {
+        return switch (token) {
+            case START_OBJECT -> "object";
+            case START_ARRAY -> "array";
+            case VALUE_STRING -> "string";
+            case VALUE_NUMBER_INT -> "integer";
+            case VALUE_NUMBER_FLOAT -> "number";
+            case VALUE_TRUE, VALUE_FALSE -> "boolean";
+            case VALUE_NULL -> "null";
+            default -> token.name();
+        };
+    }
+
+    @Override
+    public String toString() {
+        return (pointer.isEmpty() ? "(document)" : pointer) + ": " + message;
+    }
+}
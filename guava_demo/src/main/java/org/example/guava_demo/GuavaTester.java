@@ -1,6 +1,14 @@
 package org.example.guava_demo;
 
 import com.google.common.collect.*;
+import org.example.guava_demo.bimap.ConcurrentHashBiMap;
+import org.example.guava_demo.multimap.IntKeyListMultimap;
+import org.example.guava_demo.multiset.OpenHashMultiset;
+import org.example.guava_demo.multiset.OrderStatisticMultiset;
+import org.example.guava_demo.query.QueryString;
+import org.example.guava_demo.snapshot.MultimapSnapshot;
+import org.example.guava_demo.snapshot.SnapshotHolder;
+import org.example.guava_demo.table.DenseTable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -49,6 +57,18 @@ public class GuavaTester {
 
         System.out.println(multiset);
 
+        // Same operations on the array-backed OpenHashMultiset: keys in Object[], counts in int[],
+        // no Map.Entry + Count object per element (see multiset.MultisetBenchmark)
+        OpenHashMultiset<String> productCounts = OpenHashMultiset.create();
+        productCounts.add("A", 12);
+        System.out.println(productCounts.setCount("B", 10)); // 0
+        productCounts.add("b");
+        productCounts.add("b");
+        System.out.println(productCounts.remove("B", 50)); // 10
+        System.out.println("Occurrence of 'b' : " + productCounts.count("b"));
+        Multiset<String> productCountsView = productCounts.asMultiset(); // Multiset view over the same arrays
+        System.out.println(productCountsView); // [A x 12, b x 2]
+
 
 
         // Tree Multiset An extension to Multiset interface to allow duplicate elements in sorted order.
@@ -70,6 +90,16 @@ public class GuavaTester {
         System.out.println("Count of students with scores between 90 and 100 : " + topScores.size()); // [90, 90, 95, 100]
         System.out.println("Count of top scores : " + topScores.elementSet().size()); // [90, 95, 100]
 
+        // Same scores in an OrderStatisticMultiset: rank, k-th element, percentiles and range counts
+        // are O(log n) lookups instead of iterating (see multiset.OrderStatisticBenchmark)
+        OrderStatisticMultiset<Integer> rankedScores = OrderStatisticMultiset.create(scores);
+        System.out.println("Scores below 90 : " + rankedScores.rank(90)); // 3
+        System.out.println("Median score : " + rankedScores.percentile(0.5)); // 90
+        System.out.println("Count of students with scores between 90 and 100 : "
+                + rankedScores.countInRange(Range.closed(90, 100))); // 4
+        SortedMultiset<Integer> rankedView = rankedScores.asSortedMultiset(); // live SortedMultiset view
+        System.out.println(rankedView.subMultiset(90, BoundType.CLOSED, 100, BoundType.CLOSED)); // [90 x 2, 95, 100]
+
 
         // MultiMap; An extension to Map interface so that its keys can be mapped to multiple values at a time.
         // Multimap -> Map where multiple values can be mapped to the same key (Values are stored in a Collection).
@@ -123,6 +153,24 @@ public class GuavaTester {
         System.out.println(empIDNameMap);
         System.out.println(empIDNameMap.inverse().get("Mahesh"));
 
+        // Same operations on a ConcurrentHashBiMap: safe to share between threads, lookups in
+        // both directions do not lock, put/forcePut update both directions atomically
+        // (see bimap.BiMapStressTest and bimap.BiMapBenchmark)
+        BiMap<Integer, String> sharedEmpIDNameMap = ConcurrentHashBiMap.create();
+        sharedEmpIDNameMap.put(101, "Mahesh");
+        sharedEmpIDNameMap.forcePut(104, "Mahesh"); // 101 -> Mahesh is dropped, as with HashBiMap
+        sharedEmpIDNameMap.put(102, "Sohan");
+        System.out.println(sharedEmpIDNameMap.inverse().get("Mahesh")); // 104
+
+        // A shared ImmutableMultimap changed under load: readers get the current snapshot without
+        // locking, updates are applied off-thread and only the edited key's list is copied
+        // (see snapshot.SnapshotBenchmark)
+        SnapshotHolder<MultimapSnapshot<String, String>> routes = SnapshotHolder.of(
+                MultimapSnapshot.copyOf(ImmutableListMultimap.of("/orders", "orders-1", "/users", "users-1")));
+        routes.update(r -> r.put("/orders", "orders-2")).join();
+        System.out.println(routes.get().get("/orders")); // [orders-1, orders-2]
+        routes.close();
+
 
 
 
@@ -153,9 +201,21 @@ public class GuavaTester {
 
         System.out.println(userOrders.entries()); // [1=ORD-1001, 1=ORD-1003, 1=ORD-1001, 2=ORD-1002] - insertion order is saved only per key (full insertion order is not saved)
 
-        Multimap<String, String> params = parseParams("tag=java&menu=main&tag=backend&tag=java");
+        // Same rows bulk-loaded into an IntKeyListMultimap: int keys + one flat values array with
+        // per-key offsets instead of an ArrayList per user (see multimap.MultimapBenchmark)
+        IntKeyListMultimap.Builder<String> userOrdersBuilder = IntKeyListMultimap.builder(rows.size());
+        for (var row : rows) {
+            userOrdersBuilder.put(row.getKey(), row.getValue());
+        }
+        IntKeyListMultimap<String> compactUserOrders = userOrdersBuilder.build();
+        System.out.println(compactUserOrders.get(1)); // [ORD-1001, ORD-1003, ORD-1001] - a slice of the values array, no copy
+        System.out.println(compactUserOrders.asListMultimap().entries()); // [1=ORD-1001, 1=ORD-1003, 1=ORD-1001, 2=ORD-1002]
 
-        System.out.println(params.entries()); // [tag=java, menu=main, tag=backend, tag=java] - insertion order is saved (full insertion order is not saved, not only per key)
+        // offsets into the query, decoded on access: no Multimap unless one is asked for
+        QueryString params = QueryString.parse("tag=java&menu=main&tag=backend&tag=java");
+        System.out.println(params.getAll("tag")); // [java, backend, java]
+
+        System.out.println(params.asMultimap().entries()); // [tag=java, menu=main, tag=backend, tag=java] - insertion order is saved (full insertion order is not saved, not only per key)
 
         // create a table
 
@@ -183,6 +243,12 @@ public class GuavaTester {
             System.out.println("Emp Id: " + entry.getKey() + ", Name: " + entry.getValue());
         }
 
+        // Same grid frozen into a DenseTable: row/column keys interned to indexes, values in one
+        // flat array, row()/column() are slices of it (see table.TableBenchmark)
+        DenseTable<String, String, String> denseEmployeeTable = DenseTable.copyOf(employeeTable);
+        System.out.println(denseEmployeeTable.get("Microsoft", "112")); // Mohan
+        System.out.println(denseEmployeeTable.row("TCS")); // {121=Ram, 122=Shyam, 123=Sunil}
+
     }
 
     private static Multimap<String, String> createMultimap() {
@@ -207,14 +273,9 @@ public class GuavaTester {
     }
 
     public static Multimap<String, String> parseParams(String query) {
-        Multimap<String, String> params = LinkedListMultimap.create();
-
-        for (String pair : query.split("&")) {
-            String[] parts = pair.split("=");
-            params.put(parts[0], parts.length > 1 ? parts[1] : "");
-        }
-
-        return params;
+        // copies every parameter into an insertion-ordered Multimap; code that only looks up a
+        // few parameters should use QueryString directly
+        return QueryString.parse(query).asMultimap();
     }
 
 
@@ -4,6 +4,8 @@ import com.google.common.collect.ImmutableRangeSet;
 import com.google.common.collect.Range;
 import com.google.common.collect.RangeSet;
 import com.google.common.collect.TreeRangeSet;
+import org.example.guava_demo.rangeset.LongRangeSet;
+import org.example.guava_demo.rangeset.RangeSetBulkBuilder;
 
 public class RangeSetDemo {
     public static void main(String[] args) {
@@ -114,5 +116,30 @@ public class RangeSetDemo {
 //        assertTrue(numberRangeComplementSet.contains(1000));
 
 
+        // Same ranges in a LongRangeSet: endpoints in two long[] arrays, contains() is a binary
+        // search without boxing (see rangeset.RangeSetBenchmark). Values are integers, so adjacent
+        // ranges are coalesced: [0‥2], [3‥5], [6‥8] is stored as [0‥8]
+        LongRangeSet primitiveRangeSet = LongRangeSet.builder()
+                .add(0, 2)
+                .add(3, 5)
+                .add(6, 8)
+                .build();
+        System.out.println(primitiveRangeSet); // [[0..8]]
+        System.out.println(primitiveRangeSet.contains(4)); // true
+        System.out.println(primitiveRangeSet.union(LongRangeSet.closed(20, 30)).complement()); // [[-9223372036854775808..-1], [9..19], [31..9223372036854775807]]
+        RangeSet<Integer> primitiveView = primitiveRangeSet.asIntRangeSet(); // read-only RangeSet<Integer> view
+        System.out.println(primitiveView.rangeContaining(5)); // [0..8]
+
+        // Loading many ranges at once: collect them unsorted, sort in parallel, merge in one pass.
+        // Merging follows TreeRangeSet (connected ranges only), the result is an ImmutableRangeSet
+        ImmutableRangeSet<Integer> bulkLoaded = RangeSetBulkBuilder.<Integer>create()
+                .add(Range.closed(6, 8))
+                .add(Range.closed(0, 2))
+                .add(Range.closed(2, 5)) // touches [0‥2] at 2
+                .add(Range.closed(3, 4)) // inside [2‥5]
+                .build();
+        System.out.println(bulkLoaded); // [[0..5], [6..8]]
+
+
     }
 }
@@ -0,0 +1,81 @@
+package org.example.guava_demo.bimap;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+import com.google.common.collect.Maps;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Mixed id ↔ name lookups and updates from many threads:
+ * {@code Maps.synchronizedBiMap(HashBiMap)} vs {@link ConcurrentHashBiMap}.
+ * <p>
+ * Each operation is a forward {@code get}, an {@code inverse().get}, or (with the given write
+ * share) a {@code forcePut}. Rough numbers, not a JMH run; three rounds, the first is warm-up.
+ * Arguments: threads, operations per thread, distinct ids, write percentage.
+ */
+public class BiMapBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int ids = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int writePercent = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        String[] names = new String[ids * 2];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "EMP-" + i;
+        }
+
+        System.out.printf("%d threads x %,d ops, %,d ids, %d%% writes (%d cores)%n",
+                threads, operations, ids, writePercent, Runtime.getRuntime().availableProcessors());
+        for (int round = 0; round < 3; round++) {
+            BiMap<Integer, String> synchronizedMap = Maps.synchronizedBiMap(HashBiMap.create());
+            BiMap<Integer, String> concurrentMap = ConcurrentHashBiMap.create();
+            for (int i = 0; i < ids; i++) {
+                synchronizedMap.put(i, names[i]);
+                concurrentMap.put(i, names[i]);
+            }
+            long synchronizedNanos = run(synchronizedMap, threads, operations, ids, writePercent, names);
+            long concurrentNanos = run(concurrentMap, threads, operations, ids, writePercent, names);
+            System.out.printf("round %d: synchronizedBiMap %8.1f ms | ConcurrentHashBiMap %8.1f ms%n",
+                    round, synchronizedNanos / 1e6, concurrentNanos / 1e6);
+        }
+    }
+
+    private static long run(BiMap<Integer, String> map, int threads, int operations, int ids,
+                            int writePercent, String[] names) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            new Thread(() -> {
+                try {
+                    start.await();
+                    long found = 0;
+                    for (int i = 0; i < operations; i++) {
+                        int id = random.nextInt(ids);
+                        int roll = random.nextInt(100);
+                        if (roll < writePercent) {
+                            map.forcePut(id, names[random.nextInt(names.length)]);
+                        } else if ((roll & 1) == 0) {
+                            found += map.get(id) != null ? 1 : 0;
+                        } else {
+                            found += map.inverse().get(names[id]) != null ? 1 : 0;
+                        }
+                    }
+                    if (found < 0) throw new AssertionError(); // keep the reads alive
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,198 @@
+package org.example.guava_demo.bimap;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.HashBiMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stress test for {@link ConcurrentHashBiMap} (a main class; exits non-zero on a violation).
+ * <ol>
+ *     <li><b>Replay:</b> every writer owns disjoint keys and values but shares the lock stripes
+ *     with the others. Each one mirrors its operations on a private {@link HashBiMap}; return
+ *     values and exceptions must match, and at the end the concurrent map must equal the union
+ *     of the private ones.</li>
+ *     <li><b>Atomic reads:</b> writers {@code put}/{@code forcePut}/{@code remove} on a small
+ *     shared domain of keys, all at once, while readers check round trips. Every write binds a
+ *     fresh value, and only the writer that created a value moves it, always to a higher key, so
+ *     each pair {@code k → v} is bound during at most one interval. A reader that sees
+ *     {@code k → v}, then {@code v → k'}, then {@code k → v} again therefore must get
+ *     {@code k' == k} (and the same with the directions swapped), however the writes overlap: a
+ *     half-applied write would show up as a missing or foreign inverse.</li>
+ *     <li>At the end of each phase both directions must be exact inverses.</li>
+ * </ol>
+ * Arguments: threads, seconds per phase.
+ */
+public class BiMapStressTest {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        long millis = (args.length > 1 ? Long.parseLong(args[1]) : 3) * 1000;
+
+        List<String> failures = new ArrayList<>();
+        replayPhase(threads, millis, failures);
+        atomicReadPhase(threads, millis, failures);
+
+        if (!failures.isEmpty()) {
+            failures.stream().limit(20).forEach(System.out::println);
+            System.out.printf("FAILED: %d violations%n", failures.size());
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    private static void replayPhase(int threads, long millis, List<String> failures) throws InterruptedException {
+        ConcurrentHashBiMap<String, String> map = ConcurrentHashBiMap.create();
+        List<BiMap<String, String>> mirrors = new ArrayList<>();
+        AtomicLong operations = new AtomicLong();
+        run(threads, millis, (thread, stop) -> {
+            BiMap<String, String> mirror = HashBiMap.create();
+            synchronized (mirrors) {
+                mirrors.add(mirror);
+            }
+            Random random = new Random(thread);
+            while (!stop.get()) {
+                String key = "k" + thread + "-" + random.nextInt(32);
+                String value = "v" + thread + "-" + random.nextInt(32);
+                int op = random.nextInt(4);
+                Object expected = apply(mirror, op, key, value);
+                Object actual = apply(map, op, key, value);
+                if (!Objects.equals(expected, actual)) {
+                    fail(failures, "replay: op " + op + " " + key + "/" + value + " expected " + expected + " got " + actual);
+                }
+                operations.incrementAndGet();
+            }
+        });
+        HashBiMap<String, String> expected = HashBiMap.create();
+        mirrors.forEach(expected::putAll);
+        if (!expected.equals(map)) {
+            fail(failures, "replay: final state differs, expected " + expected.size() + " entries, got " + map.size());
+        }
+        checkInverse(map, failures);
+        System.out.printf("replay phase: %,d operations%n", operations.get());
+    }
+
+    /**
+     * @return the result of the operation, or the exception class if it threw
+     */
+    private static Object apply(BiMap<String, String> map, int op, String key, String value) {
+        try {
+            switch (op) {
+                case 0: return map.put(key, value);
+                case 1: return map.forcePut(key, value);
+                case 2: return map.remove(key);
+                default: return map.inverse().forcePut(value, key);
+            }
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static void atomicReadPhase(int threads, long millis, List<String> failures) throws InterruptedException {
+        ConcurrentHashBiMap<Integer, Long> map = ConcurrentHashBiMap.create();
+        AtomicLong writes = new AtomicLong();
+        AtomicLong checkedReads = new AtomicLong();
+        int domain = 64;
+        int writers = Math.max(1, threads / 2);
+        run(threads, millis, (thread, stop) -> {
+            Random random = new Random(thread);
+            if (thread < writers) {
+                // this writer's recent values and the key each was last bound to by it
+                long[] values = new long[16];
+                int[] keys = new int[16];
+                long sequence = 0;
+                while (!stop.get()) {
+                    int slot = random.nextInt(values.length);
+                    int op = random.nextInt(4);
+                    if (op == 3 && values[slot] != 0 && keys[slot] < domain - 1) {
+                        int key = keys[slot] + 1 + random.nextInt(domain - 1 - keys[slot]);
+                        map.inverse().forcePut(values[slot], key);
+                        keys[slot] = key;
+                    } else if (op == 2) {
+                        map.remove(random.nextInt(domain));
+                    } else {
+                        int key = random.nextInt(domain);
+                        long value = ((long) thread << 40) | ++sequence;
+                        if (op == 0) {
+                            map.put(key, value);
+                        } else {
+                            map.forcePut(key, value);
+                        }
+                        values[slot] = value;
+                        keys[slot] = key;
+                    }
+                    writes.incrementAndGet();
+                }
+            } else {
+                while (!stop.get()) {
+                    Integer key = random.nextInt(domain);
+                    Long value = map.get(key);
+                    if (value == null) {
+                        continue;
+                    }
+                    Integer inverseKey = map.inverse().get(value);
+                    if (value.equals(map.get(key)) && !key.equals(inverseKey)) {
+                        fail(failures, "read: " + key + " -> " + value + " throughout, but " + value + " -> " + inverseKey);
+                    }
+                    if (inverseKey != null) {
+                        Long forwardValue = map.get(inverseKey);
+                        if (inverseKey.equals(map.inverse().get(value)) && !value.equals(forwardValue)) {
+                            fail(failures, "read: " + value + " -> " + inverseKey + " throughout, but "
+                                    + inverseKey + " -> " + forwardValue);
+                        }
+                    }
+                    checkedReads.incrementAndGet();
+                }
+            }
+        });
+        checkInverse(map, failures);
+        System.out.printf("atomic read phase: %,d writes, %,d round trips checked%n",
+                writes.get(), checkedReads.get());
+    }
+
+    private static <K, V> void checkInverse(ConcurrentHashBiMap<K, V> map, List<String> failures) {
+        if (map.size() != map.inverse().size()) {
+            fail(failures, "sizes differ: " + map.size() + " vs " + map.inverse().size());
+        }
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            if (!entry.getKey().equals(map.inverse().get(entry.getValue()))) {
+                fail(failures, "not inverse: " + entry);
+            }
+        }
+    }
+
+    private static void fail(List<String> failures, String message) {
+        synchronized (failures) {
+            failures.add(message);
+        }
+    }
+
+    private interface Worker {
+        void run(int thread, AtomicBoolean stop);
+    }
+
+    private static void run(int threads, long millis, Worker worker) throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            new Thread(() -> {
+                try {
+                    worker.run(thread, stop);
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        Thread.sleep(millis);
+        stop.set(true);
+        done.await();
+    }
+}
@@ -0,0 +1,390 @@
+package org.example.guava_demo.bimap;
+
+import com.google.common.collect.BiMap;
+import com.google.common.collect.Maps;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Thread-safe {@link BiMap} whose lookups in both directions do not lock.
+ * <p>
+ * {@code Maps.synchronizedBiMap(HashBiMap.create())} puts every {@code get} behind one monitor.
+ * Here the two directions are two {@link ConcurrentHashMap}s guarded by a fixed array of
+ * {@link StampedLock} stripes, where a key and a value each map to a stripe by hash:
+ * <ul>
+ *     <li>a write ({@code put}, {@code forcePut}, {@code remove}) write-locks every stripe it
+ *     touches (the key, the value, the key's old value, the value's old key) in index order,
+ *     re-checks that the mappings it read are unchanged, and updates both maps while holding
+ *     them, so the bijection is never broken from a reader's point of view;</li>
+ *     <li>a read ({@code get}, {@code containsKey}, {@code inverse().get}) is an optimistic read
+ *     of its stripe: a volatile read of the stamp, the map lookup, and a validation. It never
+ *     takes a lock; a read that overlapped a write on the same stripe just tries again, spinning
+ *     briefly and then yielding while that write holds the stripe (a few map updates).</li>
+ * </ul>
+ * Every operation therefore takes effect atomically: a reader that sees {@code k → v} will see
+ * {@code v → k} in the inverse unless a later write changed it ({@code BiMapStressTest} checks
+ * this). {@code size()} and iteration are weakly consistent, as with {@code ConcurrentHashMap}.
+ * Keys and values must be non-null; entries and key/value views are read-only.
+ */
+public class ConcurrentHashBiMap<K, V> extends AbstractMap<K, V> implements BiMap<K, V> {
+
+    /** failed optimistic reads before a reader starts yielding to the writer */
+    private static final int SPINS = 16;
+
+    private final ConcurrentHashMap<K, V> forward;
+    private final ConcurrentHashMap<V, K> backward;
+    private final StampedLock[] stripes;
+    private final BiMap<V, K> inverse;
+
+    public ConcurrentHashBiMap() {
+        this(16, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param stripeCount number of lock stripes, rounded up to a power of two
+     */
+    public ConcurrentHashBiMap(int expectedSize, int stripeCount) {
+        checkArgument(stripeCount > 0, "stripeCount must be positive: %s", stripeCount);
+        this.forward = new ConcurrentHashMap<>(expectedSize);
+        this.backward = new ConcurrentHashMap<>(expectedSize);
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new StampedLock[size];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new StampedLock();
+        }
+        this.inverse = new Inverse();
+    }
+
+    public static <K, V> ConcurrentHashBiMap<K, V> create() {
+        return new ConcurrentHashBiMap<>();
+    }
+
+    // --- reads ---
+
+    @Override
+    public V get(Object key) {
+        return read(forward, key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return read(forward, key) != null;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        return read(backward, value) != null;
+    }
+
+    @Override
+    public int size() {
+        return forward.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return forward.isEmpty();
+    }
+
+    private <A, B> B read(ConcurrentHashMap<A, B> map, Object key) {
+        if (key == null) {
+            return null;
+        }
+        StampedLock lock = stripes[stripe(key)];
+        for (int attempt = 0; ; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                B result = map.get(key);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            }
+            // the writer may not be running (more threads than cores): let it finish
+            if (attempt < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    // --- writes ---
+
+    /**
+     * @throws IllegalArgumentException if {@code value} is already bound to a different key
+     */
+    @Override
+    public V put(K key, V value) {
+        return put(forward, backward, key, value, false);
+    }
+
+    @Override
+    public V forcePut(K key, V value) {
+        return put(forward, backward, key, value, true);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return remove(forward, backward, key);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    @Override
+    public void clear() {
+        long[] stamps = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stamps[i] = stripes[i].writeLock();
+        }
+        try {
+            forward.clear();
+            backward.clear();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                stripes[i].unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * {@code a → b} in the {@code ab} direction, shared by {@link #put} and the inverse's put.
+     */
+    private <A, B> B put(ConcurrentHashMap<A, B> ab, ConcurrentHashMap<B, A> ba, A a, B b, boolean force) {
+        checkNotNull(a, "key");
+        checkNotNull(b, "value");
+        while (true) {
+            B oldB = ab.get(a);
+            A oldA = ba.get(b);
+            long[] locked = lock(a, b, oldB, oldA);
+            try {
+                // a → oldB is guarded by a's stripe and b → oldA by b's, both held now; if they
+                // moved before we got the locks, the old ends' stripes may be missing: retry
+                if (ab.get(a) != oldB || ba.get(b) != oldA) {
+                    continue;
+                }
+                if (b.equals(oldB)) {
+                    return oldB;
+                }
+                if (oldA != null) {
+                    checkArgument(force, "value already present: %s", b);
+                    ab.remove(oldA);
+                }
+                if (oldB != null) {
+                    ba.remove(oldB);
+                }
+                ab.put(a, b);
+                ba.put(b, a);
+                return oldB;
+            } finally {
+                unlock(locked);
+            }
+        }
+    }
+
+    private <A, B> B remove(ConcurrentHashMap<A, B> ab, ConcurrentHashMap<B, A> ba, Object a) {
+        if (a == null) {
+            return null;
+        }
+        while (true) {
+            B oldB = ab.get(a);
+            if (oldB == null) {
+                return null;
+            }
+            long[] locked = lock(a, oldB, null, null);
+            try {
+                if (ab.get(a) != oldB) {
+                    continue;
+                }
+                ab.remove(a);
+                ba.remove(oldB);
+                return oldB;
+            } finally {
+                unlock(locked);
+            }
+        }
+    }
+
+    /**
+     * Write-locks the distinct stripes of the non-null arguments in ascending order (so two
+     * writers can never wait on each other in a cycle).
+     *
+     * @return {@code [count, stripe indexes..., stamps...]} for {@link #unlock}
+     */
+    private long[] lock(Object first, Object second, Object third, Object fourth) {
+        int[] indexes = new int[4];
+        int count = 0;
+        for (Object o : new Object[]{first, second, third, fourth}) {
+            if (o != null) {
+                indexes[count++] = stripe(o);
+            }
+        }
+        Arrays.sort(indexes, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || indexes[distinct - 1] != indexes[i]) {
+                indexes[distinct++] = indexes[i];
+            }
+        }
+        long[] locked = new long[1 + distinct * 2];
+        locked[0] = distinct;
+        for (int i = 0; i < distinct; i++) {
+            locked[1 + i] = indexes[i];
+            locked[1 + distinct + i] = stripes[indexes[i]].writeLock();
+        }
+        return locked;
+    }
+
+    private void unlock(long[] locked) {
+        int count = (int) locked[0];
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[(int) locked[1 + i]].unlockWrite(locked[1 + count + i]);
+        }
+    }
+
+    private int stripe(Object o) {
+        int h = o.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    // --- views ---
+
+    @Override
+    public BiMap<V, K> inverse() {
+        return inverse;
+    }
+
+    @Override
+    public Set<V> values() {
+        return Collections.unmodifiableSet(backward.keySet());
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(forward.keySet());
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return entries(forward);
+    }
+
+    private static <A, B> Set<Entry<A, B>> entries(ConcurrentHashMap<A, B> map) {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<A, B>> iterator() {
+                Iterator<Entry<A, B>> iterator = map.entrySet().iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<A, B> next() {
+                        Entry<A, B> entry = iterator.next();
+                        return Maps.immutableEntry(entry.getKey(), entry.getValue());
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+        };
+    }
+
+    private final class Inverse extends AbstractMap<V, K> implements BiMap<V, K> {
+
+        @Override
+        public K get(Object value) {
+            return read(backward, value);
+        }
+
+        @Override
+        public boolean containsKey(Object value) {
+            return read(backward, value) != null;
+        }
+
+        @Override
+        public boolean containsValue(Object key) {
+            return read(forward, key) != null;
+        }
+
+        @Override
+        public int size() {
+            return backward.size();
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return backward.isEmpty();
+        }
+
+        @Override
+        public K put(V value, K key) {
+            return ConcurrentHashBiMap.this.put(backward, forward, value, key, false);
+        }
+
+        @Override
+        public K forcePut(V value, K key) {
+            return ConcurrentHashBiMap.this.put(backward, forward, value, key, true);
+        }
+
+        @Override
+        public K remove(Object value) {
+            return ConcurrentHashBiMap.this.remove(backward, forward, value);
+        }
+
+        @Override
+        public void putAll(Map<? extends V, ? extends K> map) {
+            for (Entry<? extends V, ? extends K> entry : map.entrySet()) {
+                put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        @Override
+        public void clear() {
+            ConcurrentHashBiMap.this.clear();
+        }
+
+        @Override
+        public Set<K> values() {
+            return ConcurrentHashBiMap.this.keySet();
+        }
+
+        @Override
+        public Set<V> keySet() {
+            return ConcurrentHashBiMap.this.values();
+        }
+
+        @Override
+        public Set<Entry<V, K>> entrySet() {
+            return entries(backward);
+        }
+
+        @Override
+        public BiMap<K, V> inverse() {
+            return ConcurrentHashBiMap.this;
+        }
+    }
+}
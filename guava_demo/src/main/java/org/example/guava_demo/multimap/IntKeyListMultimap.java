@@ -0,0 +1,449 @@
+package org.example.guava_demo.multimap;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Multiset;
+
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * Immutable {@code int} key to list of values multimap, bulk-built from rows
+ * (e.g. user id → order ids).
+ * <p>
+ * {@code ArrayListMultimap} holds a {@code HashMap} entry, a boxed key and an {@code ArrayList}
+ * (with its own slack) per key. Here the whole multimap is three arrays in CSR layout:
+ * <pre>
+ *   keys    = [1, 2, 7]                       sorted, distinct
+ *   offsets = [0, 3, 4, 6]                    values of keys[i] are values[offsets[i] .. offsets[i + 1])
+ *   values  = [o1, o3, o4, o2, o5, o6]
+ * </pre>
+ * {@link #get(int)} is a binary search plus a zero-copy {@link List} slice over {@code values}.
+ * Values of a key keep the order in which their rows were added, like {@code ArrayListMultimap}.
+ * <p>
+ * {@link Builder#build()} groups the rows with a parallel sort of packed (key, row) longs, so
+ * building from tens of millions of rows uses all cores. {@link #asListMultimap()} gives a
+ * read-only Guava {@link ListMultimap} view for code that expects one.
+ */
+public final class IntKeyListMultimap<V> {
+
+    private static final IntKeyListMultimap<Object> EMPTY =
+            new IntKeyListMultimap<>(new int[0], new int[1], new Object[0]);
+
+    private final int[] keys;
+    private final int[] offsets;
+    private final Object[] values;
+    private ListMultimap<Integer, V> view;
+
+    private IntKeyListMultimap(int[] keys, int[] offsets, Object[] values) {
+        this.keys = keys;
+        this.offsets = offsets;
+        this.values = values;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <V> IntKeyListMultimap<V> of() {
+        return (IntKeyListMultimap<V>) EMPTY;
+    }
+
+    public static <V> Builder<V> builder() {
+        return new Builder<>(16);
+    }
+
+    public static <V> Builder<V> builder(int expectedRows) {
+        checkArgument(expectedRows >= 0, "expectedRows cannot be negative: %s", expectedRows);
+        return new Builder<>(expectedRows);
+    }
+
+    /**
+     * @return the values of {@code key} in insertion order, or an empty list
+     */
+    public List<V> get(int key) {
+        int index = Arrays.binarySearch(keys, key);
+        return index < 0 ? Collections.emptyList() : valuesAt(index);
+    }
+
+    public boolean containsKey(int key) {
+        return Arrays.binarySearch(keys, key) >= 0;
+    }
+
+    /**
+     * Number of values (rows).
+     */
+    public int size() {
+        return values.length;
+    }
+
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    public int keyCount() {
+        return keys.length;
+    }
+
+    /**
+     * @param index 0-based index into the ascending distinct keys
+     */
+    public int keyAt(int index) {
+        checkElementIndex(index, keys.length);
+        return keys[index];
+    }
+
+    /**
+     * Values of {@code keyAt(index)}, for iterating without lookups.
+     */
+    public List<V> valuesAt(int index) {
+        checkElementIndex(index, keys.length);
+        return new Slice<>(values, offsets[index], offsets[index + 1]);
+    }
+
+    /**
+     * Read-only {@link ListMultimap} view over the same arrays; keys are boxed on access.
+     */
+    public ListMultimap<Integer, V> asListMultimap() {
+        ListMultimap<Integer, V> result = view;
+        return result != null ? result : (view = new MultimapView());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof IntKeyListMultimap)) return false;
+        IntKeyListMultimap<?> that = (IntKeyListMultimap<?>) obj;
+        return Arrays.equals(keys, that.keys) && Arrays.equals(offsets, that.offsets)
+                && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return asListMultimap().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asListMultimap().toString();
+    }
+
+    /**
+     * Unmodifiable window {@code [from, to)} of the shared values array.
+     */
+    private static final class Slice<V> extends AbstractList<V> implements RandomAccess {
+        private final Object[] values;
+        private final int from;
+        private final int to;
+
+        Slice(Object[] values, int from, int to) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(int index) {
+            checkElementIndex(index, to - from);
+            return (V) values[from + index];
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public List<V> subList(int fromIndex, int toIndex) {
+            if (fromIndex < 0 || toIndex > size() || fromIndex > toIndex) {
+                throw new IndexOutOfBoundsException("[" + fromIndex + ", " + toIndex + ") of " + size());
+            }
+            return new Slice<>(values, from + fromIndex, from + toIndex);
+        }
+    }
+
+    /**
+     * Collects rows, then groups them in {@link #build()}. Not thread-safe; fill it from one
+     * thread (or one builder per thread and {@link #putAll(Builder)} them together).
+     */
+    public static final class Builder<V> {
+        private int[] rowKeys;
+        private Object[] rowValues;
+        private int rows;
+
+        private Builder(int expectedRows) {
+            this.rowKeys = new int[expectedRows];
+            this.rowValues = new Object[expectedRows];
+        }
+
+        public Builder<V> put(int key, V value) {
+            if (rows == rowKeys.length) {
+                grow(rows + 1);
+            }
+            rowKeys[rows] = key;
+            rowValues[rows] = value;
+            rows++;
+            return this;
+        }
+
+        public Builder<V> putAll(int key, Iterable<? extends V> values) {
+            for (V value : values) {
+                put(key, value);
+            }
+            return this;
+        }
+
+        /**
+         * Appends the rows of {@code other} after the rows added so far.
+         */
+        public Builder<V> putAll(Builder<? extends V> other) {
+            grow(rows + other.rows);
+            System.arraycopy(other.rowKeys, 0, rowKeys, rows, other.rows);
+            System.arraycopy(other.rowValues, 0, rowValues, rows, other.rows);
+            rows += other.rows;
+            return this;
+        }
+
+        private void grow(int minCapacity) {
+            if (minCapacity <= rowKeys.length) return;
+            checkArgument(minCapacity > 0, "too many rows");
+            int capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(minCapacity, rowKeys.length * 3L / 2 + 16));
+            rowKeys = Arrays.copyOf(rowKeys, capacity);
+            rowValues = Arrays.copyOf(rowValues, capacity);
+        }
+
+        public IntKeyListMultimap<V> build() {
+            if (rows == 0) {
+                return of();
+            }
+            // key << 32 | row: ordered by key, then by row, so sorting the longs groups rows by key
+            // and keeps each key's rows in insertion order
+            long[] packed = new long[rows];
+            int[] rowKeys = this.rowKeys;
+            IntStream.range(0, rows).parallel().forEach(row ->
+                    packed[row] = ((long) rowKeys[row] << 32) | row);
+            Arrays.parallelSort(packed);
+
+            Object[] values = new Object[rows];
+            Object[] rowValues = this.rowValues;
+            IntStream.range(0, rows).parallel().forEach(i -> values[i] = rowValues[(int) packed[i]]);
+
+            int distinct = 1;
+            for (int i = 1; i < rows; i++) {
+                if ((packed[i] >>> 32) != (packed[i - 1] >>> 32)) distinct++;
+            }
+            int[] keys = new int[distinct];
+            int[] offsets = new int[distinct + 1];
+            int key = 0;
+            for (int i = 0; i < rows; i++) {
+                if (i == 0 || (packed[i] >>> 32) != (packed[i - 1] >>> 32)) {
+                    keys[key] = (int) (packed[i] >>> 32);
+                    offsets[key++] = i;
+                }
+            }
+            offsets[distinct] = rows;
+            return new IntKeyListMultimap<>(keys, offsets, values);
+        }
+    }
+
+    private final class MultimapView implements ListMultimap<Integer, V> {
+        private Map<Integer, Collection<V>> asMap;
+        private Multiset<Integer> keyMultiset;
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return values.length == 0;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof Integer && IntKeyListMultimap.this.containsKey((Integer) key);
+        }
+
+        @Override
+        public boolean containsValue(Object value) {
+            for (Object candidate : values) {
+                if (Objects.equals(candidate, value)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public boolean containsEntry(Object key, Object value) {
+            return containsKey(key) && IntKeyListMultimap.this.get((Integer) key).contains(value);
+        }
+
+        @Override
+        public List<V> get(Integer key) {
+            return key == null ? Collections.emptyList() : IntKeyListMultimap.this.get(key);
+        }
+
+        @Override
+        public Set<Integer> keySet() {
+            return asMap().keySet();
+        }
+
+        @Override
+        public Multiset<Integer> keys() {
+            Multiset<Integer> result = keyMultiset;
+            if (result == null) {
+                ImmutableMultiset.Builder<Integer> builder = ImmutableMultiset.builder();
+                for (int i = 0; i < keys.length; i++) {
+                    builder.addCopies(keys[i], offsets[i + 1] - offsets[i]);
+                }
+                result = keyMultiset = builder.build();
+            }
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Collection<V> values() {
+            return Collections.unmodifiableList((List<V>) Arrays.asList(values));
+        }
+
+        @Override
+        public Collection<Map.Entry<Integer, V>> entries() {
+            return new AbstractCollection<>() {
+                @Override
+                public Iterator<Map.Entry<Integer, V>> iterator() {
+                    return new Iterator<>() {
+                        private int key;
+                        private int position;
+
+                        @Override
+                        public boolean hasNext() {
+                            return position < values.length;
+                        }
+
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public Map.Entry<Integer, V> next() {
+                            if (position >= values.length) throw new NoSuchElementException();
+                            while (offsets[key + 1] <= position) {
+                                key++;
+                            }
+                            return Maps.immutableEntry(keys[key], (V) values[position++]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return values.length;
+                }
+            };
+        }
+
+        @Override
+        public Map<Integer, Collection<V>> asMap() {
+            Map<Integer, Collection<V>> result = asMap;
+            return result != null ? result : (asMap = new AbstractMap<>() {
+                @Override
+                public Collection<V> get(Object key) {
+                    return containsKey(key) ? IntKeyListMultimap.this.get((Integer) key) : null;
+                }
+
+                @Override
+                public boolean containsKey(Object key) {
+                    return MultimapView.this.containsKey(key);
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+
+                @Override
+                public Set<Entry<Integer, Collection<V>>> entrySet() {
+                    return new AbstractSet<>() {
+                        @Override
+                        public Iterator<Entry<Integer, Collection<V>>> iterator() {
+                            return IntStream.range(0, keys.length)
+                                    .mapToObj(i -> Maps.<Integer, Collection<V>>immutableEntry(keys[i], valuesAt(i)))
+                                    .iterator();
+                        }
+
+                        @Override
+                        public int size() {
+                            return keys.length;
+                        }
+                    };
+                }
+            });
+        }
+
+        // --- immutable ---
+
+        @Override
+        public boolean put(Integer key, V value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean remove(Object key, Object value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean putAll(Integer key, Iterable<? extends V> values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean putAll(Multimap<? extends Integer, ? extends V> multimap) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<V> replaceValues(Integer key, Iterable<? extends V> values) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<V> removeAll(Object key) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void clear() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj == this || (obj instanceof Multimap && asMap().equals(((Multimap<?, ?>) obj).asMap()));
+        }
+
+        @Override
+        public int hashCode() {
+            return asMap().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return asMap().toString();
+        }
+    }
+}
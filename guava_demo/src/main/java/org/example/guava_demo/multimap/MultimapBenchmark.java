@@ -0,0 +1,88 @@
+package org.example.guava_demo.multimap;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Building user id → order ids from rows: {@link ArrayListMultimap} vs {@link IntKeyListMultimap}.
+ * <p>
+ * Rough numbers, not a JMH run: each variant is warmed up, then timed, retained heap is measured
+ * after a GC (the order id strings are shared and not counted), and a round of random
+ * {@code get} lookups is timed. Run with e.g.
+ * {@code -Xmx4g ... MultimapBenchmark 20000000 2000000} (rows, distinct users).
+ */
+public class MultimapBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int users = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+
+        Random random = new Random(42);
+        int[] userIds = new int[rows];
+        String[] orderIds = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            userIds[i] = random.nextInt(users);
+            orderIds[i] = "ORD-" + i;
+        }
+        int[] lookups = random.ints(1_000_000, 0, users).toArray();
+
+        System.out.printf("%,d rows, %,d users, %d cores%n", rows, users, Runtime.getRuntime().availableProcessors());
+
+        ListMultimap<Integer, String> arrayList = run("ArrayListMultimap", () -> {
+            ListMultimap<Integer, String> multimap = ArrayListMultimap.create();
+            for (int i = 0; i < rows; i++) {
+                multimap.put(userIds[i], orderIds[i]);
+            }
+            return multimap;
+        });
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int user : lookups) {
+            checksum += arrayList.get(user).size();
+        }
+        System.out.printf("%-28s %8.1f ms for %,d lookups%n", "", (System.nanoTime() - start) / 1e6, lookups.length);
+
+        IntKeyListMultimap<String> compact = run("IntKeyListMultimap", () -> {
+            IntKeyListMultimap.Builder<String> builder = IntKeyListMultimap.builder(rows);
+            for (int i = 0; i < rows; i++) {
+                builder.put(userIds[i], orderIds[i]);
+            }
+            return builder.build();
+        });
+        start = System.nanoTime();
+        for (int user : lookups) {
+            checksum -= compact.get(user).size();
+        }
+        System.out.printf("%-28s %8.1f ms for %,d lookups%n", "", (System.nanoTime() - start) / 1e6, lookups.length);
+
+        List<String> expected = arrayList.get(lookups[0]);
+        if (checksum != 0 || !expected.equals(compact.get(lookups[0]))) {
+            throw new IllegalStateException("multimaps differ");
+        }
+    }
+
+    private static <T> T run(String name, Supplier<T> builder) {
+        for (int i = 0; i < 2; i++) {
+            builder.get(); // warm-up
+        }
+        long before = usedHeap();
+        long start = System.nanoTime();
+        T result = builder.get();
+        long elapsed = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        System.out.printf("%-28s %8.1f ms %10.1f MB retained%n", name, elapsed / 1e6, retained / (1024.0 * 1024));
+        return result;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.guava_demo.multiset;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+/**
+ * 32 threads incrementing a Zipf-distributed key set: {@link ConcurrentHashMultiset}
+ * vs {@link StripedCountingMultiset}.
+ * <p>
+ * With Zipf(1.0) over 100k keys the top key receives ~8% of all increments, which is exactly
+ * where a single {@code AtomicInteger} per key turns into a CAS retry loop.
+ * Arguments: threads, increments per thread, distinct keys, Zipf exponent.
+ */
+public class ConcurrentMultisetBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int incrementsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        int distinctKeys = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        double exponent = args.length > 3 ? Double.parseDouble(args[3]) : 1.0;
+
+        String[] keys = new String[distinctKeys];
+        for (int i = 0; i < distinctKeys; i++) {
+            keys[i] = "PROD-" + i;
+        }
+        int[][] workload = zipfWorkload(threads, incrementsPerThread, distinctKeys, exponent);
+
+        System.out.printf("%d threads x %,d increments, %,d keys, zipf s=%.2f%n",
+                threads, incrementsPerThread, distinctKeys, exponent);
+
+        for (int round = 0; round < 3; round++) {
+            ConcurrentHashMultiset<String> guava = ConcurrentHashMultiset.create();
+            long guavaNanos = runThreads(workload, slice -> {
+                for (int key : slice) {
+                    guava.add(keys[key]);
+                }
+            });
+
+            StripedCountingMultiset<String> striped = StripedCountingMultiset.create();
+            long stripedNanos = runThreads(workload, slice -> {
+                for (int key : slice) {
+                    striped.add(keys[key]);
+                }
+            });
+
+            if (guava.count(keys[0]) != striped.count(keys[0])) {
+                throw new IllegalStateException("counts differ for " + keys[0]);
+            }
+            System.out.printf("round %d: ConcurrentHashMultiset %8.1f ms | StripedCountingMultiset %8.1f ms%n",
+                    round, guavaNanos / 1e6, stripedNanos / 1e6);
+        }
+    }
+
+    private static long runThreads(int[][] workload, Consumer<int[]> task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(workload.length);
+        for (int[] slice : workload) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.accept(slice);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        return System.nanoTime() - begin;
+    }
+
+    /**
+     * Pre-generated key indexes per thread, so sampling is not part of the measurement.
+     */
+    private static int[][] zipfWorkload(int threads, int perThread, int distinctKeys, double exponent) {
+        double[] cdf = new double[distinctKeys];
+        double total = 0;
+        for (int i = 0; i < distinctKeys; i++) {
+            total += 1.0 / Math.pow(i + 1, exponent);
+            cdf[i] = total;
+        }
+        int[][] workload = new int[threads][perThread];
+        for (int t = 0; t < threads; t++) {
+            Random random = new Random(t);
+            for (int i = 0; i < perThread; i++) {
+                int index = Arrays.binarySearch(cdf, random.nextDouble() * total);
+                workload[t][i] = index >= 0 ? index : Math.min(-index - 1, distinctKeys - 1);
+            }
+        }
+        return workload;
+    }
+}
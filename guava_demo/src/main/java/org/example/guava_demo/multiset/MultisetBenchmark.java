@@ -0,0 +1,84 @@
+package org.example.guava_demo.multiset;
+
+import com.google.common.collect.HashMultiset;
+import com.google.common.collect.Multiset;
+
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Counting product ids: {@link HashMultiset} vs {@link OpenHashMultiset}.
+ * <p>
+ * Rough numbers, not a JMH run: every variant is warmed up a few rounds, then timed, and the
+ * retained heap is measured after a GC. Run with e.g.
+ * {@code -Xmx2g ... MultisetBenchmark 20000000 1000000} (order lines, distinct product ids).
+ */
+public class MultisetBenchmark {
+
+    public static void main(String[] args) {
+        int orderLines = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int distinctIds = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+
+        String[] productIds = new String[distinctIds];
+        for (int i = 0; i < distinctIds; i++) {
+            productIds[i] = "PROD-" + i;
+        }
+        // skewed like real sales: a few products are in most order lines
+        Random random = new Random(42);
+        int[] lines = new int[orderLines];
+        for (int i = 0; i < orderLines; i++) {
+            double u = random.nextDouble();
+            lines[i] = (int) (distinctIds * u * u * u);
+        }
+
+        System.out.printf("%,d order lines, %,d distinct product ids%n", orderLines, distinctIds);
+
+        run("HashMultiset", () -> {
+            Multiset<String> counts = HashMultiset.create();
+            for (int line : lines) {
+                counts.add(productIds[line]);
+            }
+            return counts;
+        }, counts -> counts.count(productIds[0]));
+
+        run("OpenHashMultiset", () -> {
+            OpenHashMultiset<String> counts = OpenHashMultiset.create();
+            for (int line : lines) {
+                counts.add(productIds[line]);
+            }
+            return counts;
+        }, counts -> counts.count(productIds[0]));
+
+        run("OpenHashMultiset (presized)", () -> {
+            OpenHashMultiset<String> counts = OpenHashMultiset.create(distinctIds);
+            for (int line : lines) {
+                counts.add(productIds[line]);
+            }
+            return counts;
+        }, counts -> counts.count(productIds[0]));
+    }
+
+    private static <T> void run(String name, Supplier<T> builder, Consumer<T> use) {
+        for (int i = 0; i < 3; i++) {
+            use.accept(builder.get()); // warm-up
+        }
+
+        long before = usedHeap();
+        long start = System.nanoTime();
+        T result = builder.get();
+        long elapsed = System.nanoTime() - start;
+        long retained = usedHeap() - before;
+        use.accept(result);
+
+        System.out.printf("%-28s %8.1f ms %10.1f MB retained%n", name, elapsed / 1e6, retained / (1024.0 * 1024));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
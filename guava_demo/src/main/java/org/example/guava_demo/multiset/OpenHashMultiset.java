@@ -0,0 +1,521 @@
+package org.example.guava_demo.multiset;
+
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import com.google.common.primitives.Ints;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.ObjIntConsumer;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Counting multiset stored in two parallel arrays: {@code Object[] keys} and {@code int[] counts}
+ * (open addressing, linear probing, backward-shift deletion, so no tombstones).
+ * <p>
+ * {@code HashMultiset} keeps a {@code Map<E, Count>}: a {@code HashMap.Node} plus a boxed mutable
+ * {@code Count} per distinct element, roughly 50 bytes of overhead. Here an element costs one
+ * reference and one {@code int} divided by the load factor, ~11 bytes, and counting does not
+ * allocate at all.
+ * <p>
+ * The primary API is the primitive {@code Object2Int}-style one ({@link #count}, {@link #add(Object, int)},
+ * {@link #remove(Object, int)}, {@link #setCount}); {@link #asMultiset()} exposes the same data as a
+ * Guava {@link Multiset} with identical {@code add / setCount / remove(e, n)} semantics
+ * (e.g. {@code remove("B", 50)} on 10 occurrences removes all of them and returns 10).
+ * {@code null} elements are allowed, like in {@code HashMultiset}.
+ * <p>
+ * Not thread-safe. Iterators of the views are fail-fast and do not support {@code remove()}.
+ */
+public class OpenHashMultiset<E> {
+
+    private static final Object NULL_KEY = new Object();
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private Object[] keys;
+    private int[] counts;
+    private int mask;
+    private int threshold;
+    private int distinct;
+    private long size;
+    private int modCount;
+
+    private Multiset<E> multisetView;
+
+    public OpenHashMultiset() {
+        this(16);
+    }
+
+    public OpenHashMultiset(int expectedDistinctElements) {
+        checkArgument(expectedDistinctElements >= 0, "expectedDistinctElements cannot be negative");
+        allocate(tableSizeFor((int) Math.ceil(Math.max(expectedDistinctElements, 2) / LOAD_FACTOR)));
+    }
+
+    public static <E> OpenHashMultiset<E> create() {
+        return new OpenHashMultiset<>();
+    }
+
+    public static <E> OpenHashMultiset<E> create(int expectedDistinctElements) {
+        return new OpenHashMultiset<>(expectedDistinctElements);
+    }
+
+    public int count(Object element) {
+        int slot = find(mask(element));
+        return slot >= 0 ? counts[slot] : 0;
+    }
+
+    /**
+     * @return the count of {@code element} before the operation
+     */
+    public int add(E element) {
+        return add(element, 1);
+    }
+
+    /**
+     * @return the count of {@code element} before the operation
+     * @throws IllegalArgumentException if {@code occurrences} is negative or the count would overflow
+     */
+    public int add(E element, int occurrences) {
+        checkArgument(occurrences >= 0, "occurrences cannot be negative: %s", occurrences);
+        Object key = mask(element);
+        int slot = find(key);
+        if (slot >= 0) {
+            int previous = counts[slot];
+            if (occurrences > 0) {
+                long updated = (long) previous + occurrences;
+                checkArgument(updated <= Integer.MAX_VALUE, "too many occurrences: %s", updated);
+                counts[slot] = (int) updated;
+                size += occurrences;
+            }
+            return previous;
+        }
+        if (occurrences > 0) {
+            insertAt(-slot - 1, key, occurrences);
+        }
+        return 0;
+    }
+
+    /**
+     * Removes up to {@code occurrences}; if fewer are present, all of them are removed.
+     *
+     * @return the count of {@code element} before the operation
+     */
+    public int remove(Object element, int occurrences) {
+        checkArgument(occurrences >= 0, "occurrences cannot be negative: %s", occurrences);
+        int slot = find(mask(element));
+        if (slot < 0) {
+            return 0;
+        }
+        int previous = counts[slot];
+        if (occurrences >= previous) {
+            size -= previous;
+            removeAt(slot);
+        } else if (occurrences > 0) {
+            counts[slot] = previous - occurrences;
+            size -= occurrences;
+        }
+        return previous;
+    }
+
+    /**
+     * @return the count of {@code element} before the operation
+     */
+    public int setCount(E element, int count) {
+        checkArgument(count >= 0, "count cannot be negative: %s", count);
+        Object key = mask(element);
+        int slot = find(key);
+        if (slot >= 0) {
+            int previous = counts[slot];
+            size += count - previous;
+            if (count == 0) {
+                removeAt(slot);
+            } else {
+                counts[slot] = count;
+            }
+            return previous;
+        }
+        if (count > 0) {
+            insertAt(-slot - 1, key, count);
+        }
+        return 0;
+    }
+
+    /**
+     * Total number of occurrences; unlike {@link Multiset#size()} it does not saturate at
+     * {@code Integer.MAX_VALUE}.
+     */
+    public long size() {
+        return size;
+    }
+
+    public int distinctElements() {
+        return distinct;
+    }
+
+    public boolean isEmpty() {
+        return distinct == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, null);
+        Arrays.fill(counts, 0);
+        distinct = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEachEntry(ObjIntConsumer<? super E> action) {
+        int expectedModCount = modCount;
+        for (int slot = 0; slot < keys.length; slot++) {
+            Object key = keys[slot];
+            if (key != null) {
+                action.accept((E) unmask(key), counts[slot]);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Live {@link Multiset} view; changes go both ways.
+     */
+    public Multiset<E> asMultiset() {
+        Multiset<E> view = multisetView;
+        return view != null ? view : (multisetView = new MultisetView());
+    }
+
+    @Override
+    public String toString() {
+        return asMultiset().toString();
+    }
+
+    // --- hashing internals ---
+
+    private static Object mask(Object element) {
+        return element == null ? NULL_KEY : element;
+    }
+
+    private static Object unmask(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    private static int mix(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return the slot of {@code key}, or {@code -(free slot) - 1} if absent
+     */
+    private int find(Object key) {
+        Object[] table = keys;
+        int slot = mix(key.hashCode()) & mask;
+        while (true) {
+            Object candidate = table[slot];
+            if (candidate == null) return -slot - 1;
+            if (candidate == key || candidate.equals(key)) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void insertAt(int slot, Object key, int count) {
+        keys[slot] = key;
+        counts[slot] = count;
+        size += count;
+        modCount++;
+        if (++distinct > threshold) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Backward-shift deletion: moves later entries of the same probe run into the hole so that
+     * lookups never need tombstones.
+     */
+    private void removeAt(int slot) {
+        distinct--;
+        modCount++;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != null) {
+            int home = mix(keys[next].hashCode()) & mask;
+            // move if the hole lies cyclically in [home, next)
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                counts[hole] = counts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = null;
+        counts[hole] = 0;
+    }
+
+    private void rehash(int capacity) {
+        Object[] oldKeys = keys;
+        int[] oldCounts = counts;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object key = oldKeys[i];
+            if (key != null) {
+                int slot = mix(key.hashCode()) & mask;
+                while (keys[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new Object[capacity];
+        counts = new int[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int n) {
+        checkArgument(n <= 1 << 30, "too many elements: %s", n);
+        return Math.max(4, Integer.highestOneBit(n - 1) << 1);
+    }
+
+    // --- Multiset view ---
+
+    private abstract class SlotIterator<T> implements Iterator<T> {
+        private int expectedModCount = modCount;
+        private int slot = advance(0);
+
+        private int advance(int from) {
+            while (from < keys.length && keys[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return slot < keys.length;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) throw new ConcurrentModificationException();
+            if (!hasNext()) throw new NoSuchElementException();
+            T result = output(slot);
+            slot = advance(slot + 1);
+            return result;
+        }
+
+        abstract T output(int slot);
+    }
+
+    private final class MultisetView extends AbstractCollection<E> implements Multiset<E> {
+
+        private Set<E> elementSet;
+        private Set<Entry<E>> entrySet;
+
+        @Override
+        public int size() {
+            return Ints.saturatedCast(size);
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return distinct == 0;
+        }
+
+        @Override
+        public int count(Object element) {
+            return OpenHashMultiset.this.count(element);
+        }
+
+        @Override
+        public int add(E element, int occurrences) {
+            return OpenHashMultiset.this.add(element, occurrences);
+        }
+
+        @Override
+        public boolean add(E element) {
+            OpenHashMultiset.this.add(element, 1);
+            return true;
+        }
+
+        @Override
+        public int remove(Object element, int occurrences) {
+            return OpenHashMultiset.this.remove(element, occurrences);
+        }
+
+        @Override
+        public boolean remove(Object element) {
+            return OpenHashMultiset.this.remove(element, 1) > 0;
+        }
+
+        @Override
+        public int setCount(E element, int count) {
+            return OpenHashMultiset.this.setCount(element, count);
+        }
+
+        @Override
+        public boolean setCount(E element, int oldCount, int newCount) {
+            checkArgument(oldCount >= 0 && newCount >= 0, "counts cannot be negative");
+            if (count(element) != oldCount) {
+                return false;
+            }
+            OpenHashMultiset.this.setCount(element, newCount);
+            return true;
+        }
+
+        @Override
+        public boolean contains(Object element) {
+            return find(mask(element)) >= 0;
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> elements) {
+            for (Object element : elements) {
+                if (!contains(element)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> elements) {
+            boolean changed = false;
+            for (Object element : elements) {
+                changed |= OpenHashMultiset.this.remove(element, Integer.MAX_VALUE) > 0;
+            }
+            return changed;
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> elements) {
+            Object[] toRemove = new Object[distinct];
+            int n = 0;
+            for (Object key : keys) {
+                if (key != null && !elements.contains(unmask(key))) {
+                    toRemove[n++] = key;
+                }
+            }
+            for (int i = 0; i < n; i++) {
+                OpenHashMultiset.this.remove(unmask(toRemove[i]), Integer.MAX_VALUE);
+            }
+            return n > 0;
+        }
+
+        @Override
+        public void clear() {
+            OpenHashMultiset.this.clear();
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            // every element repeated count times
+            return new Iterator<>() {
+                private final Iterator<Entry<E>> entries = entrySet().iterator();
+                private E element;
+                private int remaining;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0 || entries.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    if (remaining == 0) {
+                        Entry<E> entry = entries.next();
+                        element = entry.getElement();
+                        remaining = entry.getCount();
+                    }
+                    remaining--;
+                    return element;
+                }
+            };
+        }
+
+        @Override
+        public Set<E> elementSet() {
+            Set<E> result = elementSet;
+            return result != null ? result : (elementSet = new AbstractSet<>() {
+                @Override
+                public Iterator<E> iterator() {
+                    return new SlotIterator<>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        E output(int slot) {
+                            return (E) unmask(keys[slot]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return distinct;
+                }
+
+                @Override
+                public boolean contains(Object o) {
+                    return MultisetView.this.contains(o);
+                }
+
+                @Override
+                public boolean remove(Object o) {
+                    return OpenHashMultiset.this.remove(o, Integer.MAX_VALUE) > 0;
+                }
+            });
+        }
+
+        @Override
+        public Set<Entry<E>> entrySet() {
+            Set<Entry<E>> result = entrySet;
+            return result != null ? result : (entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<E>> iterator() {
+                    return new SlotIterator<>() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        Entry<E> output(int slot) {
+                            return Multisets.immutableEntry((E) unmask(keys[slot]), counts[slot]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return distinct;
+                }
+            });
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof Multiset)) return false;
+            Multiset<?> that = (Multiset<?>) obj;
+            if (that.size() != size() || that.entrySet().size() != distinct) return false;
+            for (Entry<?> entry : that.entrySet()) {
+                if (count(entry.getElement()) != entry.getCount()) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return entrySet().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entrySet().toString();
+        }
+    }
+}
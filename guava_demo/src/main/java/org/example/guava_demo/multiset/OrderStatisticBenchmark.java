@@ -0,0 +1,83 @@
+package org.example.guava_demo.multiset;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Range;
+import com.google.common.collect.TreeMultiset;
+
+import java.util.Random;
+
+/**
+ * Percentile dashboard queries over a large score multiset: {@link TreeMultiset} vs
+ * {@link OrderStatisticMultiset}.
+ * <p>
+ * Both answer range counts from subtree aggregates; the difference is in the k-th element
+ * (median, p90, p99), which {@code TreeMultiset} can only find by walking its entries.
+ * Rough numbers, not a JMH run. Arguments: scores, distinct score values, queries.
+ */
+public class OrderStatisticBenchmark {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99};
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int distinct = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        int queries = args.length > 2 ? Integer.parseInt(args[2]) : 2_000;
+
+        TreeMultiset<Integer> tree = TreeMultiset.create();
+        OrderStatisticMultiset<Integer> ranked = OrderStatisticMultiset.create();
+        Random random = new Random(42);
+        for (int i = 0; i < size; i++) {
+            int score = (int) Math.abs(random.nextGaussian() * distinct / 4) % distinct;
+            tree.add(score);
+            ranked.add(score, 1);
+        }
+        System.out.printf("%,d scores, %,d distinct values, %,d queries per round%n",
+                size, tree.elementSet().size(), queries);
+
+        for (int round = 0; round < 3; round++) {
+            long start = System.nanoTime();
+            long treeCheck = 0;
+            for (int q = 0; q < queries; q++) {
+                int lower = q % distinct;
+                treeCheck += tree.subMultiset(lower, BoundType.CLOSED, lower + 100, BoundType.CLOSED).size();
+                for (double p : PERCENTILES) {
+                    treeCheck += percentile(tree, p);
+                }
+            }
+            long treeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            long rankedCheck = 0;
+            for (int q = 0; q < queries; q++) {
+                int lower = q % distinct;
+                rankedCheck += ranked.countInRange(Range.closed(lower, lower + 100));
+                for (double p : PERCENTILES) {
+                    rankedCheck += ranked.percentile(p);
+                }
+            }
+            long rankedNanos = System.nanoTime() - start;
+
+            if (treeCheck != rankedCheck) {
+                throw new IllegalStateException("results differ: " + treeCheck + " vs " + rankedCheck);
+            }
+            System.out.printf("round %d: TreeMultiset %9.1f ms | OrderStatisticMultiset %7.1f ms%n",
+                    round, treeNanos / 1e6, rankedNanos / 1e6);
+        }
+    }
+
+    /**
+     * Nearest-rank percentile the only way a {@code TreeMultiset} allows: walk the entries.
+     */
+    private static int percentile(TreeMultiset<Integer> scores, double p) {
+        long target = (long) Math.ceil(p * scores.size());
+        long seen = 0;
+        for (Multiset.Entry<Integer> entry : scores.entrySet()) {
+            seen += entry.getCount();
+            if (seen >= target) {
+                return entry.getElement();
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,919 @@
+package org.example.guava_demo.multiset;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Multiset;
+import com.google.common.collect.Multisets;
+import com.google.common.collect.Ordering;
+import com.google.common.collect.Range;
+import com.google.common.collect.SortedMultiset;
+import com.google.common.primitives.Ints;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Sorted multiset backed by an AVL tree whose nodes also store the total number of occurrences
+ * and of distinct elements in their subtree. That turns the questions a percentile dashboard
+ * asks into O(log n) walks from the root:
+ * <ul>
+ *     <li>{@link #rank(Comparable)} - how many occurrences are smaller than a value;</li>
+ *     <li>{@link #select(long)} / {@link #percentile(double)} - the k-th smallest occurrence;</li>
+ *     <li>{@link #countInRange(Range)} / {@link #distinctInRange(Range)} - e.g. scores in [90, 100].</li>
+ * </ul>
+ * {@code TreeMultiset} can count a range, but finding the k-th occurrence (a median, a p99)
+ * means iterating through the entries.
+ * <p>
+ * {@link #asSortedMultiset()} exposes the tree as a Guava {@link SortedMultiset}; its
+ * {@code subMultiset}/{@code headMultiset}/{@code tailMultiset}/{@code descendingMultiset}
+ * views are live, and their {@code size()} and {@code elementSet().size()} use the same
+ * subtree aggregates instead of iterating. Elements use their natural ordering; {@code null} is
+ * not allowed. Not thread-safe.
+ */
+public class OrderStatisticMultiset<E extends Comparable<? super E>> {
+
+    private static final class Node<E> {
+        final E element;
+        int count;
+        Node<E> left;
+        Node<E> right;
+        int height = 1;
+        long totalCount;
+        int distinctCount = 1;
+
+        Node(E element, int count) {
+            this.element = element;
+            this.count = count;
+            this.totalCount = count;
+        }
+    }
+
+    private Node<E> root;
+    // count before the last add/setCount/remove, set by the recursive helpers
+    private int previousCount;
+    private SortedMultiset<E> view;
+
+    public static <E extends Comparable<? super E>> OrderStatisticMultiset<E> create() {
+        return new OrderStatisticMultiset<>();
+    }
+
+    public static <E extends Comparable<? super E>> OrderStatisticMultiset<E> create(Iterable<? extends E> elements) {
+        OrderStatisticMultiset<E> multiset = new OrderStatisticMultiset<>();
+        for (E element : elements) {
+            multiset.add(element, 1);
+        }
+        return multiset;
+    }
+
+    // --- counting ---
+
+    public int count(Object element) {
+        Node<E> node = find(element);
+        return node == null ? 0 : node.count;
+    }
+
+    public long size() {
+        return totalCount(root);
+    }
+
+    public int distinctElements() {
+        return distinctCount(root);
+    }
+
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * @return the count before the operation
+     */
+    public int add(E element, int occurrences) {
+        checkNotNull(element);
+        checkArgument(occurrences >= 0, "occurrences cannot be negative: %s", occurrences);
+        if (occurrences == 0) {
+            return count(element);
+        }
+        root = add(root, element, occurrences);
+        return previousCount;
+    }
+
+    /**
+     * Removes up to {@code occurrences}; if fewer are present all of them are removed.
+     *
+     * @return the count before the operation
+     */
+    public int remove(Object element, int occurrences) {
+        checkArgument(occurrences >= 0, "occurrences cannot be negative: %s", occurrences);
+        Node<E> node = find(element);
+        if (node == null) {
+            return 0;
+        }
+        int previous = node.count;
+        if (occurrences > 0) {
+            setCount(node.element, Math.max(0, previous - occurrences));
+        }
+        return previous;
+    }
+
+    /**
+     * @return the count before the operation
+     */
+    public int setCount(E element, int count) {
+        checkNotNull(element);
+        checkArgument(count >= 0, "count cannot be negative: %s", count);
+        root = setCount(root, element, count);
+        return previousCount;
+    }
+
+    public void clear() {
+        root = null;
+    }
+
+    // --- order statistics ---
+
+    /**
+     * @return the number of occurrences strictly smaller than {@code element}
+     */
+    public long rank(E element) {
+        return countBelow(element, false);
+    }
+
+    /**
+     * @param index 0-based position in ascending order, counting every occurrence
+     * @return the element at that position
+     */
+    public E select(long index) {
+        long size = size();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + " out of [0, " + size + ")");
+        }
+        Node<E> node = root;
+        while (true) {
+            long leftCount = totalCount(node.left);
+            if (index < leftCount) {
+                node = node.left;
+            } else if (index < leftCount + node.count) {
+                return node.element;
+            } else {
+                index -= leftCount + node.count;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * @param index 0-based position among the distinct elements in ascending order
+     */
+    public E selectDistinct(int index) {
+        checkElementIndex(index, distinctElements());
+        Node<E> node = root;
+        while (true) {
+            int leftCount = distinctCount(node.left);
+            if (index < leftCount) {
+                node = node.left;
+            } else if (index == leftCount) {
+                return node.element;
+            } else {
+                index -= leftCount + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Nearest-rank percentile: the smallest element such that at least {@code p} of all
+     * occurrences are less than or equal to it, e.g. {@code percentile(0.5)} is the median.
+     *
+     * @param p in {@code (0, 1]}
+     */
+    public E percentile(double p) {
+        checkArgument(p > 0 && p <= 1, "percentile must be in (0, 1]: %s", p);
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return select((long) Math.ceil(p * size()) - 1);
+    }
+
+    public long countInRange(Range<E> range) {
+        long upper = range.hasUpperBound()
+                ? countBelow(range.upperEndpoint(), range.upperBoundType() == BoundType.CLOSED)
+                : size();
+        long lower = range.hasLowerBound()
+                ? countBelow(range.lowerEndpoint(), range.lowerBoundType() == BoundType.OPEN)
+                : 0;
+        return Math.max(0, upper - lower);
+    }
+
+    public int distinctInRange(Range<E> range) {
+        int upper = range.hasUpperBound()
+                ? distinctBelow(range.upperEndpoint(), range.upperBoundType() == BoundType.CLOSED)
+                : distinctElements();
+        int lower = range.hasLowerBound()
+                ? distinctBelow(range.lowerEndpoint(), range.lowerBoundType() == BoundType.OPEN)
+                : 0;
+        return Math.max(0, upper - lower);
+    }
+
+    private long countBelow(E element, boolean inclusive) {
+        long result = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = element.compareTo(node.element);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                result += totalCount(node.left);
+                if (cmp == 0) {
+                    return inclusive ? result + node.count : result;
+                }
+                result += node.count;
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    private int distinctBelow(E element, boolean inclusive) {
+        int result = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = element.compareTo(node.element);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                result += distinctCount(node.left);
+                if (cmp == 0) {
+                    return inclusive ? result + 1 : result;
+                }
+                result++;
+                node = node.right;
+            }
+        }
+        return result;
+    }
+
+    // --- navigation (restricted to a range, used by the views) ---
+
+    /**
+     * Greatest element {@code < element} (or {@code <=} if {@code inclusive}) inside {@code range}.
+     */
+    private Node<E> lower(E element, boolean inclusive, Range<E> range) {
+        Node<E> result = null;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = element.compareTo(node.element);
+            if (cmp > 0 || (cmp == 0 && inclusive)) {
+                result = node;
+                if (cmp == 0) break;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        if (result == null || range.contains(result.element)) {
+            return result;
+        }
+        // above the range: the last element of the range is then the answer; below: nothing
+        return aboveRange(result.element, range) ? last(range) : null;
+    }
+
+    /**
+     * Smallest element {@code > element} (or {@code >=} if {@code inclusive}) inside {@code range}.
+     */
+    private Node<E> higher(E element, boolean inclusive, Range<E> range) {
+        Node<E> result = null;
+        Node<E> node = root;
+        while (node != null) {
+            int cmp = element.compareTo(node.element);
+            if (cmp < 0 || (cmp == 0 && inclusive)) {
+                result = node;
+                if (cmp == 0) break;
+                node = node.left;
+            } else {
+                node = node.right;
+            }
+        }
+        if (result == null || range.contains(result.element)) {
+            return result;
+        }
+        return aboveRange(result.element, range) ? null : first(range);
+    }
+
+    private Node<E> first(Range<E> range) {
+        Node<E> node;
+        if (range.hasLowerBound()) {
+            node = higher(range.lowerEndpoint(), range.lowerBoundType() == BoundType.CLOSED, Range.all());
+        } else {
+            node = root;
+            while (node != null && node.left != null) {
+                node = node.left;
+            }
+        }
+        return node != null && range.contains(node.element) ? node : null;
+    }
+
+    private Node<E> last(Range<E> range) {
+        Node<E> node;
+        if (range.hasUpperBound()) {
+            node = lower(range.upperEndpoint(), range.upperBoundType() == BoundType.CLOSED, Range.all());
+        } else {
+            node = root;
+            while (node != null && node.right != null) {
+                node = node.right;
+            }
+        }
+        return node != null && range.contains(node.element) ? node : null;
+    }
+
+    private static <E extends Comparable<? super E>> boolean aboveRange(E element, Range<E> range) {
+        if (!range.hasUpperBound()) return false;
+        int cmp = element.compareTo(range.upperEndpoint());
+        return cmp > 0 || (cmp == 0 && range.upperBoundType() == BoundType.OPEN);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<E> find(Object element) {
+        if (element == null) {
+            return null;
+        }
+        Node<E> node = root;
+        try {
+            while (node != null) {
+                int cmp = ((E) element).compareTo(node.element);
+                if (cmp == 0) return node;
+                node = cmp < 0 ? node.left : node.right;
+            }
+        } catch (ClassCastException e) {
+            return null;
+        }
+        return null;
+    }
+
+    // --- AVL maintenance ---
+
+    private Node<E> add(Node<E> node, E element, int occurrences) {
+        if (node == null) {
+            previousCount = 0;
+            return new Node<>(element, occurrences);
+        }
+        int cmp = element.compareTo(node.element);
+        if (cmp < 0) {
+            node.left = add(node.left, element, occurrences);
+        } else if (cmp > 0) {
+            node.right = add(node.right, element, occurrences);
+        } else {
+            previousCount = node.count;
+            long updated = (long) node.count + occurrences;
+            checkArgument(updated <= Integer.MAX_VALUE, "too many occurrences: %s", updated);
+            node.count = (int) updated;
+        }
+        return rebalance(node);
+    }
+
+    private Node<E> setCount(Node<E> node, E element, int count) {
+        if (node == null) {
+            previousCount = 0;
+            return count > 0 ? new Node<>(element, count) : null;
+        }
+        int cmp = element.compareTo(node.element);
+        if (cmp < 0) {
+            node.left = setCount(node.left, element, count);
+        } else if (cmp > 0) {
+            node.right = setCount(node.right, element, count);
+        } else {
+            previousCount = node.count;
+            if (count == 0) {
+                return removeNode(node);
+            }
+            node.count = count;
+        }
+        return rebalance(node);
+    }
+
+    private Node<E> removeNode(Node<E> node) {
+        if (node.left == null) return node.right;
+        if (node.right == null) return node.left;
+        Node<E> successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        successor.right = removeMin(node.right);
+        successor.left = node.left;
+        return rebalance(successor);
+    }
+
+    private Node<E> removeMin(Node<E> node) {
+        if (node.left == null) return node.right;
+        node.left = removeMin(node.left);
+        return rebalance(node);
+    }
+
+    private Node<E> rebalance(Node<E> node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node<?> node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.totalCount = node.count + totalCount(node.left) + totalCount(node.right);
+        node.distinctCount = 1 + distinctCount(node.left) + distinctCount(node.right);
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static long totalCount(Node<?> node) {
+        return node == null ? 0 : node.totalCount;
+    }
+
+    private static int distinctCount(Node<?> node) {
+        return node == null ? 0 : node.distinctCount;
+    }
+
+    // --- SortedMultiset view ---
+
+    /**
+     * Live {@link SortedMultiset} view over the whole tree.
+     */
+    public SortedMultiset<E> asSortedMultiset() {
+        SortedMultiset<E> result = view;
+        return result != null ? result : (view = new RangeView(Range.all(), false));
+    }
+
+    @Override
+    public String toString() {
+        return asSortedMultiset().toString();
+    }
+
+    private final class RangeView extends AbstractCollection<E> implements SortedMultiset<E> {
+        private final Range<E> range;
+        private final boolean descending;
+        private NavigableSet<E> elementSet;
+        private Set<Entry<E>> entrySet;
+
+        RangeView(Range<E> range, boolean descending) {
+            this.range = range;
+            this.descending = descending;
+        }
+
+        @SuppressWarnings("unchecked")
+        private boolean inRange(Object element) {
+            try {
+                return element != null && range.contains((E) element);
+            } catch (ClassCastException e) {
+                return false;
+            }
+        }
+
+        private Node<E> firstNode() {
+            return descending ? last(range) : first(range);
+        }
+
+        private Node<E> nextNode(E element) {
+            return descending ? lower(element, false, range) : higher(element, false, range);
+        }
+
+        private Entry<E> entry(Node<E> node) {
+            return node == null ? null : Multisets.immutableEntry(node.element, node.count);
+        }
+
+        @Override
+        public int size() {
+            return Ints.saturatedCast(countInRange(range));
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return firstNode() == null;
+        }
+
+        @Override
+        public int count(Object element) {
+            return inRange(element) ? OrderStatisticMultiset.this.count(element) : 0;
+        }
+
+        @Override
+        public int add(E element, int occurrences) {
+            checkArgument(range.contains(element), "%s is outside of %s", element, range);
+            return OrderStatisticMultiset.this.add(element, occurrences);
+        }
+
+        @Override
+        public boolean add(E element) {
+            add(element, 1);
+            return true;
+        }
+
+        @Override
+        public int remove(Object element, int occurrences) {
+            return inRange(element) ? OrderStatisticMultiset.this.remove(element, occurrences) : 0;
+        }
+
+        @Override
+        public boolean remove(Object element) {
+            return remove(element, 1) > 0;
+        }
+
+        @Override
+        public int setCount(E element, int count) {
+            checkArgument(count == 0 || range.contains(element), "%s is outside of %s", element, range);
+            return inRange(element) ? OrderStatisticMultiset.this.setCount(element, count) : 0;
+        }
+
+        @Override
+        public boolean setCount(E element, int oldCount, int newCount) {
+            checkArgument(oldCount >= 0 && newCount >= 0, "counts cannot be negative");
+            if (count(element) != oldCount) {
+                return false;
+            }
+            setCount(element, newCount);
+            return true;
+        }
+
+        @Override
+        public boolean contains(Object element) {
+            return count(element) > 0;
+        }
+
+        @Override
+        public boolean containsAll(Collection<?> elements) {
+            for (Object element : elements) {
+                if (!contains(element)) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public void clear() {
+            for (Node<E> node = firstNode(); node != null; node = firstNode()) {
+                OrderStatisticMultiset.this.setCount(node.element, 0);
+            }
+        }
+
+        @Override
+        public Comparator<? super E> comparator() {
+            return descending ? Ordering.natural().reverse() : Ordering.natural();
+        }
+
+        @Override
+        public Entry<E> firstEntry() {
+            return entry(firstNode());
+        }
+
+        @Override
+        public Entry<E> lastEntry() {
+            return entry(descending ? first(range) : last(range));
+        }
+
+        @Override
+        public Entry<E> pollFirstEntry() {
+            Entry<E> entry = firstEntry();
+            if (entry != null) {
+                OrderStatisticMultiset.this.setCount(entry.getElement(), 0);
+            }
+            return entry;
+        }
+
+        @Override
+        public Entry<E> pollLastEntry() {
+            Entry<E> entry = lastEntry();
+            if (entry != null) {
+                OrderStatisticMultiset.this.setCount(entry.getElement(), 0);
+            }
+            return entry;
+        }
+
+        @Override
+        public SortedMultiset<E> descendingMultiset() {
+            return new RangeView(range, !descending);
+        }
+
+        @Override
+        public SortedMultiset<E> headMultiset(E upperBound, BoundType boundType) {
+            return restrict(descending ? Range.downTo(upperBound, boundType) : Range.upTo(upperBound, boundType));
+        }
+
+        @Override
+        public SortedMultiset<E> tailMultiset(E lowerBound, BoundType boundType) {
+            return restrict(descending ? Range.upTo(lowerBound, boundType) : Range.downTo(lowerBound, boundType));
+        }
+
+        @Override
+        public SortedMultiset<E> subMultiset(E lowerBound, BoundType lowerBoundType,
+                                             E upperBound, BoundType upperBoundType) {
+            return restrict(descending
+                    ? Range.range(upperBound, upperBoundType, lowerBound, lowerBoundType)
+                    : Range.range(lowerBound, lowerBoundType, upperBound, upperBoundType));
+        }
+
+        private SortedMultiset<E> restrict(Range<E> bounds) {
+            if (range.isConnected(bounds)) {
+                return new RangeView(range.intersection(bounds), descending);
+            }
+            // disjoint: an empty range next to the requested bound
+            E point = bounds.hasLowerBound() ? bounds.lowerEndpoint() : bounds.upperEndpoint();
+            return new RangeView(Range.openClosed(point, point), descending);
+        }
+
+        @Override
+        public NavigableSet<E> elementSet() {
+            NavigableSet<E> result = elementSet;
+            return result != null ? result : (elementSet = new ElementSet(this));
+        }
+
+        @Override
+        public Set<Entry<E>> entrySet() {
+            Set<Entry<E>> result = entrySet;
+            return result != null ? result : (entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<E>> iterator() {
+                    return new NodeIterator<>(RangeView.this) {
+                        @Override
+                        Entry<E> output(Node<E> node) {
+                            return entry(node);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return distinctInRange(range);
+                }
+            });
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            // every element repeated count times
+            return new Iterator<>() {
+                private final Iterator<Entry<E>> entries = entrySet().iterator();
+                private E element;
+                private int remaining;
+                private boolean canRemove;
+
+                @Override
+                public boolean hasNext() {
+                    return remaining > 0 || entries.hasNext();
+                }
+
+                @Override
+                public E next() {
+                    if (remaining == 0) {
+                        Entry<E> entry = entries.next();
+                        element = entry.getElement();
+                        remaining = entry.getCount();
+                    }
+                    remaining--;
+                    canRemove = true;
+                    return element;
+                }
+
+                @Override
+                public void remove() {
+                    if (!canRemove) throw new IllegalStateException();
+                    OrderStatisticMultiset.this.remove(element, 1);
+                    canRemove = false;
+                }
+            };
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof Multiset)) return false;
+            Multiset<?> that = (Multiset<?>) obj;
+            if (that.size() != size() || that.entrySet().size() != entrySet().size()) return false;
+            for (Entry<?> entry : that.entrySet()) {
+                if (count(entry.getElement()) != entry.getCount()) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return entrySet().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return entrySet().toString();
+        }
+    }
+
+    /**
+     * Walks a view in its order by looking up the successor of the last returned element, so
+     * removing through the iterator (or the multiset) never invalidates it.
+     */
+    private abstract class NodeIterator<T> implements Iterator<T> {
+        private final RangeView view;
+        private Node<E> next;
+        private E lastReturned;
+
+        NodeIterator(RangeView view) {
+            this.view = view;
+            this.next = view.firstNode();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public T next() {
+            if (next == null) throw new NoSuchElementException();
+            Node<E> current = next;
+            lastReturned = current.element;
+            next = view.nextNode(current.element);
+            return output(current);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) throw new IllegalStateException();
+            setCount(lastReturned, 0);
+            lastReturned = null;
+        }
+
+        abstract T output(Node<E> node);
+    }
+
+    private final class ElementSet extends AbstractSet<E> implements NavigableSet<E> {
+        private final RangeView view;
+
+        ElementSet(RangeView view) {
+            this.view = view;
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new NodeIterator<>(view) {
+                @Override
+                E output(Node<E> node) {
+                    return node.element;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return distinctInRange(view.range);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return view.contains(o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return view.remove(o, Integer.MAX_VALUE) > 0;
+        }
+
+        @Override
+        public void clear() {
+            view.clear();
+        }
+
+        @Override
+        public Comparator<? super E> comparator() {
+            return view.comparator();
+        }
+
+        @Override
+        public E first() {
+            Multiset.Entry<E> entry = view.firstEntry();
+            if (entry == null) throw new NoSuchElementException();
+            return entry.getElement();
+        }
+
+        @Override
+        public E last() {
+            Multiset.Entry<E> entry = view.lastEntry();
+            if (entry == null) throw new NoSuchElementException();
+            return entry.getElement();
+        }
+
+        private E element(Node<E> node) {
+            return node == null ? null : node.element;
+        }
+
+        @Override
+        public E lower(E e) {
+            return element(view.descending ? OrderStatisticMultiset.this.higher(e, false, view.range) : OrderStatisticMultiset.this.lower(e, false, view.range));
+        }
+
+        @Override
+        public E floor(E e) {
+            return element(view.descending ? OrderStatisticMultiset.this.higher(e, true, view.range) : OrderStatisticMultiset.this.lower(e, true, view.range));
+        }
+
+        @Override
+        public E ceiling(E e) {
+            return element(view.descending ? OrderStatisticMultiset.this.lower(e, true, view.range) : OrderStatisticMultiset.this.higher(e, true, view.range));
+        }
+
+        @Override
+        public E higher(E e) {
+            return element(view.descending ? OrderStatisticMultiset.this.lower(e, false, view.range) : OrderStatisticMultiset.this.higher(e, false, view.range));
+        }
+
+        @Override
+        public E pollFirst() {
+            Multiset.Entry<E> entry = view.pollFirstEntry();
+            return entry == null ? null : entry.getElement();
+        }
+
+        @Override
+        public E pollLast() {
+            Multiset.Entry<E> entry = view.pollLastEntry();
+            return entry == null ? null : entry.getElement();
+        }
+
+        @Override
+        public NavigableSet<E> descendingSet() {
+            return view.descendingMultiset().elementSet();
+        }
+
+        @Override
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+
+        @Override
+        public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+            return view.subMultiset(fromElement, boundType(fromInclusive),
+                    toElement, boundType(toInclusive)).elementSet();
+        }
+
+        @Override
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return view.headMultiset(toElement, boundType(inclusive)).elementSet();
+        }
+
+        @Override
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return view.tailMultiset(fromElement, boundType(inclusive)).elementSet();
+        }
+
+        private BoundType boundType(boolean inclusive) {
+            return inclusive ? BoundType.CLOSED : BoundType.OPEN;
+        }
+
+        @Override
+        public NavigableSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+
+        @Override
+        public NavigableSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+
+        @Override
+        public NavigableSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.guava_demo.multiset;
+
+import com.google.common.collect.ImmutableMultiset;
+import com.google.common.primitives.Ints;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Concurrent counting multiset for multi-threaded aggregation (increment-only).
+ * <p>
+ * {@code ConcurrentHashMultiset} keeps one {@code AtomicInteger} per element and retries a CAS on
+ * it, so all threads incrementing a hot key fight over a single cache line. Here every element
+ * owns a {@link LongAdder}: uncontended it is a single base counter like an {@code AtomicLong},
+ * and only when CAS collisions actually happen does it grow striped cells (one per contending
+ * thread, up to the number of CPUs). Cold keys stay small, hot keys stop contending.
+ * <p>
+ * Reads are sums over the cells and are not atomic with respect to concurrent increments:
+ * {@link #count} and {@link #snapshot()} may miss increments that are in flight, but never
+ * report an increment that did not happen, and never lose one (a later read sees it). That is
+ * the usual guarantee for dashboards and periodic reporting; {@link #drain()} hands out counts
+ * since the previous drain without losing any.
+ * <p>
+ * Elements must be non-null. Decrements are not supported: a "remove up to n" cannot be made
+ * atomic on striped cells.
+ */
+public class StripedCountingMultiset<E> {
+
+    private final ConcurrentHashMap<E, LongAdder> counters;
+
+    public StripedCountingMultiset() {
+        this.counters = new ConcurrentHashMap<>();
+    }
+
+    public StripedCountingMultiset(int expectedDistinctElements) {
+        this.counters = new ConcurrentHashMap<>(expectedDistinctElements);
+    }
+
+    public static <E> StripedCountingMultiset<E> create() {
+        return new StripedCountingMultiset<>();
+    }
+
+    public void add(E element) {
+        counter(element).increment();
+    }
+
+    public void add(E element, long occurrences) {
+        checkArgument(occurrences >= 0, "occurrences cannot be negative: %s", occurrences);
+        if (occurrences > 0) {
+            counter(element).add(occurrences);
+        }
+    }
+
+    private LongAdder counter(E element) {
+        // plain get first: computeIfAbsent may lock the bin even when the key is present
+        LongAdder counter = counters.get(checkNotNull(element));
+        return counter != null ? counter : counters.computeIfAbsent(element, e -> new LongAdder());
+    }
+
+    public long count(Object element) {
+        LongAdder counter = element == null ? null : counters.get(element);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Total number of occurrences (sum of all counters, same consistency as {@link #count}).
+     */
+    public long size() {
+        long total = 0;
+        for (LongAdder counter : counters.values()) {
+            total += counter.sum();
+        }
+        return total;
+    }
+
+    public int distinctElements() {
+        return counters.size();
+    }
+
+    /**
+     * Point-in-time copy for reporting. Counts above {@code Integer.MAX_VALUE} saturate, as a
+     * {@code Multiset} cannot hold more.
+     */
+    public ImmutableMultiset<E> snapshot() {
+        ImmutableMultiset.Builder<E> builder = ImmutableMultiset.builder();
+        counters.forEach((element, counter) -> {
+            long count = counter.sum();
+            if (count > 0) {
+                builder.addCopies(element, Ints.saturatedCast(count));
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Returns the counts accumulated since the previous drain and resets them. Concurrent
+     * increments end up either in this result or in the next one, never in neither.
+     * Elements are kept (with a zero count), so re-incrementing them does not allocate.
+     */
+    public ImmutableMultiset<E> drain() {
+        ImmutableMultiset.Builder<E> builder = ImmutableMultiset.builder();
+        counters.forEach((element, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                builder.addCopies(element, Ints.saturatedCast(count));
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * Removes all elements. Increments racing with {@code clear()} may be dropped together with
+     * their element; use {@link #drain()} when no count may be lost.
+     */
+    public void clear() {
+        counters.clear();
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+}
@@ -0,0 +1,242 @@
+package org.example.guava_demo.query;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Multimaps;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Parsed {@code application/x-www-form-urlencoded} query string, e.g.
+ * {@code tag=java&menu=main&tag=backend}.
+ * <p>
+ * {@link #parse(String)} is a single pass over the chars that only records where each
+ * parameter's key and value start and end in the original string (four {@code int}s per
+ * parameter, in insertion order) plus whether they contain {@code %} or {@code +}. No
+ * substrings, no regex {@code split}, no entry nodes. Strings are created when asked for:
+ * <ul>
+ *     <li>{@link #key(int)} / {@link #value(int)} decode on access, and plain parts are just
+ *     a {@code substring};</li>
+ *     <li>{@link #getFirst(String)} / {@link #contains(String)} compare plain keys in place,
+ *     so looking up a few known parameters of a long tracking URL allocates only the values
+ *     that are returned;</li>
+ *     <li>{@link #asMultimap()} materializes an insertion-ordered {@link ListMultimap} the first
+ *     time it is called.</li>
+ * </ul>
+ * A leading {@code ?} is skipped and parsing stops at {@code #}. Empty segments ({@code a&&b})
+ * are ignored, a key without {@code =} has an empty value, and the value is everything after
+ * the first {@code =}. Decoding is lenient: {@code +} is a space, {@code %XX} sequences are
+ * decoded as UTF-8, and a malformed {@code %} is kept as is instead of failing the request.
+ */
+public final class QueryString {
+
+    private static final int KEY_START = 0;
+    private static final int KEY_END = 1;
+    private static final int VALUE_END = 2;
+    private static final int FLAGS = 3;
+    private static final int SLOTS = 4;
+
+    private static final int KEY_ENCODED = 1;
+    private static final int VALUE_ENCODED = 2;
+
+    private final String query;
+    private final int[] bounds;
+    private final int size;
+    private ListMultimap<String, String> multimap;
+
+    private QueryString(String query, int[] bounds, int size) {
+        this.query = query;
+        this.bounds = bounds;
+        this.size = size;
+    }
+
+    public static QueryString parse(String query) {
+        checkNotNull(query);
+        int length = query.length();
+        int position = length > 0 && query.charAt(0) == '?' ? 1 : 0;
+        int[] bounds = new int[SLOTS * 8];
+        int size = 0;
+
+        int start = position;
+        int keyEnd = -1;
+        int flags = 0;
+        for (; ; position++) {
+            char c = position < length ? query.charAt(position) : '&';
+            if (c == '&' || c == '#') {
+                if (position > start) {
+                    if (size * SLOTS == bounds.length) {
+                        bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                    }
+                    int slot = size++ * SLOTS;
+                    bounds[slot + KEY_START] = start;
+                    bounds[slot + KEY_END] = keyEnd < 0 ? position : keyEnd;
+                    bounds[slot + VALUE_END] = position;
+                    bounds[slot + FLAGS] = flags;
+                }
+                if (c == '#' || position >= length) {
+                    break;
+                }
+                start = position + 1;
+                keyEnd = -1;
+                flags = 0;
+            } else if (c == '=' && keyEnd < 0) {
+                keyEnd = position;
+            } else if (c == '%' || c == '+') {
+                flags |= keyEnd < 0 ? KEY_ENCODED : VALUE_ENCODED;
+            }
+        }
+        return new QueryString(query, bounds, size);
+    }
+
+    /**
+     * Number of parameters, counting repeated keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String key(int index) {
+        checkElementIndex(index, size);
+        int slot = index * SLOTS;
+        return part(bounds[slot + KEY_START], bounds[slot + KEY_END], (bounds[slot + FLAGS] & KEY_ENCODED) != 0);
+    }
+
+    public String value(int index) {
+        checkElementIndex(index, size);
+        int slot = index * SLOTS;
+        return part(valueStart(slot), bounds[slot + VALUE_END], (bounds[slot + FLAGS] & VALUE_ENCODED) != 0);
+    }
+
+    /**
+     * @return the value of the first parameter named {@code name}, or {@code null}
+     */
+    public String getFirst(String name) {
+        int index = indexOf(name, 0);
+        return index < 0 ? null : value(index);
+    }
+
+    /**
+     * @return all values of {@code name} in order, possibly empty
+     */
+    public List<String> getAll(String name) {
+        ImmutableList.Builder<String> values = ImmutableList.builder();
+        for (int index = indexOf(name, 0); index >= 0; index = indexOf(name, index + 1)) {
+            values.add(value(index));
+        }
+        return values.build();
+    }
+
+    public boolean contains(String name) {
+        return indexOf(name, 0) >= 0;
+    }
+
+    /**
+     * @return the index of the first parameter named {@code name} at or after {@code from}, or -1
+     */
+    public int indexOf(String name, int from) {
+        checkNotNull(name);
+        for (int index = Math.max(from, 0); index < size; index++) {
+            int slot = index * SLOTS;
+            int start = bounds[slot + KEY_START];
+            int end = bounds[slot + KEY_END];
+            if ((bounds[slot + FLAGS] & KEY_ENCODED) != 0) {
+                if (decode(query, start, end).equals(name)) return index;
+            } else if (end - start == name.length() && query.regionMatches(start, name, 0, name.length())) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int index = 0; index < size; index++) {
+            action.accept(key(index), value(index));
+        }
+    }
+
+    /**
+     * Unmodifiable multimap of the decoded parameters; {@code entries()} keeps the order of the
+     * query string. Built on the first call and cached.
+     */
+    public ListMultimap<String, String> asMultimap() {
+        ListMultimap<String, String> result = multimap;
+        if (result == null) {
+            LinkedListMultimap<String, String> params = LinkedListMultimap.create(size);
+            forEach(params::put);
+            result = multimap = Multimaps.unmodifiableListMultimap(params);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return asMultimap().toString();
+    }
+
+    private int valueStart(int slot) {
+        // KEY_END is the '=' unless the parameter has none
+        return Math.min(bounds[slot + KEY_END] + 1, bounds[slot + VALUE_END]);
+    }
+
+    private String part(int start, int end, boolean encoded) {
+        return encoded ? decode(query, start, end) : query.substring(start, end);
+    }
+
+    static String decode(String s, int start, int end) {
+        // worst case: every char is a non-ASCII BMP char taking 3 UTF-8 bytes
+        byte[] bytes = new byte[(end - start) * 3];
+        int length = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            int escaped = c == '%' ? hex(s, i + 1, end) : -1;
+            if (c == '+') {
+                bytes[length++] = ' ';
+            } else if (escaped >= 0) {
+                bytes[length++] = (byte) escaped;
+                i += 2;
+            } else if (c < 0x80) {
+                bytes[length++] = (byte) c;
+            } else {
+                // raw non-ASCII in the query: re-encode so it survives the UTF-8 round trip
+                int next = Character.isHighSurrogate(c) && i + 1 < end ? i + 2 : i + 1;
+                byte[] encoded = s.substring(i, next).getBytes(StandardCharsets.UTF_8);
+                System.arraycopy(encoded, 0, bytes, length, encoded.length);
+                length += encoded.length;
+                i = next - 1;
+            }
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the byte value of the two hex digits at {@code index}, or -1 if they are not both
+     * there
+     */
+    private static int hex(String s, int index, int end) {
+        if (index + 1 >= end) return -1;
+        int high = hexDigit(s.charAt(index));
+        int low = hexDigit(s.charAt(index + 1));
+        return high < 0 || low < 0 ? -1 : (high << 4) | low;
+    }
+
+    /**
+     * ASCII only: {@code Character.digit} would also accept e.g. fullwidth or Arabic-Indic digits.
+     */
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') return c - '0';
+        if (c >= 'a' && c <= 'f') return c - 'a' + 10;
+        if (c >= 'A' && c <= 'F') return c - 'A' + 10;
+        return -1;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.guava_demo.query;
+
+import com.google.common.collect.LinkedListMultimap;
+import com.google.common.collect.Multimap;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+
+/**
+ * Reading a few parameters from tracking query strings: {@code split} + {@link LinkedListMultimap}
+ * (the old {@code GuavaTester.parseParams}) vs {@link QueryString}, read in place or copied into
+ * a multimap (what {@code parseParams} still returns).
+ * <p>
+ * Rough numbers, not a JMH run: reports time and bytes allocated per query string (from
+ * {@code com.sun.management.ThreadMXBean}), after a warm-up. Argument: iterations.
+ */
+public class QueryStringBenchmark {
+
+    private static final String[] QUERIES = {
+            "utm_source=newsletter&utm_medium=email&utm_campaign=spring_sale&utm_content=header+banner&ref=home",
+            "?q=java%20multimap&page=2&lang=en&tag=java&tag=backend&sid=8f14e45fceea167a5a36dedd4bea2543",
+            "utm_source=google&utm_medium=cpc&utm_term=guava+cache&gclid=EAIaIQobChMI&utm_campaign=dev_tools",
+    };
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            measure("split + LinkedListMultimap", iterations, query -> {
+                Multimap<String, String> params = LinkedListMultimap.create();
+                for (String pair : query.split("&")) {
+                    String[] parts = pair.split("=");
+                    params.put(parts[0], parts.length > 1 ? parts[1] : "");
+                }
+                return length(params.get("utm_source").stream().findFirst().orElse(null))
+                        + params.get("tag").size();
+            });
+            measure("QueryString", iterations, query -> {
+                QueryString params = QueryString.parse(query);
+                return length(params.getFirst("utm_source")) + params.getAll("tag").size();
+            });
+            measure("QueryString.asMultimap", iterations, query -> {
+                Multimap<String, String> params = QueryString.parse(query).asMultimap();
+                return length(params.get("utm_source").stream().findFirst().orElse(null))
+                        + params.get("tag").size();
+            });
+        }
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static void measure(String name, int iterations, ToIntFunction<String> parse) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < iterations; i++) {
+            checksum += parse.applyAsInt(QUERIES[i % QUERIES.length]);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        System.out.printf("%-28s %6.0f ns/query %6d bytes/query (checksum %d)%n",
+                name, (double) elapsed / iterations, allocated / iterations, checksum);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.guava_demo.rangeset;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * An integral type seen as a sub-range of {@code long}: boxing in and out, and conversion of
+ * Guava {@link Range}s (any bound types) to closed {@code [low..high]} form.
+ */
+final class LongDomain<C extends Comparable<? super C>> {
+
+    static final LongDomain<Integer> INTEGERS =
+            new LongDomain<>(Integer.MIN_VALUE, Integer.MAX_VALUE, value -> (int) value, Integer::longValue);
+    static final LongDomain<Long> LONGS =
+            new LongDomain<>(Long.MIN_VALUE, Long.MAX_VALUE, Long::valueOf, Long::longValue);
+
+    final long min;
+    final long max;
+    private final LongFunction<C> box;
+    private final ToLongFunction<C> unbox;
+
+    private LongDomain(long min, long max, LongFunction<C> box, ToLongFunction<C> unbox) {
+        this.min = min;
+        this.max = max;
+        this.box = box;
+        this.unbox = unbox;
+    }
+
+    C box(long value) {
+        return box.apply(value);
+    }
+
+    long unbox(C value) {
+        return unbox.applyAsLong(value);
+    }
+
+    Range<C> closed(long low, long high) {
+        return Range.closed(box(low), box(high));
+    }
+
+    /**
+     * @return the lowest value of {@code range}; only meaningful if it is not {@link #isEmpty}
+     */
+    long low(Range<C> range) {
+        if (!range.hasLowerBound()) return min;
+        long low = unbox(range.lowerEndpoint());
+        return range.lowerBoundType() == BoundType.OPEN && low != max ? low + 1 : low;
+    }
+
+    long high(Range<C> range) {
+        if (!range.hasUpperBound()) return max;
+        long high = unbox(range.upperEndpoint());
+        return range.upperBoundType() == BoundType.OPEN && high != min ? high - 1 : high;
+    }
+
+    /**
+     * @return whether {@code range} contains no value of this domain, e.g. {@code (5..6)}
+     */
+    boolean isEmpty(Range<C> range) {
+        if (range.hasLowerBound() && range.lowerBoundType() == BoundType.OPEN
+                && unbox(range.lowerEndpoint()) == max) {
+            return true;
+        }
+        if (range.hasUpperBound() && range.upperBoundType() == BoundType.OPEN
+                && unbox(range.upperEndpoint()) == min) {
+            return true;
+        }
+        return low(range) > high(range);
+    }
+}
@@ -0,0 +1,394 @@
+package org.example.guava_demo.rangeset;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * Immutable set of {@code long}s (and, by widening, {@code int}s) stored as sorted, disjoint,
+ * closed ranges in two primitive arrays.
+ * <p>
+ * {@code TreeRangeSet}/{@code ImmutableRangeSet} keep every endpoint in a {@code Cut} inside a
+ * {@code Range} object and compare boxed values through {@code Comparable}. Here range
+ * {@code i} is just {@code [lows[i], highs[i]]}, and {@link #contains(long)} is a binary search
+ * over {@code lows} whose loop body is a conditional move rather than a branch, followed by one
+ * comparison against {@code highs}. No allocation, no boxing.
+ * <p>
+ * Since the values are integers, ranges are canonical: overlapping <em>and adjacent</em> ranges
+ * are coalesced ({@code [1..2]} and {@code [3..4]} are stored as {@code [1..4]}), so two sets are
+ * equal exactly when they contain the same numbers. {@link #union}, {@link #intersection},
+ * {@link #difference} and {@link #complement} are linear merges over the arrays.
+ * <p>
+ * {@link #asIntRangeSet()} / {@link #asLongRangeSet()} expose a read-only Guava
+ * {@link RangeSet} view for code that expects one.
+ */
+public final class LongRangeSet {
+
+    private static final LongRangeSet EMPTY = new LongRangeSet(new long[0], new long[0]);
+    private static final LongRangeSet ALL = new LongRangeSet(new long[]{Long.MIN_VALUE}, new long[]{Long.MAX_VALUE});
+
+    private final long[] lows;
+    private final long[] highs;
+
+    LongRangeSet(long[] lows, long[] highs) {
+        this.lows = lows;
+        this.highs = highs;
+    }
+
+    public static LongRangeSet of() {
+        return EMPTY;
+    }
+
+    public static LongRangeSet all() {
+        return ALL;
+    }
+
+    /**
+     * @return the set {@code [low..high]}
+     */
+    public static LongRangeSet closed(long low, long high) {
+        checkArgument(low <= high, "invalid range [%s..%s]", low, high);
+        return new LongRangeSet(new long[]{low}, new long[]{high});
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Copies a Guava range set of {@code Integer}s, {@code Long}s (or other integral numbers);
+     * open bounds are canonicalized and unbounded ends become {@code Long.MIN_VALUE}/{@code MAX_VALUE}.
+     */
+    public static <C extends Number & Comparable<? super C>> LongRangeSet copyOf(RangeSet<C> rangeSet) {
+        Builder builder = builder();
+        for (Range<C> range : rangeSet.asRanges()) {
+            long low = Long.MIN_VALUE;
+            long high = Long.MAX_VALUE;
+            if (range.hasLowerBound()) {
+                low = range.lowerEndpoint().longValue();
+                if (range.lowerBoundType() == BoundType.OPEN) {
+                    if (low == Long.MAX_VALUE) continue;
+                    low++;
+                }
+            }
+            if (range.hasUpperBound()) {
+                high = range.upperEndpoint().longValue();
+                if (range.upperBoundType() == BoundType.OPEN) {
+                    if (high == Long.MIN_VALUE) continue;
+                    high--;
+                }
+            }
+            if (low <= high) {
+                builder.add(low, high);
+            }
+        }
+        return builder.build();
+    }
+
+    // --- queries ---
+
+    public boolean contains(long value) {
+        int index = floorIndex(value);
+        return index >= 0 && value <= highs[index];
+    }
+
+    /**
+     * @return the index of the range containing {@code value}, or -1
+     */
+    public int indexOf(long value) {
+        int index = floorIndex(value);
+        return index >= 0 && value <= highs[index] ? index : -1;
+    }
+
+    /**
+     * @return whether {@code [low..high]} lies entirely inside one range of this set
+     */
+    public boolean encloses(long low, long high) {
+        checkArgument(low <= high, "invalid range [%s..%s]", low, high);
+        int index = floorIndex(low);
+        return index >= 0 && high <= highs[index];
+    }
+
+    /**
+     * @return whether any value of {@code [low..high]} is in this set
+     */
+    public boolean intersects(long low, long high) {
+        checkArgument(low <= high, "invalid range [%s..%s]", low, high);
+        int index = floorIndex(high);
+        return index >= 0 && highs[index] >= low;
+    }
+
+    /**
+     * Index of the last range whose low endpoint is {@code <= value}, or -1. The loop always runs
+     * {@code log2(n)} times and only moves {@code base}, which the JIT turns into a cmov.
+     */
+    int floorIndex(long value) {
+        long[] lows = this.lows;
+        int n = lows.length;
+        if (n == 0 || value < lows[0]) {
+            return -1;
+        }
+        int base = 0;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = lows[base + half] <= value ? base + half : base;
+            n -= half;
+        }
+        return base;
+    }
+
+    /**
+     * Number of (coalesced) ranges.
+     */
+    public int rangeCount() {
+        return lows.length;
+    }
+
+    public long lowerEndpoint(int index) {
+        checkElementIndex(index, lows.length);
+        return lows[index];
+    }
+
+    public long upperEndpoint(int index) {
+        checkElementIndex(index, highs.length);
+        return highs[index];
+    }
+
+    public boolean isEmpty() {
+        return lows.length == 0;
+    }
+
+    /**
+     * Number of values in the set, saturated at {@code Long.MAX_VALUE}.
+     */
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < lows.length; i++) {
+            long count = highs[i] - lows[i] + 1;
+            if (count <= 0 || total + count < 0) {
+                return Long.MAX_VALUE; // the range or the total overflowed
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    // --- set algebra ---
+
+    public LongRangeSet complement() {
+        int n = lows.length;
+        if (n == 0) return ALL;
+        boolean head = lows[0] != Long.MIN_VALUE;
+        boolean tail = highs[n - 1] != Long.MAX_VALUE;
+        int count = n - 1 + (head ? 1 : 0) + (tail ? 1 : 0);
+        long[] newLows = new long[count];
+        long[] newHighs = new long[count];
+        int k = 0;
+        if (head) {
+            newLows[k] = Long.MIN_VALUE;
+            newHighs[k++] = lows[0] - 1;
+        }
+        for (int i = 0; i + 1 < n; i++) {
+            newLows[k] = highs[i] + 1;
+            newHighs[k++] = lows[i + 1] - 1;
+        }
+        if (tail) {
+            newLows[k] = highs[n - 1] + 1;
+            newHighs[k] = Long.MAX_VALUE;
+        }
+        return new LongRangeSet(newLows, newHighs);
+    }
+
+    public LongRangeSet union(LongRangeSet other) {
+        if (other.isEmpty()) return this;
+        if (isEmpty()) return other;
+        long[] newLows = new long[lows.length + other.lows.length];
+        long[] newHighs = new long[newLows.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < lows.length || j < other.lows.length) {
+            // take the range that starts first, then extend or append
+            long low;
+            long high;
+            if (j >= other.lows.length || (i < lows.length && lows[i] <= other.lows[j])) {
+                low = lows[i];
+                high = highs[i++];
+            } else {
+                low = other.lows[j];
+                high = other.highs[j++];
+            }
+            if (count > 0 && touches(newHighs[count - 1], low)) {
+                newHighs[count - 1] = Math.max(newHighs[count - 1], high);
+            } else {
+                newLows[count] = low;
+                newHighs[count++] = high;
+            }
+        }
+        return trimmed(newLows, newHighs, count);
+    }
+
+    public LongRangeSet intersection(LongRangeSet other) {
+        if (isEmpty() || other.isEmpty()) return EMPTY;
+        long[] newLows = new long[lows.length + other.lows.length];
+        long[] newHighs = new long[newLows.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < lows.length && j < other.lows.length) {
+            long low = Math.max(lows[i], other.lows[j]);
+            long high = Math.min(highs[i], other.highs[j]);
+            if (low <= high) {
+                newLows[count] = low;
+                newHighs[count++] = high;
+            }
+            // advance whichever range ends first; it cannot overlap anything further
+            if (highs[i] < other.highs[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return trimmed(newLows, newHighs, count);
+    }
+
+    public LongRangeSet difference(LongRangeSet other) {
+        return other.isEmpty() ? this : intersection(other.complement());
+    }
+
+    /**
+     * @return whether a range ending at {@code high} and one starting at {@code low} overlap or
+     * are adjacent, i.e. belong in one coalesced range
+     */
+    static boolean touches(long high, long low) {
+        return low <= high || low - 1 == high;
+    }
+
+    private static LongRangeSet trimmed(long[] lows, long[] highs, int count) {
+        if (count == 0) return EMPTY;
+        return count == lows.length
+                ? new LongRangeSet(lows, highs)
+                : new LongRangeSet(Arrays.copyOf(lows, count), Arrays.copyOf(highs, count));
+    }
+
+    // --- views ---
+
+    /**
+     * Read-only {@code RangeSet<Long>} view; ranges are reported in closed form.
+     */
+    public RangeSet<Long> asLongRangeSet() {
+        return new RangeSetView<>(this, LongDomain.LONGS);
+    }
+
+    /**
+     * Read-only {@code RangeSet<Integer>} view of the part of this set that lies in the
+     * {@code int} domain; ranges are reported in closed form.
+     */
+    public RangeSet<Integer> asIntRangeSet() {
+        return new RangeSetView<>(intersection(closed(Integer.MIN_VALUE, Integer.MAX_VALUE)), LongDomain.INTEGERS);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof LongRangeSet)) return false;
+        LongRangeSet that = (LongRangeSet) obj;
+        return Arrays.equals(lows, that.lows) && Arrays.equals(highs, that.highs);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(lows) + Arrays.hashCode(highs);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < lows.length; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append('[').append(lows[i]).append("..").append(highs[i]).append(']');
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Collects ranges in any order, overlapping or not; {@link #build()} sorts the endpoints in
+     * parallel and coalesces them in one linear pass, so loading millions of ranges does not go
+     * through per-range tree inserts.
+     */
+    public static final class Builder {
+        private long[] lows = new long[16];
+        private long[] highs = new long[16];
+        private int count;
+
+        Builder() {
+        }
+
+        public Builder add(long low, long high) {
+            checkArgument(low <= high, "invalid range [%s..%s]", low, high);
+            if (count == lows.length) {
+                lows = Arrays.copyOf(lows, count * 2);
+                highs = Arrays.copyOf(highs, count * 2);
+            }
+            lows[count] = low;
+            highs[count++] = high;
+            return this;
+        }
+
+        public Builder add(long value) {
+            return add(value, value);
+        }
+
+        public Builder addAll(LongRangeSet set) {
+            for (int i = 0; i < set.lows.length; i++) {
+                add(set.lows[i], set.highs[i]);
+            }
+            return this;
+        }
+
+        public LongRangeSet build() {
+            long[] sortedLows = Arrays.copyOf(lows, count);
+            long[] sortedHighs = Arrays.copyOf(highs, count);
+            // fork-join sort for large batches (parallelSort stays sequential below 8192 elements)
+            Arrays.parallelSort(sortedLows);
+            Arrays.parallelSort(sortedHighs);
+            return coalesce(sortedLows, sortedHighs);
+        }
+    }
+
+    /**
+     * Union of ranges given as independently sorted low and high endpoints. The union does not
+     * depend on which low belonged to which high: sweeping both arrays and counting open ranges,
+     * a coalesced range starts when the depth leaves 0 and ends when it returns to 0 (a range
+     * starting right after one ends, {@code low == high + 1}, keeps it open). That is why the
+     * endpoints can be sorted as two primitive arrays instead of as range objects.
+     */
+    static LongRangeSet coalesce(long[] sortedLows, long[] sortedHighs) {
+        int n = sortedLows.length;
+        long[] newLows = new long[n];
+        long[] newHighs = new long[n];
+        int count = 0;
+        int depth = 0;
+        int i = 0;
+        int j = 0;
+        while (j < n) {
+            if (i < n && touches(sortedHighs[j], sortedLows[i])) {
+                if (depth++ == 0) {
+                    newLows[count] = sortedLows[i];
+                }
+                i++;
+            } else {
+                if (--depth == 0) {
+                    newHighs[count++] = sortedHighs[j];
+                }
+                j++;
+            }
+        }
+        return trimmed(newLows, newHighs, count);
+    }
+}
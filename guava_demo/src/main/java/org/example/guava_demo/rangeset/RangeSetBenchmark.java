@@ -0,0 +1,59 @@
+package org.example.guava_demo.rangeset;
+
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+
+import java.util.Random;
+import java.util.function.IntPredicate;
+
+/**
+ * IP-range membership checks: {@link TreeRangeSet} vs {@link ImmutableRangeSet} vs
+ * {@link LongRangeSet} (directly and through its {@code RangeSet<Integer>} view).
+ * <p>
+ * Rough numbers, not a JMH run: three rounds, the first one is warm-up.
+ * Arguments: ranges, lookups per round.
+ */
+public class RangeSetBenchmark {
+
+    public static void main(String[] args) {
+        int rangeCount = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+
+        // disjoint blocks spread over the int space, like allow-listed IPv4 networks
+        Random random = new Random(42);
+        TreeRangeSet<Integer> tree = TreeRangeSet.create();
+        LongRangeSet.Builder builder = LongRangeSet.builder();
+        long step = (1L << 32) / rangeCount;
+        for (int i = 0; i < rangeCount; i++) {
+            int low = (int) (Integer.MIN_VALUE + i * step);
+            int high = low + random.nextInt((int) Math.min(step / 2, Integer.MAX_VALUE));
+            tree.add(Range.closed(low, high));
+            builder.add(low, high);
+        }
+        ImmutableRangeSet<Integer> immutable = ImmutableRangeSet.copyOf(tree);
+        LongRangeSet primitive = builder.build();
+        RangeSet<Integer> view = primitive.asIntRangeSet();
+
+        int[] values = random.ints(lookups).toArray();
+        System.out.printf("%,d ranges, %,d lookups%n", primitive.rangeCount(), lookups);
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d%n", round);
+            measure("TreeRangeSet", values, tree::contains);
+            measure("ImmutableRangeSet", values, immutable::contains);
+            measure("LongRangeSet", values, primitive::contains);
+            measure("LongRangeSet view", values, view::contains);
+        }
+    }
+
+    private static void measure(String name, int[] values, IntPredicate contains) {
+        long start = System.nanoTime();
+        int hits = 0;
+        for (int value : values) {
+            if (contains.test(value)) hits++;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("  %-20s %6.1f ns/lookup (%d hits)%n", name, (double) elapsed / values.length, hits);
+    }
+}
@@ -0,0 +1,121 @@
+package org.example.guava_demo.rangeset;
+
+import com.google.common.collect.BoundType;
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Builds an {@link ImmutableRangeSet} from a large, unsorted batch of possibly overlapping
+ * ranges.
+ * <p>
+ * Adding ranges one by one to a {@code TreeRangeSet} costs a tree lookup, node surgery and
+ * merging per range, and {@code ImmutableRangeSet.Builder} rejects overlapping input. Here the
+ * batch is collected into an array, sorted by lower bound with {@link Arrays#parallelSort}
+ * (fork-join over the common pool), and coalesced in one linear pass:
+ * ranges are merged exactly when {@code TreeRangeSet} would merge them, i.e. when they are
+ * {@linkplain Range#isConnected connected}. So {@code [1..3]} and {@code [3..5]} become
+ * {@code [1..5]}, while {@code [1..2]} and {@code [3..4]} stay apart, and empty ranges are
+ * dropped. Each output range is allocated once, whatever the number of inputs merged into it.
+ * <p>
+ * For {@code int}/{@code long} values, {@link LongRangeSet#builder()} does the same on
+ * primitive arrays. It also merges adjacent integers such as {@code [1..2]} and {@code [3..4]}.
+ */
+public final class RangeSetBulkBuilder<C extends Comparable<?>> {
+
+    @SuppressWarnings("rawtypes")
+    private static final Comparator<Range> BY_LOWER_BOUND = RangeSetBulkBuilder::compareLower;
+
+    private Range<C>[] ranges;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    private RangeSetBulkBuilder(int expectedRanges) {
+        this.ranges = (Range<C>[]) new Range<?>[Math.max(expectedRanges, 16)];
+    }
+
+    public static <C extends Comparable<?>> RangeSetBulkBuilder<C> create() {
+        return new RangeSetBulkBuilder<>(16);
+    }
+
+    public static <C extends Comparable<?>> RangeSetBulkBuilder<C> create(int expectedRanges) {
+        checkArgument(expectedRanges >= 0, "expectedRanges cannot be negative: %s", expectedRanges);
+        return new RangeSetBulkBuilder<>(expectedRanges);
+    }
+
+    public RangeSetBulkBuilder<C> add(Range<C> range) {
+        checkNotNull(range);
+        if (size == ranges.length) {
+            ranges = Arrays.copyOf(ranges, size + (size >> 1));
+        }
+        ranges[size++] = range;
+        return this;
+    }
+
+    public RangeSetBulkBuilder<C> addAll(Iterable<Range<C>> ranges) {
+        for (Range<C> range : ranges) {
+            add(range);
+        }
+        return this;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ImmutableRangeSet<C> build() {
+        Range[] sorted = Arrays.copyOf(ranges, size);
+        Arrays.parallelSort(sorted, BY_LOWER_BOUND);
+
+        ImmutableRangeSet.Builder builder = ImmutableRangeSet.builder();
+        Range first = null; // lowest lower bound of the current group
+        Range last = null;  // highest upper bound of the current group
+        for (Range range : sorted) {
+            if (range.isEmpty()) {
+                continue;
+            }
+            if (first == null) {
+                first = last = range;
+            } else if (range.isConnected(last)) {
+                if (compareUpper(range, last) > 0) {
+                    last = range;
+                }
+            } else {
+                builder.add(first == last ? first : first.span(last));
+                first = last = range;
+            }
+        }
+        if (first != null) {
+            builder.add(first == last ? first : first.span(last));
+        }
+        // the ranges handed over are already coalesced
+        return builder.build();
+    }
+
+    /**
+     * Orders lower bounds like Guava's cuts: unbounded first, then by endpoint, and for the same
+     * endpoint a closed bound before an open one.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareLower(Range a, Range b) {
+        if (!a.hasLowerBound()) return b.hasLowerBound() ? -1 : 0;
+        if (!b.hasLowerBound()) return 1;
+        int cmp = a.lowerEndpoint().compareTo(b.lowerEndpoint());
+        if (cmp != 0) return cmp;
+        return Boolean.compare(a.lowerBoundType() == BoundType.OPEN, b.lowerBoundType() == BoundType.OPEN);
+    }
+
+    /**
+     * Orders upper bounds: by endpoint, an open bound before a closed one, unbounded last.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareUpper(Range a, Range b) {
+        if (!a.hasUpperBound()) return b.hasUpperBound() ? 1 : 0;
+        if (!b.hasUpperBound()) return -1;
+        int cmp = a.upperEndpoint().compareTo(b.upperEndpoint());
+        if (cmp != 0) return cmp;
+        return Boolean.compare(a.upperBoundType() == BoundType.CLOSED, b.upperBoundType() == BoundType.CLOSED);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.guava_demo.rangeset;
+
+import com.google.common.collect.ImmutableRangeSet;
+import com.google.common.collect.Range;
+import com.google.common.collect.TreeRangeSet;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Startup load of an unsorted batch of overlapping ranges: one-by-one {@link TreeRangeSet}
+ * adds (then {@code ImmutableRangeSet.copyOf}) vs {@link RangeSetBulkBuilder} vs
+ * {@link LongRangeSet#builder()}.
+ * <p>
+ * Rough numbers, not a JMH run: three rounds, the first one is warm-up.
+ * Arguments: ranges, value space.
+ */
+public class RangeSetLoadBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int space = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000_000;
+
+        Random random = new Random(42);
+        int[] lows = new int[count];
+        int[] highs = new int[count];
+        @SuppressWarnings("unchecked")
+        Range<Integer>[] ranges = (Range<Integer>[]) new Range<?>[count];
+        for (int i = 0; i < count; i++) {
+            lows[i] = random.nextInt(space);
+            highs[i] = lows[i] + random.nextInt(space / count * 2 + 1);
+            ranges[i] = Range.closed(lows[i], highs[i]);
+        }
+        System.out.printf("%,d ranges over [0, %,d) (%d cores)%n", count, space, Runtime.getRuntime().availableProcessors());
+
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d%n", round);
+            measure("TreeRangeSet.add", () -> {
+                TreeRangeSet<Integer> tree = TreeRangeSet.create();
+                for (Range<Integer> range : ranges) {
+                    tree.add(range);
+                }
+                return ImmutableRangeSet.copyOf(tree).asRanges().size();
+            });
+            measure("RangeSetBulkBuilder", () -> {
+                RangeSetBulkBuilder<Integer> builder = RangeSetBulkBuilder.create(count);
+                for (Range<Integer> range : ranges) {
+                    builder.add(range);
+                }
+                return builder.build().asRanges().size();
+            });
+            measure("LongRangeSet.Builder", () -> {
+                LongRangeSet.Builder builder = LongRangeSet.builder();
+                for (int i = 0; i < count; i++) {
+                    builder.add(lows[i], highs[i]);
+                }
+                return builder.build().rangeCount();
+            });
+        }
+    }
+
+    private static void measure(String name, Supplier<Integer> load) {
+        long start = System.nanoTime();
+        int result = load.get();
+        System.out.printf("  %-22s %8.1f ms (%,d ranges)%n", name, (System.nanoTime() - start) / 1e6, result);
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.guava_demo.rangeset;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only {@link RangeSet} over a {@link LongRangeSet} whose ranges all lie in
+ * {@code domain}. Lookups unbox and go straight to the primitive arrays; ranges are only boxed
+ * into {@link Range} objects when {@link #asRanges()} and friends are iterated.
+ * <p>
+ * Query ranges are interpreted as sets of integers, so {@code (5..6)} is empty here, while
+ * Guava's own range sets treat it as a non-empty range.
+ */
+final class RangeSetView<C extends Comparable<? super C>> implements RangeSet<C> {
+
+    private final LongRangeSet set;
+    private final LongDomain<C> domain;
+
+    RangeSetView(LongRangeSet set, LongDomain<C> domain) {
+        this.set = set;
+        this.domain = domain;
+    }
+
+    @Override
+    public boolean contains(C value) {
+        return set.contains(domain.unbox(value));
+    }
+
+    @Override
+    public Range<C> rangeContaining(C value) {
+        int index = set.indexOf(domain.unbox(value));
+        return index < 0 ? null : range(index);
+    }
+
+    @Override
+    public boolean intersects(Range<C> range) {
+        return !domain.isEmpty(range) && set.intersects(domain.low(range), domain.high(range));
+    }
+
+    @Override
+    public boolean encloses(Range<C> range) {
+        if (domain.isEmpty(range)) {
+            // an empty range is enclosed by a range containing its endpoint, as in Guava
+            C endpoint = range.hasLowerBound() ? range.lowerEndpoint() : range.upperEndpoint();
+            return set.contains(domain.unbox(endpoint));
+        }
+        return set.encloses(domain.low(range), domain.high(range));
+    }
+
+    @Override
+    public boolean enclosesAll(RangeSet<C> other) {
+        return enclosesAll(other.asRanges());
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return set.isEmpty();
+    }
+
+    @Override
+    public Range<C> span() {
+        if (set.isEmpty()) throw new NoSuchElementException();
+        return domain.closed(set.lowerEndpoint(0), set.upperEndpoint(set.rangeCount() - 1));
+    }
+
+    private Range<C> range(int index) {
+        return domain.closed(set.lowerEndpoint(index), set.upperEndpoint(index));
+    }
+
+    @Override
+    public Set<Range<C>> asRanges() {
+        return ranges(false);
+    }
+
+    @Override
+    public Set<Range<C>> asDescendingSetOfRanges() {
+        return ranges(true);
+    }
+
+    private Set<Range<C>> ranges(boolean descending) {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Range<C>> iterator() {
+                return new Iterator<>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < set.rangeCount();
+                    }
+
+                    @Override
+                    public Range<C> next() {
+                        if (!hasNext()) throw new NoSuchElementException();
+                        int index = next++;
+                        return range(descending ? set.rangeCount() - 1 - index : index);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return set.rangeCount();
+            }
+        };
+    }
+
+    @Override
+    public RangeSet<C> complement() {
+        return new RangeSetView<>(set.complement().intersection(LongRangeSet.closed(domain.min, domain.max)), domain);
+    }
+
+    @Override
+    public RangeSet<C> subRangeSet(Range<C> view) {
+        if (domain.isEmpty(view)) {
+            return new RangeSetView<>(LongRangeSet.of(), domain);
+        }
+        return new RangeSetView<>(set.intersection(LongRangeSet.closed(domain.low(view), domain.high(view))), domain);
+    }
+
+    // --- immutable ---
+
+    @Override
+    public void add(Range<C> range) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void remove(Range<C> range) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void addAll(RangeSet<C> other) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void removeAll(RangeSet<C> other) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof RangeSet && asRanges().equals(((RangeSet<?>) obj).asRanges()));
+    }
+
+    @Override
+    public int hashCode() {
+        return asRanges().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return asRanges().toString();
+    }
+}
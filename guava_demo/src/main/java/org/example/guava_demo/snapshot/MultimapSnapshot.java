@@ -0,0 +1,132 @@
+package org.example.guava_demo.snapshot;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimap;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable list multimap that is cheap to change by key.
+ * <p>
+ * Adding one value to an {@code ImmutableListMultimap} means copying every entry into a new
+ * builder. Here each key's values are an {@link ImmutableList} held in a
+ * {@link PersistentHashMap}, so {@link #put} copies only that key's list and the trie path above
+ * it; every other list is shared with the previous snapshot. Meant to live in a
+ * {@link SnapshotHolder}.
+ * <p>
+ * {@link #asImmutableMultimap()} is built on first use and cached, for callers that need the
+ * Guava type; its key order is hash order.
+ */
+public final class MultimapSnapshot<K, V> {
+
+    private static final MultimapSnapshot<Object, Object> EMPTY =
+            new MultimapSnapshot<>(PersistentHashMap.of(), 0);
+
+    private final PersistentHashMap<K, ImmutableList<V>> lists;
+    private final int size;
+    private volatile ImmutableListMultimap<K, V> multimap;
+
+    private MultimapSnapshot(PersistentHashMap<K, ImmutableList<V>> lists, int size) {
+        this.lists = lists;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> MultimapSnapshot<K, V> of() {
+        return (MultimapSnapshot<K, V>) EMPTY;
+    }
+
+    public static <K, V> MultimapSnapshot<K, V> copyOf(Multimap<? extends K, ? extends V> multimap) {
+        PersistentHashMap<K, ImmutableList<V>> lists = PersistentHashMap.of();
+        for (var entry : multimap.asMap().entrySet()) {
+            lists = lists.plus(entry.getKey(), ImmutableList.copyOf(entry.getValue()));
+        }
+        return new MultimapSnapshot<>(lists, multimap.size());
+    }
+
+    public ImmutableList<V> get(Object key) {
+        return lists.getOrDefault(key, ImmutableList.of());
+    }
+
+    public boolean containsKey(Object key) {
+        return lists.containsKey(key);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int keyCount() {
+        return lists.size();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public MultimapSnapshot<K, V> put(K key, V value) {
+        checkNotNull(value, "value");
+        ImmutableList<V> old = get(key);
+        ImmutableList<V> values = ImmutableList.<V>builderWithExpectedSize(old.size() + 1)
+                .addAll(old)
+                .add(value)
+                .build();
+        return new MultimapSnapshot<>(lists.plus(key, values), size + 1);
+    }
+
+    public MultimapSnapshot<K, V> putAll(K key, Iterable<? extends V> values) {
+        ImmutableList<V> old = get(key);
+        ImmutableList<V> added = ImmutableList.<V>builder().addAll(old).addAll(values).build();
+        if (added.size() == old.size()) {
+            return this;
+        }
+        return new MultimapSnapshot<>(lists.plus(key, added), size - old.size() + added.size());
+    }
+
+    public MultimapSnapshot<K, V> replaceValues(K key, Iterable<? extends V> values) {
+        ImmutableList<V> replacement = ImmutableList.copyOf(values);
+        if (replacement.isEmpty()) {
+            return removeAll(key);
+        }
+        int removed = get(key).size();
+        return new MultimapSnapshot<>(lists.plus(key, replacement), size - removed + replacement.size());
+    }
+
+    public MultimapSnapshot<K, V> remove(Object key, Object value) {
+        ImmutableList<V> old = get(key);
+        int index = old.indexOf(value);
+        if (index < 0) {
+            return this;
+        }
+        if (old.size() == 1) {
+            return new MultimapSnapshot<>(lists.minus(key), size - 1);
+        }
+        ImmutableList<V> values = ImmutableList.<V>builderWithExpectedSize(old.size() - 1)
+                .addAll(old.subList(0, index))
+                .addAll(old.subList(index + 1, old.size()))
+                .build();
+        @SuppressWarnings("unchecked") K k = (K) key;
+        return new MultimapSnapshot<>(lists.plus(k, values), size - 1);
+    }
+
+    public MultimapSnapshot<K, V> removeAll(Object key) {
+        ImmutableList<V> old = get(key);
+        return old.isEmpty() ? this : new MultimapSnapshot<>(lists.minus(key), size - old.size());
+    }
+
+    public ImmutableListMultimap<K, V> asImmutableMultimap() {
+        ImmutableListMultimap<K, V> result = multimap;
+        if (result == null) {
+            ImmutableListMultimap.Builder<K, V> builder = ImmutableListMultimap.builder();
+            lists.forEach(builder::putAll);
+            multimap = result = builder.build();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return lists.toString();
+    }
+}
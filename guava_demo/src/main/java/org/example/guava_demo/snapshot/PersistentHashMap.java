@@ -0,0 +1,377 @@
+package org.example.guava_demo.snapshot;
+
+import com.google.common.collect.ImmutableMap;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable hash map with structural sharing (a hash array mapped trie).
+ * <p>
+ * The hash is consumed 5 bits per level; each inner node keeps a 32-bit bitmap of the slots in
+ * use and an array of exactly that many children, so a map of a million entries is about four
+ * levels deep. {@link #plus} and {@link #minus} copy only the nodes on the path to the key
+ * (a handful of small arrays) and share everything else with the previous version, where
+ * {@code ImmutableMap} would have to be copied entirely.
+ * <p>
+ * Keys and values must be non-null. Iteration order is hash order.
+ */
+public final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> of() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+        PersistentHashMap<K, V> result = of();
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            result = result.plus(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        return key == null || root == null ? null : (V) root.find(hash(key), key, 0);
+    }
+
+    public V getOrDefault(Object key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return a map with {@code key → value}; this map if the mapping is already there
+     */
+    public PersistentHashMap<K, V> plus(K key, V value) {
+        checkNotNull(key, "key");
+        checkNotNull(value, "value");
+        int hash = hash(key);
+        if (root == null) {
+            return new PersistentHashMap<>(new Leaf(hash, key, value), 1);
+        }
+        boolean[] added = new boolean[1];
+        Node newRoot = root.put(hash, key, value, 0, added);
+        return newRoot == root ? this : new PersistentHashMap<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return a map without {@code key}; this map if it was not there
+     */
+    public PersistentHashMap<K, V> minus(Object key) {
+        if (key == null || root == null) {
+            return this;
+        }
+        Node newRoot = root.remove(hash(key), key, 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return newRoot == null ? of() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        if (root != null) {
+            root.forEach((BiConsumer<Object, Object>) action);
+        }
+    }
+
+    public ImmutableMap<K, V> toImmutableMap() {
+        ImmutableMap.Builder<K, V> builder = ImmutableMap.builderWithExpectedSize(size);
+        forEach(builder::put);
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof PersistentHashMap)) return false;
+        PersistentHashMap<?, ?> that = (PersistentHashMap<?, ?>) obj;
+        if (that.size != size) return false;
+        boolean[] equal = {true};
+        forEach((key, value) -> equal[0] &= value.equals(that.get(key)));
+        return equal[0];
+    }
+
+    @Override
+    public int hashCode() {
+        int[] hash = {0};
+        forEach((key, value) -> hash[0] += key.hashCode() ^ value.hashCode());
+        return hash[0];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("{");
+        forEach((key, value) -> sb.append(sb.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return sb.append('}').toString();
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private abstract static class Node {
+        abstract Object find(int hash, Object key, int shift);
+
+        /**
+         * @return the updated node, or {@code this} if nothing changed
+         */
+        abstract Node put(int hash, Object key, Object value, int shift, boolean[] added);
+
+        /**
+         * @return the updated node, {@code this} if the key is absent, {@code null} if empty now
+         */
+        abstract Node remove(int hash, Object key, int shift);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+
+        /**
+         * Hash shared by all entries of a {@link Leaf} or {@link CollisionNode}.
+         */
+        int hash() {
+            throw new UnsupportedOperationException();
+        }
+
+        boolean isSingleHash() {
+            return false;
+        }
+    }
+
+    private static final class Leaf extends Node {
+        final int hash;
+        final Object key;
+        final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            return hash == this.hash && key.equals(this.key) ? value : null;
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+            if (hash == this.hash && key.equals(this.key)) {
+                return value == this.value ? this : new Leaf(hash, this.key, value);
+            }
+            added[0] = true;
+            Leaf leaf = new Leaf(hash, key, value);
+            return hash == this.hash ? new CollisionNode(hash, new Leaf[]{this, leaf}) : merge(this, leaf, shift);
+        }
+
+        @Override
+        Node remove(int hash, Object key, int shift) {
+            return hash == this.hash && key.equals(this.key) ? null : this;
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            action.accept(key, value);
+        }
+
+        @Override
+        int hash() {
+            return hash;
+        }
+
+        @Override
+        boolean isSingleHash() {
+            return true;
+        }
+    }
+
+    /**
+     * Entries whose full 32-bit hashes are equal.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Leaf[] leaves;
+
+        CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            if (hash == this.hash) {
+                for (Leaf leaf : leaves) {
+                    if (key.equals(leaf.key)) return leaf.value;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+            if (hash != this.hash) {
+                added[0] = true;
+                return merge(this, new Leaf(hash, key, value), shift);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (key.equals(leaves[i].key)) {
+                    if (value == leaves[i].value) return this;
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = new Leaf(hash, leaves[i].key, value);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            added[0] = true;
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = new Leaf(hash, key, value);
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node remove(int hash, Object key, int shift) {
+            if (hash != this.hash) return this;
+            for (int i = 0; i < leaves.length; i++) {
+                if (key.equals(leaves[i].key)) {
+                    if (leaves.length == 2) return leaves[1 - i];
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Leaf leaf : leaves) {
+                action.accept(leaf.key, leaf.value);
+            }
+        }
+
+        @Override
+        int hash() {
+            return hash;
+        }
+
+        @Override
+        boolean isSingleHash() {
+            return true;
+        }
+    }
+
+    private static final class BitmapNode extends Node {
+        final int bitmap;
+        final Node[] children;
+
+        BitmapNode(int bitmap, Node[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(int hash, Object key, int shift) {
+            int bit = bit(hash, shift);
+            return (bitmap & bit) == 0 ? null : children[index(bit)].find(hash, key, shift + BITS);
+        }
+
+        @Override
+        Node put(int hash, Object key, Object value, int shift, boolean[] added) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                added[0] = true;
+                Node[] copy = new Node[children.length + 1];
+                System.arraycopy(children, 0, copy, 0, index);
+                copy[index] = new Leaf(hash, key, value);
+                System.arraycopy(children, index, copy, index + 1, children.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Node child = children[index];
+            Node newChild = child.put(hash, key, value, shift + BITS, added);
+            return newChild == child ? this : replace(index, newChild);
+        }
+
+        @Override
+        Node remove(int hash, Object key, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) return this;
+            int index = index(bit);
+            Node child = children[index];
+            Node newChild = child.remove(hash, key, shift + BITS);
+            if (newChild == child) return this;
+            if (newChild == null) {
+                if (children.length == 1) return null;
+                Node[] copy = new Node[children.length - 1];
+                System.arraycopy(children, 0, copy, 0, index);
+                System.arraycopy(children, index + 1, copy, index, children.length - index - 1);
+                // a lone leaf moves up so lookups do not walk through single-child levels
+                return copy.length == 1 && copy[0].isSingleHash() ? copy[0] : new BitmapNode(bitmap & ~bit, copy);
+            }
+            return children.length == 1 && newChild.isSingleHash() ? newChild : replace(index, newChild);
+        }
+
+        private BitmapNode replace(int index, Node child) {
+            Node[] copy = children.clone();
+            copy[index] = child;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (Node child : children) {
+                child.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Smallest subtree holding two single-hash nodes with different hashes.
+     */
+    private static Node merge(Node a, Node b, int shift) {
+        int bitA = bit(a.hash(), shift);
+        int bitB = bit(b.hash(), shift);
+        if (bitA == bitB) {
+            return new BitmapNode(bitA, new Node[]{merge(a, b, shift + BITS)});
+        }
+        return new BitmapNode(bitA | bitB, Integer.compareUnsigned(bitA, bitB) < 0 ? new Node[]{a, b} : new Node[]{b, a});
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.guava_demo.snapshot;
+
+import com.google.common.collect.ImmutableListMultimap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishing single-value changes to a large shared multimap while readers keep reading:
+ * rebuilding an {@code ImmutableListMultimap} per change vs {@link MultimapSnapshot} updates,
+ * both published through a {@link SnapshotHolder}.
+ * <p>
+ * Reports the time to publish all changes and the reads completed meanwhile. Rough numbers, not
+ * a JMH run; three rounds, the first is warm-up.
+ * Arguments: keys, values per key, changes, reader threads.
+ */
+public class SnapshotBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int keys = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int valuesPerKey = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int changes = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int readers = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        ImmutableListMultimap.Builder<Integer, Integer> builder = ImmutableListMultimap.builder();
+        for (int key = 0; key < keys; key++) {
+            for (int v = 0; v < valuesPerKey; v++) {
+                builder.put(key, v);
+            }
+        }
+        ImmutableListMultimap<Integer, Integer> seed = builder.build();
+        MultimapSnapshot<Integer, Integer> seedSnapshot = MultimapSnapshot.copyOf(seed);
+
+        System.out.printf("%,d keys x %d values, %,d changes, %d readers (%d cores)%n",
+                keys, valuesPerKey, changes, readers, Runtime.getRuntime().availableProcessors());
+        for (int round = 0; round < 3; round++) {
+            Result copying = run(SnapshotHolder.of(seed), readers, keys, changes,
+                    (multimap, key) -> ImmutableListMultimap.<Integer, Integer>builder()
+                            .putAll(multimap).put(key, -1).build(),
+                    ImmutableListMultimap::get);
+            Result sharing = run(SnapshotHolder.of(seedSnapshot), readers, keys, changes,
+                    (snapshot, key) -> snapshot.put(key, -1),
+                    MultimapSnapshot::get);
+            System.out.printf("round %d: ImmutableListMultimap %8.1f ms, %,12d reads | MultimapSnapshot %8.1f ms, %,12d reads%n",
+                    round, copying.nanos / 1e6, copying.reads, sharing.nanos / 1e6, sharing.reads);
+        }
+    }
+
+    private interface Change<S> {
+        S apply(S snapshot, int key);
+    }
+
+    private interface Lookup<S> {
+        List<Integer> get(S snapshot, Integer key);
+    }
+
+    private static final class Result {
+        final long nanos;
+        final long reads;
+
+        Result(long nanos, long reads) {
+            this.nanos = nanos;
+            this.reads = reads;
+        }
+    }
+
+    private static <S> Result run(SnapshotHolder<S> holder, int readers, int keys, int changes,
+                                  Change<S> change, Lookup<S> lookup) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < readers; t++) {
+            Random random = new Random(t);
+            Thread thread = new Thread(() -> {
+                long count = 0;
+                long found = 0;
+                while (running.get()) {
+                    found += lookup.get(holder.get(), random.nextInt(keys)).size();
+                    count++;
+                }
+                if (found < 0) throw new AssertionError(); // keep the reads alive
+                reads.addAndGet(count);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        Random random = new Random(42);
+        long begin = System.nanoTime();
+        CompletableFuture<S> last = null;
+        for (int i = 0; i < changes; i++) {
+            int key = random.nextInt(keys);
+            last = holder.update(snapshot -> change.apply(snapshot, key));
+        }
+        if (last != null) {
+            last.join();
+        }
+        long nanos = System.nanoTime() - begin;
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        holder.close();
+        return new Result(nanos, reads.get());
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.guava_demo.snapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.UnaryOperator;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Copy-on-write holder for an immutable snapshot that is read far more often than it changes.
+ * <p>
+ * {@link #get()} is a single volatile read: readers never lock, never wait for a rebuild and
+ * always see a complete snapshot. {@link #update} queues a change and returns at once; one
+ * background thread drains the queue, applies every pending change to the current snapshot in
+ * submission order and publishes the result with one volatile write. A burst of updates
+ * therefore costs one publication rather than one per change, and writers never contend with
+ * each other on a lock.
+ * <p>
+ * The changes themselves should be cheap on the snapshot type: {@link MultimapSnapshot} and
+ * {@link TableSnapshot} share everything but the edited path with the previous version. Plain
+ * Guava immutables work too (e.g. {@code ImmutableRangeSet.union}), at the price of a full copy
+ * per change, off the readers' threads.
+ */
+public final class SnapshotHolder<S> implements AutoCloseable {
+
+    private volatile S current;
+
+    private final ConcurrentLinkedQueue<Change<S>> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ExecutorService rebuilder;
+
+    private SnapshotHolder(S initial, String name) {
+        this.current = checkNotNull(initial, "initial");
+        this.rebuilder = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, name + "-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static <S> SnapshotHolder<S> of(S initial) {
+        return new SnapshotHolder<>(initial, "snapshot");
+    }
+
+    public static <S> SnapshotHolder<S> of(S initial, String name) {
+        return new SnapshotHolder<>(initial, name);
+    }
+
+    /**
+     * @return the latest published snapshot
+     */
+    public S get() {
+        return current;
+    }
+
+    /**
+     * Queues {@code change} to be applied to the snapshot current at rebuild time.
+     *
+     * @return completes with the first published snapshot that includes the change, or
+     * exceptionally if the change threw (the snapshot is then published without it)
+     */
+    public CompletableFuture<S> update(UnaryOperator<S> change) {
+        checkNotNull(change, "change");
+        checkState(!rebuilder.isShutdown(), "holder is closed");
+        Change<S> queued = new Change<>(change);
+        pending.add(queued);
+        if (scheduled.compareAndSet(false, true)) {
+            rebuilder.execute(this::rebuild);
+        }
+        return queued.published;
+    }
+
+    /**
+     * Replaces the snapshot wholesale; queued changes are applied on top of it.
+     */
+    public CompletableFuture<S> set(S snapshot) {
+        checkNotNull(snapshot, "snapshot");
+        return update(ignored -> snapshot);
+    }
+
+    private void rebuild() {
+        List<Change<S>> applied = new ArrayList<>();
+        S snapshot = current;
+        // clear the flag before draining: a change queued after the last poll schedules a new run
+        scheduled.set(false);
+        for (Change<S> change; (change = pending.poll()) != null; ) {
+            try {
+                snapshot = checkNotNull(change.function.apply(snapshot), "change returned null");
+                applied.add(change);
+            } catch (RuntimeException | Error e) {
+                change.published.completeExceptionally(e);
+            }
+        }
+        if (applied.isEmpty()) {
+            return;
+        }
+        current = snapshot;
+        for (Change<S> change : applied) {
+            change.published.complete(snapshot);
+        }
+    }
+
+    /**
+     * Stops the rebuild thread once queued changes are published; {@link #get()} keeps working.
+     */
+    @Override
+    public void close() {
+        rebuilder.shutdown();
+    }
+
+    private static final class Change<S> {
+        final UnaryOperator<S> function;
+        final CompletableFuture<S> published = new CompletableFuture<>();
+
+        Change(UnaryOperator<S> function) {
+            this.function = function;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.guava_demo.snapshot;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableTable;
+import com.google.common.collect.Table;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable table that is cheap to change by cell.
+ * <p>
+ * Rows are {@link PersistentHashMap}s of column → value inside a persistent map of rows, so
+ * {@link #put} and {@link #remove} copy the trie path to the cell in two small tries and share
+ * every other row (and most of the edited one) with the previous snapshot. An
+ * {@code ImmutableTable} rebuild copies all cells, plus its row and column indexes.
+ * <p>
+ * {@link #asImmutableTable()} is built on first use and cached; row and column order is hash
+ * order.
+ */
+public final class TableSnapshot<R, C, V> {
+
+    private static final TableSnapshot<Object, Object, Object> EMPTY =
+            new TableSnapshot<>(PersistentHashMap.of(), 0);
+
+    private final PersistentHashMap<R, PersistentHashMap<C, V>> rows;
+    private final int size;
+    private volatile ImmutableTable<R, C, V> table;
+
+    private TableSnapshot(PersistentHashMap<R, PersistentHashMap<C, V>> rows, int size) {
+        this.rows = rows;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <R, C, V> TableSnapshot<R, C, V> of() {
+        return (TableSnapshot<R, C, V>) EMPTY;
+    }
+
+    public static <R, C, V> TableSnapshot<R, C, V> copyOf(Table<? extends R, ? extends C, ? extends V> table) {
+        PersistentHashMap<R, PersistentHashMap<C, V>> rows = PersistentHashMap.of();
+        for (var row : table.rowMap().entrySet()) {
+            rows = rows.plus(row.getKey(), PersistentHashMap.copyOf(row.getValue()));
+        }
+        return new TableSnapshot<>(rows, table.size());
+    }
+
+    public V get(Object rowKey, Object columnKey) {
+        PersistentHashMap<C, V> row = rows.get(rowKey);
+        return row == null ? null : row.get(columnKey);
+    }
+
+    public boolean contains(Object rowKey, Object columnKey) {
+        return get(rowKey, columnKey) != null;
+    }
+
+    public boolean containsRow(Object rowKey) {
+        return rows.containsKey(rowKey);
+    }
+
+    /**
+     * @return the row as a copy; {@link #get} avoids the copy for single cells
+     */
+    public ImmutableMap<C, V> row(Object rowKey) {
+        PersistentHashMap<C, V> row = rows.get(rowKey);
+        return row == null ? ImmutableMap.of() : row.toImmutableMap();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int rowCount() {
+        return rows.size();
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public TableSnapshot<R, C, V> put(R rowKey, C columnKey, V value) {
+        checkNotNull(rowKey, "rowKey");
+        PersistentHashMap<C, V> row = rows.getOrDefault(rowKey, PersistentHashMap.of());
+        PersistentHashMap<C, V> updated = row.plus(columnKey, value);
+        if (updated == row) {
+            return this;
+        }
+        return new TableSnapshot<>(rows.plus(rowKey, updated), size - row.size() + updated.size());
+    }
+
+    public TableSnapshot<R, C, V> remove(Object rowKey, Object columnKey) {
+        PersistentHashMap<C, V> row = rows.get(rowKey);
+        if (row == null) {
+            return this;
+        }
+        PersistentHashMap<C, V> updated = row.minus(columnKey);
+        if (updated == row) {
+            return this;
+        }
+        if (updated.isEmpty()) {
+            return new TableSnapshot<>(rows.minus(rowKey), size - 1);
+        }
+        @SuppressWarnings("unchecked") R r = (R) rowKey;
+        return new TableSnapshot<>(rows.plus(r, updated), size - 1);
+    }
+
+    public TableSnapshot<R, C, V> removeRow(Object rowKey) {
+        PersistentHashMap<C, V> row = rows.get(rowKey);
+        return row == null ? this : new TableSnapshot<>(rows.minus(rowKey), size - row.size());
+    }
+
+    public ImmutableTable<R, C, V> asImmutableTable() {
+        ImmutableTable<R, C, V> result = table;
+        if (result == null) {
+            ImmutableTable.Builder<R, C, V> builder = ImmutableTable.builder();
+            rows.forEach((rowKey, row) -> row.forEach((columnKey, value) -> builder.put(rowKey, columnKey, value)));
+            table = result = builder.build();
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return rows.toString();
+    }
+}
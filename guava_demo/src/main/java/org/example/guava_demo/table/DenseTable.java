@@ -0,0 +1,543 @@
+package org.example.guava_demo.table;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Table;
+import com.google.common.collect.Tables;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Immutable {@link Table} for dense grids whose shape is fixed after loading
+ * (company × employee id, user × day, ...).
+ * <p>
+ * {@code HashBasedTable} is a map of maps: a {@code LinkedHashMap} per row plus an entry per
+ * cell. Here row and column keys are interned into {@link IndexDictionary dictionaries} and the
+ * values sit in one flat row-major array, so {@code get(r, c)} is two dictionary lookups and
+ * {@code values[r * columns + c]}. Cells that were never put are {@code null} and do not count,
+ * so sparse leftovers are fine. Unlike {@code ArrayTable}, which fixes its keys up front, the
+ * {@link Builder} collects keys from the cells it is given.
+ * <p>
+ * {@link #row}/{@link #column} return slices: a base offset and a stride over the same array,
+ * with sizes precomputed at build time. The table data is final and never mutated after
+ * construction, so any number of threads can read concurrently without locks or volatile reads.
+ * The {@code rowMap}/{@code columnMap} views are cached lazily in plain fields; racing threads
+ * at worst build equivalent views over the same immutable data, which is benign.
+ * Mutators throw {@link UnsupportedOperationException}.
+ * <p>
+ * For hot loops, {@link #rowIndex}/{@link #columnIndex} and {@link #get(int, int)} skip the
+ * dictionary lookups entirely.
+ */
+public final class DenseTable<R, C, V> implements Table<R, C, V> {
+
+    private final IndexDictionary<R> rows;
+    private final IndexDictionary<C> columns;
+    private final Object[] values;
+    private final int[] rowSizes;
+    private final int[] columnSizes;
+    private final int size;
+
+    private Map<R, Map<C, V>> rowMap;
+    private Map<C, Map<R, V>> columnMap;
+
+    private DenseTable(IndexDictionary<R> rows, IndexDictionary<C> columns, Object[] values) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = values;
+        this.rowSizes = new int[rows.size()];
+        this.columnSizes = new int[columns.size()];
+        int size = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                rowSizes[i / columns.size()]++;
+                columnSizes[i % columns.size()]++;
+                size++;
+            }
+        }
+        this.size = size;
+    }
+
+    public static <R, C, V> Builder<R, C, V> builder() {
+        return new Builder<>();
+    }
+
+    public static <R, C, V> DenseTable<R, C, V> copyOf(Table<? extends R, ? extends C, ? extends V> table) {
+        Builder<R, C, V> builder = builder();
+        for (Cell<? extends R, ? extends C, ? extends V> cell : table.cellSet()) {
+            builder.put(cell.getRowKey(), cell.getColumnKey(), cell.getValue());
+        }
+        return builder.build();
+    }
+
+    // --- index-based access ---
+
+    /**
+     * @return the dense index of {@code rowKey}, or -1
+     */
+    public int rowIndex(Object rowKey) {
+        return rows.indexOf(rowKey);
+    }
+
+    /**
+     * @return the dense index of {@code columnKey}, or -1
+     */
+    public int columnIndex(Object columnKey) {
+        return columns.indexOf(columnKey);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int rowIndex, int columnIndex) {
+        checkElementIndex(rowIndex, rows.size());
+        checkElementIndex(columnIndex, columns.size());
+        return (V) values[rowIndex * columns.size() + columnIndex];
+    }
+
+    /**
+     * Row keys in dictionary order; {@code rowKeys().get(i)} has index {@code i}.
+     */
+    public ImmutableList<R> rowKeys() {
+        return rows.keys();
+    }
+
+    public ImmutableList<C> columnKeys() {
+        return columns.keys();
+    }
+
+    // --- Table ---
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object rowKey, Object columnKey) {
+        int row = rows.indexOf(rowKey);
+        if (row < 0) return null;
+        int column = columns.indexOf(columnKey);
+        return column < 0 ? null : (V) values[row * columns.size() + column];
+    }
+
+    @Override
+    public boolean contains(Object rowKey, Object columnKey) {
+        return get(rowKey, columnKey) != null;
+    }
+
+    @Override
+    public boolean containsRow(Object rowKey) {
+        return rows.indexOf(rowKey) >= 0;
+    }
+
+    @Override
+    public boolean containsColumn(Object columnKey) {
+        return columns.indexOf(columnKey) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        if (value == null) return false;
+        for (Object candidate : values) {
+            if (value.equals(candidate)) return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Map<C, V> row(R rowKey) {
+        int row = rows.indexOf(checkNotNull(rowKey));
+        return row < 0 ? Map.of() : rowSlice(row);
+    }
+
+    @Override
+    public Map<R, V> column(C columnKey) {
+        int column = columns.indexOf(checkNotNull(columnKey));
+        return column < 0 ? Map.of() : columnSlice(column);
+    }
+
+    private Map<C, V> rowSlice(int row) {
+        return new Slice<>(columns, row * columns.size(), 1, rowSizes[row]);
+    }
+
+    private Map<R, V> columnSlice(int column) {
+        return new Slice<>(rows, column, columns.size(), columnSizes[column]);
+    }
+
+    @Override
+    public Set<R> rowKeySet() {
+        return rows.keySet();
+    }
+
+    @Override
+    public Set<C> columnKeySet() {
+        return columns.keySet();
+    }
+
+    @Override
+    public Set<Cell<R, C, V>> cellSet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Cell<R, C, V>> iterator() {
+                return new CellIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    Cell<R, C, V> output(int index) {
+                        return Tables.immutableCell(rows.keyAt(index / columns.size()),
+                                columns.keyAt(index % columns.size()), (V) values[index]);
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Cell)) return false;
+                Cell<?, ?, ?> cell = (Cell<?, ?, ?>) o;
+                Object value = get(cell.getRowKey(), cell.getColumnKey());
+                return value != null && value.equals(cell.getValue());
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Collection<V> values() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new CellIterator<>() {
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    V output(int index) {
+                        return (V) values[index];
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public Map<R, Map<C, V>> rowMap() {
+        Map<R, Map<C, V>> result = rowMap;
+        return result != null ? result : (rowMap = new KeyedSlices<>(rows) {
+            @Override
+            Map<C, V> slice(int index) {
+                return rowSlice(index);
+            }
+        });
+    }
+
+    @Override
+    public Map<C, Map<R, V>> columnMap() {
+        Map<C, Map<R, V>> result = columnMap;
+        return result != null ? result : (columnMap = new KeyedSlices<>(columns) {
+            @Override
+            Map<R, V> slice(int index) {
+                return columnSlice(index);
+            }
+        });
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof Table && cellSet().equals(((Table<?, ?, ?>) obj).cellSet()));
+    }
+
+    @Override
+    public int hashCode() {
+        return cellSet().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return rowMap().toString();
+    }
+
+    // --- immutable ---
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V put(R rowKey, C columnKey, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void putAll(Table<? extends R, ? extends C, ? extends V> table) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(Object rowKey, Object columnKey) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Walks the flat array, skipping empty cells.
+     */
+    private abstract class CellIterator<T> implements Iterator<T> {
+        private int next = advance(0);
+
+        private int advance(int from) {
+            while (from < values.length && values[from] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public T next() {
+            if (next >= values.length) throw new NoSuchElementException();
+            int index = next;
+            next = advance(index + 1);
+            return output(index);
+        }
+
+        abstract T output(int index);
+    }
+
+    /**
+     * A row (stride 1) or a column (stride = number of columns) of the flat array, keyed by the
+     * other dimension's dictionary.
+     */
+    private final class Slice<K> extends AbstractMap<K, V> {
+        private final IndexDictionary<K> keys;
+        private final int base;
+        private final int stride;
+        private final int size;
+
+        Slice(IndexDictionary<K> keys, int base, int stride, int size) {
+            this.keys = keys;
+            this.base = base;
+            this.stride = stride;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            int index = keys.indexOf(key);
+            return index < 0 ? null : (V) values[base + index * stride];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, V>> iterator() {
+                    return new SliceIterator<>(keys, values, base, stride);
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+
+    /**
+     * Entries of a slice, skipping empty cells; array, offsets and keys are copied into fields
+     * so the loop does not chase outer-instance references.
+     */
+    private static final class SliceIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final IndexDictionary<K> keys;
+        private final Object[] values;
+        private final int base;
+        private final int stride;
+        private final int length;
+        private int next;
+
+        SliceIterator(IndexDictionary<K> keys, Object[] values, int base, int stride) {
+            this.keys = keys;
+            this.values = values;
+            this.base = base;
+            this.stride = stride;
+            this.length = keys.size();
+            this.next = advance(0);
+        }
+
+        private int advance(int from) {
+            while (from < length && values[base + from * stride] == null) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (next >= length) throw new NoSuchElementException();
+            int index = next;
+            next = advance(index + 1);
+            return new AbstractMap.SimpleImmutableEntry<>(keys.keyAt(index), (V) values[base + index * stride]);
+        }
+    }
+
+    /**
+     * {@code rowMap()}/{@code columnMap()}: every interned key has at least one value, so the
+     * map covers the whole dictionary.
+     */
+    private abstract static class KeyedSlices<K, S> extends AbstractMap<K, S> {
+        private final IndexDictionary<K> keys;
+
+        KeyedSlices(IndexDictionary<K> keys) {
+            this.keys = keys;
+        }
+
+        abstract S slice(int index);
+
+        @Override
+        public S get(Object key) {
+            int index = keys.indexOf(key);
+            return index < 0 ? null : slice(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return keys.indexOf(key) >= 0;
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return keys.keySet();
+        }
+
+        @Override
+        public int size() {
+            return keys.size();
+        }
+
+        @Override
+        public Set<Entry<K, S>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<K, S>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.size();
+                        }
+
+                        @Override
+                        public Entry<K, S> next() {
+                            if (next >= keys.size()) throw new NoSuchElementException();
+                            int index = next++;
+                            return new SimpleImmutableEntry<>(keys.keyAt(index), slice(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.size();
+                }
+            };
+        }
+    }
+
+    /**
+     * Collects cells, interning row and column keys in first-seen order. A cell may only be put
+     * once, as with {@code ImmutableTable.Builder}.
+     */
+    public static final class Builder<R, C, V> {
+        private final Map<R, Integer> rowIndexes = new LinkedHashMap<>();
+        private final Map<C, Integer> columnIndexes = new LinkedHashMap<>();
+        private final List<Object> cells = new ArrayList<>();
+        private int[] cellRows = new int[16];
+        private int[] cellColumns = new int[16];
+
+        private Builder() {
+        }
+
+        public Builder<R, C, V> put(R rowKey, C columnKey, V value) {
+            checkNotNull(rowKey, "rowKey");
+            checkNotNull(columnKey, "columnKey");
+            checkNotNull(value, "value");
+            int cell = cells.size();
+            if (cell == cellRows.length) {
+                cellRows = Arrays.copyOf(cellRows, cell * 2);
+                cellColumns = Arrays.copyOf(cellColumns, cell * 2);
+            }
+            cellRows[cell] = rowIndexes.computeIfAbsent(rowKey, k -> rowIndexes.size());
+            cellColumns[cell] = columnIndexes.computeIfAbsent(columnKey, k -> columnIndexes.size());
+            cells.add(value);
+            return this;
+        }
+
+        public Builder<R, C, V> putAll(Table<? extends R, ? extends C, ? extends V> table) {
+            for (Cell<? extends R, ? extends C, ? extends V> cell : table.cellSet()) {
+                put(cell.getRowKey(), cell.getColumnKey(), cell.getValue());
+            }
+            return this;
+        }
+
+        public DenseTable<R, C, V> build() {
+            ImmutableList<R> rowKeys = ImmutableList.copyOf(rowIndexes.keySet());
+            ImmutableList<C> columnKeys = ImmutableList.copyOf(columnIndexes.keySet());
+            long area = (long) rowKeys.size() * columnKeys.size();
+            checkArgument(area <= Integer.MAX_VALUE - 8,
+                    "%s rows x %s columns do not fit one array", rowKeys.size(), columnKeys.size());
+            Object[] values = new Object[(int) area];
+            for (int cell = 0; cell < cells.size(); cell++) {
+                int index = cellRows[cell] * columnKeys.size() + cellColumns[cell];
+                checkArgument(values[index] == null, "duplicate cell: row %s, column %s",
+                        rowKeys.get(cellRows[cell]), columnKeys.get(cellColumns[cell]));
+                values[index] = cells.get(cell);
+            }
+            return new DenseTable<>(new IndexDictionary<>(rowKeys), new IndexDictionary<>(columnKeys), values);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.guava_demo.table;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Immutable key → dense index ({@code 0..size-1}) dictionary, in insertion order.
+ * <p>
+ * Open addressing over a power-of-two {@code Object[]} with the index in a parallel
+ * {@code int[]}: a lookup is a hash, a probe or two and an {@code equals}, with no entry objects
+ * and no {@code Integer} unboxing (what an {@code ImmutableMap<K, Integer>} costs).
+ */
+final class IndexDictionary<K> {
+
+    private final ImmutableList<K> keys;
+    private final Object[] keyArray;
+    private final ImmutableSet<K> keySet;
+    private final Object[] table;
+    private final int[] indexes;
+    private final int mask;
+
+    IndexDictionary(ImmutableList<K> keys) {
+        this.keys = keys;
+        this.keyArray = keys.toArray();
+        this.keySet = ImmutableSet.copyOf(keys);
+        int capacity = Integer.highestOneBit(Math.max(2, keys.size() * 2 - 1)) << 1;
+        this.table = new Object[capacity];
+        this.indexes = new int[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < keys.size(); i++) {
+            K key = keys.get(i);
+            int slot = spread(key.hashCode()) & mask;
+            while (table[slot] != null) {
+                if (table[slot].equals(key)) {
+                    throw new IllegalArgumentException("duplicate key: " + key);
+                }
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = key;
+            indexes[slot] = i;
+        }
+    }
+
+    /**
+     * @return the index of {@code key}, or -1
+     */
+    int indexOf(Object key) {
+        if (key == null) {
+            return -1;
+        }
+        int slot = spread(key.hashCode()) & mask;
+        for (Object candidate; (candidate = table[slot]) != null; slot = (slot + 1) & mask) {
+            if (candidate == key || candidate.equals(key)) {
+                return indexes[slot];
+            }
+        }
+        return -1;
+    }
+
+    @SuppressWarnings("unchecked")
+    K keyAt(int index) {
+        return (K) keyArray[index];
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    ImmutableList<K> keys() {
+        return keys;
+    }
+
+    ImmutableSet<K> keySet() {
+        return keySet;
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+
+    @Override
+    public String toString() {
+        return keys.toString();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.guava_demo.table;
+
+import com.google.common.collect.ArrayTable;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Dense company × employee-id grid: {@link HashBasedTable} vs {@link ArrayTable} vs
+ * {@link DenseTable}, for random {@code get(r, c)} and full row iteration.
+ * <p>
+ * Rough numbers, not a JMH run: three rounds, the first one is warm-up. Measuring all three
+ * in one JVM makes the {@code Table} call sites megamorphic and penalizes whichever runs last;
+ * pass a table name as the fourth argument to measure only that one.
+ * Arguments: rows, columns, random lookups per round, [HashBasedTable|ArrayTable|DenseTable].
+ */
+public class TableBenchmark {
+
+    public static void main(String[] args) {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int columnCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        int lookups = args.length > 2 ? Integer.parseInt(args[2]) : 5_000_000;
+        String only = args.length > 3 ? args[3] : null;
+
+        List<String> companies = new ArrayList<>();
+        for (int r = 0; r < rowCount; r++) {
+            companies.add("COMPANY-" + r);
+        }
+        List<String> employeeIds = new ArrayList<>();
+        for (int c = 0; c < columnCount; c++) {
+            employeeIds.add(String.valueOf(100 + c));
+        }
+
+        HashBasedTable<String, String, String> hashTable = HashBasedTable.create();
+        ArrayTable<String, String, String> arrayTable = ArrayTable.create(companies, employeeIds);
+        for (String company : companies) {
+            for (String employeeId : employeeIds) {
+                String name = company + "/" + employeeId;
+                hashTable.put(company, employeeId, name);
+                arrayTable.put(company, employeeId, name);
+            }
+        }
+        DenseTable<String, String, String> denseTable = DenseTable.copyOf(hashTable);
+
+        Random random = new Random(42);
+        String[] lookupRows = new String[lookups];
+        String[] lookupColumns = new String[lookups];
+        for (int i = 0; i < lookups; i++) {
+            // fresh String instances, as keys parsed from a request would be
+            lookupRows[i] = new String(companies.get(random.nextInt(rowCount)));
+            lookupColumns[i] = new String(employeeIds.get(random.nextInt(columnCount)));
+        }
+
+        System.out.printf("%,d x %,d cells, %,d lookups%n", rowCount, columnCount, lookups);
+        for (int round = 0; round < 3; round++) {
+            System.out.printf("round %d%n", round);
+            measure("HashBasedTable", hashTable, only, companies, lookupRows, lookupColumns);
+            measure("ArrayTable", arrayTable, only, companies, lookupRows, lookupColumns);
+            measure("DenseTable", denseTable, only, companies, lookupRows, lookupColumns);
+        }
+    }
+
+    private static void measure(String name, Table<String, String, String> table, String only,
+                                List<String> rows, String[] lookupRows, String[] lookupColumns) {
+        if (only != null && !only.equals(name)) {
+            return;
+        }
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < lookupRows.length; i++) {
+            checksum += table.get(lookupRows[i], lookupColumns[i]).length();
+        }
+        long getNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (String row : rows) {
+            for (Map.Entry<String, String> cell : table.row(row).entrySet()) {
+                checksum += cell.getValue().length();
+            }
+        }
+        long rowNanos = System.nanoTime() - start;
+
+        System.out.printf("  %-16s get %6.1f ns/op   row iteration %7.1f ms   (checksum %d)%n",
+                name, (double) getNanos / lookupRows.length, rowNanos / 1e6, checksum);
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.gson;
+
+import com.google.gson.JsonObject;
+import org.example.gson.pipeline.Checkpoint;
+import org.example.gson.pipeline.CheckpointedPipeline;
+import org.example.gson.pipeline.RawFieldPrefilter;
+import org.example.gson.tree.CompactJson;
+import org.example.gson.tree.CompactJsonObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * {@link JsonFilterPipelineExample} as a resumable job: the first run "crashes" half way through,
+ * the second run continues from the last checkpoint instead of starting over.
+ */
+public class CheckpointedPipelineExample {
+
+    private static final int CRASH_AT_ID = 15;
+
+    public static void main(String[] args) throws IOException {
+        StringBuilder inputJson = new StringBuilder("[\n");
+        for (int id = 1; id <= 20; id++) {
+            String type = id % 3 == 0 ? "ERROR" : "INFO";
+            inputJson.append(String.format("  {\"id\": %d, \"type\": \"%s\", \"message\": \"Event %d\"}%s%n",
+                    id, type, id, id < 20 ? "," : ""));
+        }
+        inputJson.append("]");
+
+        Path input = Files.createTempFile("logs", ".json");
+        Path output = Files.createTempFile("errors", ".json");
+        Path checkpoint = Files.createTempFile("errors", ".checkpoint");
+        Files.writeString(input, inputJson, StandardCharsets.UTF_8);
+        Files.delete(checkpoint); // no checkpoint yet => fresh start
+
+        CheckpointedPipeline pipeline = new CheckpointedPipeline(input, output, CheckpointedPipeline.Format.JSON_ARRAY, checkpoint);
+        pipeline.setCheckpointInterval(5, 60_000);
+        RawFieldPrefilter errorsOnly = RawFieldPrefilter.equalsIgnoreCase("type", "ERROR");
+
+        // Run 1: dies while processing id 15
+        try {
+            pipeline.run(errorsOnly, entry -> {
+                if (Integer.parseInt(entry.getString("id")) == CRASH_AT_ID) {
+                    throw new IOException("simulated crash at id " + CRASH_AT_ID);
+                }
+                return toError(entry);
+            });
+        } catch (IOException e) {
+            System.out.println("❌ " + e.getMessage());
+            System.out.println("Checkpoint: " + Files.readString(checkpoint, StandardCharsets.UTF_8));
+        }
+
+        // Run 2: resumes at the checkpointed input offset, the output is truncated to the checkpoint
+        Checkpoint done = pipeline.run(errorsOnly, CheckpointedPipelineExample::toError);
+
+        System.out.println("✅ Resumed job finished: " + done);
+        System.out.println(Files.readString(output, StandardCharsets.UTF_8));
+
+        Files.delete(input);
+        Files.delete(output);
+    }
+
+    private static JsonObject toError(CompactJsonObject entry) {
+        if (!"ERROR".equalsIgnoreCase(entry.getString("type"))) {
+            return null;
+        }
+        JsonObject obj = CompactJson.toJsonElement(entry).getAsJsonObject();
+        obj.addProperty("severity", "HIGH");
+        return obj;
+    }
+}
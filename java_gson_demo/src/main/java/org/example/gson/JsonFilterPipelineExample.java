@@ -1,19 +1,29 @@
 package org.example.gson;
 
 import com.google.gson.*;
-import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
+import org.example.gson.pipeline.ChannelOutputSink;
+import org.example.gson.pipeline.PrefilteredArrayStage;
+import org.example.gson.pipeline.RawFieldPrefilter;
+import org.example.gson.tree.CompactJson;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 /**
  * | Step                 | Component                                                                     | Description |
  * | -------------------- | ----------------------------------------------------------------------------- | ----------- |
- * | **1️⃣ `JsonReader`** | Reads each JSON object lazily from a stream (efficient for large arrays).     |             |
- * | **2️⃣ `JsonParser`** | Parses that single object into a `JsonObject` (so we can inspect and modify). |             |
+ * | **1️⃣ `RawJsonArrayScanner`** | Splits the array into raw element bytes without parsing them.       |             |
+ * | **1️⃣➕ `RawFieldPrefilter`** | Byte scan for `"type": "ERROR"`, drops elements that cannot match.   |             |
+ * | **2️⃣ `CompactJsonParser`** | Parses only the candidates into a compact, array-backed `CompactJsonObject`. |             |
  * | **3️⃣ Filter**       | `if (!"ERROR".equalsIgnoreCase(...)) continue;` skips unnecessary objects.    |             |
- * | **4️⃣ Modify**       | Adds `timestamp` and `severity`, uppercases message.                          |             |
+ * | **4️⃣ Modify**       | Converts kept entries to `JsonObject`, adds `timestamp` and `severity`, uppercases message. |             |
  * | **5️⃣ `JsonWriter`** | Writes the filtered objects directly into the new JSON array.                 |             |
+ * | **6️⃣ `ChannelOutputSink`** | Encodes the output into pooled direct buffers written to a `FileChannel`. |             |
  */
 
 public class JsonFilterPipelineExample {
@@ -28,44 +38,58 @@ public class JsonFilterPipelineExample {
         ]
         """;
 
+        Path outputFile = Path.of(System.getProperty("java.io.tmpdir"), "filtered_logs.json");
+
+        try {
+            // raw byte prefilter: only elements that may contain "type": "ERROR" get parsed,
+            // into an array-backed tree (no LinkedTreeMap per log entry)
+            PrefilteredArrayStage stage = new PrefilteredArrayStage(
+                    RawFieldPrefilter.equalsIgnoreCase("type", "ERROR"));
+            writeErrors(inputJson, stage, outputFile);
+
+            // Output filtered and modified JSON, streamed instead of read back into one String
+            System.out.printf("✅ Filtered + Modified JSON output (%d bytes in %s):%n", Files.size(outputFile), outputFile);
+            try (InputStream in = Files.newInputStream(outputFile)) {
+                in.transferTo(System.out);
+            }
+            System.out.println();
+            System.out.printf("Scanned: %d, parsed: %d%n", stage.scannedCount(), stage.parsedCount());
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeErrors(String inputJson, PrefilteredArrayStage stage, Path outputFile)
+            throws IOException {
         try (
-                JsonReader reader = new JsonReader(new StringReader(inputJson));
-                StringWriter stringWriter = new StringWriter();
-                JsonWriter writer = new JsonWriter(stringWriter)
+                // encodes straight into pooled direct buffers flushed to the file channel,
+                // instead of keeping the whole output in a StringWriter
+                ChannelOutputSink sink = ChannelOutputSink.toChannel(FileChannel.open(outputFile,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+                JsonWriter writer = new JsonWriter(sink)
         ) {
-            JsonParser jsonParser = new JsonParser();
-            reader.beginArray();
             writer.beginArray();
 
             Gson gson = new GsonBuilder().setPrettyPrinting().create();
 
-            while (reader.hasNext()) {
-                // Parse next element as JsonObject
-                JsonElement element = jsonParser.parse(reader);
-                JsonObject obj = element.getAsJsonObject();
-
-                // Filter: keep only ERROR logs
-                if (!"ERROR".equalsIgnoreCase(obj.get("type").getAsString())) {
-                    continue; // skip non-ERROR entries
+            stage.run(new ByteArrayInputStream(inputJson.getBytes(StandardCharsets.UTF_8)), entry -> {
+                // Filter: keep only ERROR logs (exact check, the prefilter may let false positives through)
+                if (!"ERROR".equalsIgnoreCase(entry.getString("type"))) {
+                    return; // skip non-ERROR entries
                 }
 
+                // Materialize a mutable JsonObject only for the entries we keep
+                JsonObject obj = CompactJson.toJsonElement(entry).getAsJsonObject();
+
                 // Modify the JSON object
                 modifyLogEntry(obj);
 
                 // Write filtered + modified entry
                 gson.toJson(obj, writer);
-            }
+            });
 
-            reader.endArray();
             writer.endArray();
-            writer.close();
-
-            // Output filtered and modified JSON
-            System.out.println("✅ Filtered + Modified JSON output:");
-            System.out.println(stringWriter);
-
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
@@ -6,10 +6,17 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonWriter;
+import org.example.gson.pipeline.ByteBufferPool;
+import org.example.gson.pipeline.ChannelOutputSink;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
-import java.io.StringWriter;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
 
 import static java.lang.System.out;
 
@@ -24,10 +31,31 @@ public class JsonPipelineExample {
                 ]
                 """;
 
+        Path outputFile = Path.of(System.getProperty("java.io.tmpdir"), "modified_logs.json.gz");
+
+        try {
+            writeModified(inputJson, outputFile);
+
+            // Output final transformed JSON, streamed instead of read back into one String
+            out.printf("✅ Modified JSON output (%s, %d bytes compressed):%n", outputFile, Files.size(outputFile));
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(outputFile))) {
+                in.transferTo(out);
+            }
+            out.println();
+
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeModified(String inputJson, Path outputFile) throws IOException {
         try (
                 JsonReader reader = new JsonReader(new StringReader(inputJson));
-                StringWriter stringWriter = new StringWriter();
-                JsonWriter writer = new JsonWriter(stringWriter)
+                // output is encoded into 4 pooled direct buffers and gzip-compressed on a background thread
+                ChannelOutputSink sink = ChannelOutputSink.gzip(FileChannel.open(outputFile,
+                                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING),
+                        new ByteBufferPool(4, 256 * 1024));
+                JsonWriter writer = new JsonWriter(sink)
         ) {
             JsonParser jsonParser = new JsonParser();
 
@@ -50,13 +78,6 @@ public class JsonPipelineExample {
 
             reader.endArray();
             writer.endArray();
-
-            // Output final transformed JSON
-            out.println("✅ Modified JSON output:");
-            out.println(stringWriter.toString());
-
-        } catch (IOException e) {
-            e.printStackTrace();
         }
     }
 
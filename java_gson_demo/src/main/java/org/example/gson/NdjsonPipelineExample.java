@@ -0,0 +1,82 @@
+package org.example.gson;
+
+import com.google.gson.JsonObject;
+import org.example.gson.pipeline.NdjsonReader;
+import org.example.gson.pipeline.NdjsonWriter;
+import org.example.gson.pipeline.PrefilteredArrayStage;
+import org.example.gson.pipeline.RawFieldPrefilter;
+import org.example.gson.tree.CompactJson;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Same ERROR filter as {@link JsonFilterPipelineExample}, but over NDJSON (one log object per line).
+ * <p>
+ * | Step                          | Description                                                            |
+ * | ----------------------------- | ---------------------------------------------------------------------- |
+ * | **1️⃣ `NdjsonReader.split`**  | Cuts the input file into line-aligned byte ranges.                     |
+ * | **2️⃣ parallel stages**       | Every range is read from its own offset and filtered independently.    |
+ * | **3️⃣ `NdjsonWriter.append`** | Results are appended to the output file, existing lines are untouched. |
+ */
+public class NdjsonPipelineExample {
+
+    public static void main(String[] args) throws IOException {
+        String inputNdjson = """
+                {"id": 1, "type": "INFO", "message": "Server started"}
+                {"id": 2, "type": "ERROR", "message": "Connection failed"}
+                {"id": 3, "type": "INFO", "message": "User logged in"}
+                {"id": 4, "type": "ERROR", "message": "Disk full"}
+                """;
+
+        Path input = Files.createTempFile("logs", ".ndjson");
+        Path output = Files.createTempFile("errors", ".ndjson");
+        Files.writeString(input, inputNdjson, StandardCharsets.UTF_8);
+
+        // Step 1: line-aligned ranges, each one can be parsed without looking at the others
+        List<NdjsonReader.ByteRange> ranges = NdjsonReader.split(input, 2);
+
+        // Step 2: filter the ranges in parallel (one stage, i.e. one parser, per range)
+        List<List<JsonObject>> results = ranges.parallelStream()
+                .map(range -> filterErrors(input, range))
+                .toList();
+
+        // Step 3: append every batch; earlier lines of the output are never rewritten
+        for (List<JsonObject> batch : results) {
+            try (NdjsonWriter writer = NdjsonWriter.append(output)) {
+                for (JsonObject obj : batch) {
+                    writer.write(obj);
+                }
+            }
+        }
+
+        System.out.println("✅ Filtered NDJSON output:");
+        System.out.print(Files.readString(output, StandardCharsets.UTF_8));
+
+        Files.delete(input);
+        Files.delete(output);
+    }
+
+    private static List<JsonObject> filterErrors(Path input, NdjsonReader.ByteRange range) {
+        List<JsonObject> errors = new ArrayList<>();
+        PrefilteredArrayStage stage = new PrefilteredArrayStage(RawFieldPrefilter.equalsIgnoreCase("type", "ERROR"));
+
+        try (NdjsonReader reader = NdjsonReader.open(input, range)) {
+            stage.run(reader, entry -> {
+                if ("ERROR".equalsIgnoreCase(entry.getString("type"))) {
+                    JsonObject obj = CompactJson.toJsonElement(entry).getAsJsonObject();
+                    obj.addProperty("severity", "HIGH");
+                    errors.add(obj);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.gson.pipeline;
+
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-size pool of direct {@link ByteBuffer}s, allocated lazily.
+ * <p>
+ * The pool is the memory bound of an output sink: once all buffers are in flight
+ * {@link #acquire()} blocks until one is {@linkplain #release(ByteBuffer) released}.
+ * Direct buffers are used so that a {@code FileChannel} can write them without another copy.
+ */
+public class ByteBufferPool {
+
+    private final BlockingQueue<ByteBuffer> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final int maxBuffers;
+    private final int bufferSize;
+
+    public ByteBufferPool(int maxBuffers, int bufferSize) {
+        this.free = new ArrayBlockingQueue<>(maxBuffers);
+        this.maxBuffers = maxBuffers;
+        this.bufferSize = bufferSize;
+    }
+
+    public ByteBuffer acquire() throws InterruptedIOException {
+        ByteBuffer buffer = free.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (allocated.getAndUpdate(n -> n < maxBuffers ? n + 1 : n) < maxBuffers) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        try {
+            return free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an output buffer");
+        }
+    }
+
+    public void release(ByteBuffer buffer) {
+        buffer.clear();
+        free.offer(buffer);
+    }
+
+    public int bufferSize() {
+        return bufferSize;
+    }
+}
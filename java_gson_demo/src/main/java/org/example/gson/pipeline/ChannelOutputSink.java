@@ -0,0 +1,347 @@
+package org.example.gson.pipeline;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * {@link Writer} for {@code JsonWriter} output that encodes straight into pooled direct
+ * {@link ByteBuffer}s and writes them to a {@link WritableByteChannel} one full buffer at a time.
+ * <p>
+ * Nothing is ever accumulated as a {@code String}: memory is bounded by the {@link ByteBufferPool},
+ * and every channel write moves a whole buffer (256 KB by default), so the number of syscalls
+ * does not depend on how many small {@code write} calls {@code JsonWriter} makes.
+ * <p>
+ * {@link #gzip(WritableByteChannel, ByteBufferPool)} compresses and writes on a background thread,
+ * so encoding continues while the previous buffers are deflated; a writer blocks only when every
+ * pooled buffer is waiting to be compressed. The {@link Deflater} reads the pooled buffers in
+ * place and deflates into a buffer of its own that goes to the channel as is, so direct buffers
+ * are never copied to the heap.
+ * <p>
+ * Not thread-safe (like any {@code Writer} used by a single {@code JsonWriter}).
+ */
+public class ChannelOutputSink extends Writer {
+
+    private static final int CHAR_BATCH = 8 * 1024;
+    /** gzip member header: magic, deflate, no flags, no mtime, no extra flags, unknown OS */
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final byte[] NO_INPUT = new byte[0];
+
+    private final WritableByteChannel channel;
+    private final ByteBufferPool pool;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    // small char staging area, so the encoder runs on batches instead of single chars
+    private final char[] chars = new char[CHAR_BATCH];
+    private final CharBuffer charBuffer = CharBuffer.wrap(chars);
+    private int charCount;
+    private ByteBuffer current;
+
+    // background mode only
+    private final ExecutorService background;
+    // only touched by the background thread, or by the caller once the background thread is idle
+    private final Deflater deflater;
+    private final CRC32 crc;
+    private final ByteBuffer compressed;
+    private Future<?> lastWrite;
+    private volatile IOException backgroundFailure;
+
+    private long bytesWritten;
+    private boolean closed;
+
+    public ChannelOutputSink(WritableByteChannel channel, ByteBufferPool pool) {
+        this(channel, pool, null);
+    }
+
+    private ChannelOutputSink(WritableByteChannel channel, ByteBufferPool pool, ExecutorService background) {
+        this.channel = channel;
+        this.pool = pool;
+        this.background = background;
+        if (background == null) {
+            this.deflater = null;
+            this.crc = null;
+            this.compressed = null;
+        } else {
+            this.deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            this.crc = new CRC32();
+            // the gzip trailer is little-endian
+            this.compressed = ByteBuffer.allocateDirect(pool.bufferSize()).order(ByteOrder.LITTLE_ENDIAN);
+            this.compressed.put(GZIP_HEADER);
+        }
+    }
+
+    public static ChannelOutputSink toChannel(WritableByteChannel channel) {
+        return new ChannelOutputSink(channel, new ByteBufferPool(2, 256 * 1024));
+    }
+
+    /**
+     * Gzip-compressed output; compression and channel writes run on a dedicated daemon thread.
+     */
+    public static ChannelOutputSink gzip(WritableByteChannel channel, ByteBufferPool pool) {
+        ExecutorService background = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gzip-output-sink");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return new ChannelOutputSink(channel, pool, background);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (charCount == chars.length) {
+            encodeChars(false);
+        }
+        chars[charCount++] = (char) c;
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        while (len > 0) {
+            if (charCount == chars.length) {
+                encodeChars(false);
+            }
+            int n = Math.min(len, chars.length - charCount);
+            System.arraycopy(cbuf, off, chars, charCount, n);
+            charCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        while (len > 0) {
+            if (charCount == chars.length) {
+                encodeChars(false);
+            }
+            int n = Math.min(len, chars.length - charCount);
+            str.getChars(off, off + n, chars, charCount);
+            charCount += n;
+            off += n;
+            len -= n;
+        }
+    }
+
+    /**
+     * Encodes the staged chars into the current byte buffer, dispatching full buffers.
+     * An unpaired high surrogate at the end stays staged until its low surrogate arrives.
+     */
+    private void encodeChars(boolean endOfInput) throws IOException {
+        ensureOpen();
+        charBuffer.limit(charCount).position(0);
+        while (true) {
+            if (current == null) {
+                current = pool.acquire();
+            }
+            CoderResult result = encoder.encode(charBuffer, current, endOfInput);
+            if (result.isOverflow()) {
+                dispatch();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        int remaining = charBuffer.remaining();
+        System.arraycopy(chars, charBuffer.position(), chars, 0, remaining);
+        charCount = remaining;
+    }
+
+    /**
+     * Hands the current buffer to the channel (or the background thread) and returns it to the pool.
+     */
+    private void dispatch() throws IOException {
+        ByteBuffer buffer = current;
+        current = null;
+        if (buffer == null || buffer.position() == 0) {
+            if (buffer != null) pool.release(buffer);
+            return;
+        }
+        buffer.flip();
+        bytesWritten += buffer.remaining();
+
+        if (background == null) {
+            try {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } finally {
+                pool.release(buffer);
+            }
+            return;
+        }
+
+        checkBackgroundFailure(false);
+        lastWrite = background.submit(() -> {
+            try {
+                if (backgroundFailure == null) {
+                    deflate(buffer);
+                }
+            } catch (IOException e) {
+                backgroundFailure = e;
+            } finally {
+                pool.release(buffer);
+            }
+        });
+    }
+
+    /**
+     * Compresses a whole buffer; the compressed bytes go to the channel whenever {@link #compressed}
+     * fills up.
+     */
+    private void deflate(ByteBuffer buffer) throws IOException {
+        buffer.mark();
+        crc.update(buffer);
+        buffer.reset();
+        deflater.setInput(buffer);
+        while (!deflater.needsInput()) {
+            deflater.deflate(compressed, Deflater.NO_FLUSH);
+            if (!compressed.hasRemaining()) {
+                writeCompressed();
+            }
+        }
+        // the deflater must not look at the buffer again once it is back in the pool
+        deflater.setInput(NO_INPUT);
+    }
+
+    /**
+     * Writes out everything deflated so far; with {@code finish} also ends the gzip member.
+     */
+    private void drainDeflater(boolean finish) throws IOException {
+        if (finish) {
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflater.deflate(compressed);
+                if (!compressed.hasRemaining()) {
+                    writeCompressed();
+                }
+            }
+            if (compressed.remaining() < 8) {
+                writeCompressed();
+            }
+            compressed.putInt((int) crc.getValue()).putInt((int) deflater.getBytesRead());
+        } else {
+            // a full output buffer may mean more is pending
+            deflater.deflate(compressed, Deflater.SYNC_FLUSH);
+            while (!compressed.hasRemaining()) {
+                writeCompressed();
+                deflater.deflate(compressed, Deflater.SYNC_FLUSH);
+            }
+        }
+        writeCompressed();
+    }
+
+    private void writeCompressed() throws IOException {
+        compressed.flip();
+        while (compressed.hasRemaining()) {
+            channel.write(compressed);
+        }
+        compressed.clear();
+    }
+
+    /**
+     * Rethrows a failure of the background thread; with {@code wait} first waits until all
+     * submitted buffers are written (the executor is single-threaded, so that is the last one).
+     */
+    private void checkBackgroundFailure(boolean wait) throws IOException {
+        if (wait && lastWrite != null) {
+            try {
+                lastWrite.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for output");
+            } catch (ExecutionException e) {
+                throw new IOException(e.getCause());
+            }
+        }
+        IOException failure = backgroundFailure;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Pushes everything written so far to the channel; in gzip mode waits until the background
+     * thread caught up. Flushing often defeats batching, so pipelines should only flush at
+     * natural boundaries (end of output, checkpoints).
+     */
+    @Override
+    public void flush() throws IOException {
+        encodeChars(false);
+        dispatch();
+        checkBackgroundFailure(true);
+        if (deflater != null) {
+            drainDeflater(false);
+        }
+    }
+
+    /**
+     * Bytes handed to the channel so far (uncompressed size in gzip mode).
+     */
+    public long bytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            encodeChars(true);
+            while (true) {
+                if (current == null) {
+                    current = pool.acquire();
+                }
+                if (!encoder.flush(current).isOverflow()) break;
+                dispatch();
+            }
+            dispatch();
+            checkBackgroundFailure(true);
+        } finally {
+            closed = true;
+            try {
+                if (background != null) {
+                    background.shutdown();
+                    awaitBackground();
+                    if (backgroundFailure == null) {
+                        drainDeflater(true);
+                    }
+                }
+            } finally {
+                if (deflater != null) {
+                    deflater.end();
+                }
+                channel.close();
+            }
+        }
+    }
+
+    private void awaitBackground() throws InterruptedIOException {
+        try {
+            background.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for output");
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Sink closed");
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.gson.pipeline;
+
+/**
+ * Progress of a {@link CheckpointedPipeline}: everything before {@code inputOffset} has been
+ * processed and its output occupies exactly the first {@code outputPosition} bytes of the output.
+ *
+ * @param inputOffset    byte offset of the next input element (an element / line start)
+ * @param outputPosition length of the committed output
+ * @param recordsRead    input elements processed so far
+ * @param recordsWritten output elements written so far
+ */
+public record Checkpoint(long inputOffset, long outputPosition, long recordsRead, long recordsWritten) {
+}
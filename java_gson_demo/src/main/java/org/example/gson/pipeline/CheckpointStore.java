@@ -0,0 +1,82 @@
+package org.example.gson.pipeline;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Persists a {@link Checkpoint} as a small JSON file.
+ * <p>
+ * {@link #save(Checkpoint)} writes a temporary file, forces it to disk and renames it over the
+ * previous checkpoint, so after a crash the file holds either the old or the new checkpoint,
+ * never a torn mix of both.
+ */
+public class CheckpointStore {
+
+    private final Path file;
+    private final Path tempFile;
+
+    public CheckpointStore(Path file) {
+        this.file = file;
+        this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    }
+
+    public Optional<Checkpoint> load() throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        long inputOffset = 0, outputPosition = 0, recordsRead = 0, recordsWritten = 0;
+        try (JsonReader reader = new JsonReader(new StringReader(Files.readString(file, StandardCharsets.UTF_8)))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "inputOffset" -> inputOffset = reader.nextLong();
+                    case "outputPosition" -> outputPosition = reader.nextLong();
+                    case "recordsRead" -> recordsRead = reader.nextLong();
+                    case "recordsWritten" -> recordsWritten = reader.nextLong();
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return Optional.of(new Checkpoint(inputOffset, outputPosition, recordsRead, recordsWritten));
+    }
+
+    public void save(Checkpoint checkpoint) throws IOException {
+        StringWriter json = new StringWriter();
+        try (JsonWriter writer = new JsonWriter(json)) {
+            writer.beginObject()
+                    .name("inputOffset").value(checkpoint.inputOffset())
+                    .name("outputPosition").value(checkpoint.outputPosition())
+                    .name("recordsRead").value(checkpoint.recordsRead())
+                    .name("recordsWritten").value(checkpoint.recordsWritten())
+                    .endObject();
+        }
+
+        try (FileChannel channel = FileChannel.open(tempFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(json.toString().getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public void clear() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(tempFile);
+    }
+}
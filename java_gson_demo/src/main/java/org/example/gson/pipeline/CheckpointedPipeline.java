@@ -0,0 +1,182 @@
+package org.example.gson.pipeline;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import org.example.gson.tree.CompactJsonObject;
+import org.example.gson.tree.CompactJsonParser;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter/transform job over a large file (JSON array or NDJSON) that can be resumed after a crash.
+ * <p>
+ * Every {@link #setCheckpointInterval(long, long) few thousand records / seconds} the output is
+ * flushed and forced to disk, then a {@link Checkpoint} (next input offset + output length) is
+ * saved atomically by a {@link CheckpointStore}. When a checkpoint exists, {@link #run} truncates
+ * the output to the committed length (dropping whatever was written after it) and positions the
+ * input {@link FileChannel} directly at the saved offset, so nothing before it is read again.
+ * The checkpoint is removed once the job completes.
+ * <p>
+ * Output uses the same framing as the input: a JSON array for {@link Format#JSON_ARRAY}
+ * (written by hand so that it can be continued after truncation), one line per value for
+ * {@link Format#NDJSON}.
+ */
+public class CheckpointedPipeline {
+
+    public enum Format {
+        JSON_ARRAY,
+        NDJSON
+    }
+
+    @FunctionalInterface
+    public interface Transform {
+        /**
+         * @return the element to write, or {@code null} to drop the entry
+         */
+        JsonElement apply(CompactJsonObject entry) throws IOException;
+    }
+
+    /** serializeNulls: toJson(JsonElement, JsonWriter) otherwise drops members whose value is null */
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    private final Path input;
+    private final Path output;
+    private final Format format;
+    private final CheckpointStore checkpointStore;
+
+    private long checkpointEveryRecords = 10_000;
+    private long checkpointEveryNanos = TimeUnit.SECONDS.toNanos(5);
+
+    public CheckpointedPipeline(Path input, Path output, Format format, Path checkpointFile) {
+        this.input = input;
+        this.output = output;
+        this.format = format;
+        this.checkpointStore = new CheckpointStore(checkpointFile);
+    }
+
+    /**
+     * A checkpoint is taken when either limit is reached, whichever comes first.
+     */
+    public void setCheckpointInterval(long records, long millis) {
+        this.checkpointEveryRecords = records;
+        this.checkpointEveryNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * Runs (or resumes) the job.
+     *
+     * @param prefilter optional byte-level prefilter, {@code null} to parse every element
+     * @return the final progress
+     */
+    public Checkpoint run(RawFieldPrefilter prefilter, Transform transform) throws IOException {
+        Optional<Checkpoint> resumeFrom = checkpointStore.load();
+        Checkpoint start = resumeFrom.orElse(new Checkpoint(0, 0, 0, 0));
+
+        try (FileChannel inChannel = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel outChannel = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+            // discard output written after the last checkpoint, then continue right behind it
+            outChannel.truncate(start.outputPosition());
+            outChannel.position(start.outputPosition());
+            inChannel.position(start.inputOffset());
+
+            Writer out = new BufferedWriter(
+                    new OutputStreamWriter(Channels.newOutputStream(outChannel), StandardCharsets.UTF_8), 64 * 1024);
+            Job job = new Job(outChannel, out, start, prefilter, transform);
+
+            if (format == Format.JSON_ARRAY && resumeFrom.isEmpty()) {
+                out.write('[');
+            }
+
+            InputStream in = Channels.newInputStream(inChannel);
+            if (format == Format.JSON_ARRAY) {
+                RawJsonArrayScanner scanner = resumeFrom.isPresent()
+                        ? RawJsonArrayScanner.resume(in, start.inputOffset())
+                        : new RawJsonArrayScanner(in);
+                scanner.scan(job);
+                out.write(']');
+            } else {
+                new NdjsonReader(in, start.inputOffset(), Long.MAX_VALUE).readLines(job);
+            }
+
+            out.flush();
+            outChannel.force(false);
+            Checkpoint done = new Checkpoint(inChannel.size(), outChannel.position(), job.recordsRead, job.recordsWritten);
+            checkpointStore.clear();
+            return done;
+        }
+    }
+
+    private final class Job implements RawElementConsumer {
+        private final FileChannel outChannel;
+        private final Writer out;
+        private final RawFieldPrefilter prefilter;
+        private final Transform transform;
+        private final CompactJsonParser parser = new CompactJsonParser();
+
+        private long recordsRead;
+        private long recordsWritten;
+        private long sinceCheckpoint;
+        private long lastCheckpointNanos = System.nanoTime();
+
+        Job(FileChannel outChannel, Writer out, Checkpoint start, RawFieldPrefilter prefilter, Transform transform) {
+            this.outChannel = outChannel;
+            this.out = out;
+            this.prefilter = prefilter;
+            this.transform = transform;
+            this.recordsRead = start.recordsRead();
+            this.recordsWritten = start.recordsWritten();
+        }
+
+        @Override
+        public void accept(byte[] buffer, int offset, int length, long inputOffset) throws IOException {
+            // checkpoint *before* the element: everything up to inputOffset is fully written
+            if (sinceCheckpoint >= checkpointEveryRecords
+                    || System.nanoTime() - lastCheckpointNanos >= checkpointEveryNanos) {
+                checkpoint(inputOffset);
+            }
+            recordsRead++;
+            sinceCheckpoint++;
+
+            if (prefilter != null && !prefilter.mayMatch(buffer, offset, length)) {
+                return;
+            }
+            JsonElement result = transform.apply(parser.parseObject(buffer, offset, length));
+            if (result == null) {
+                return;
+            }
+
+            if (format == Format.JSON_ARRAY && recordsWritten > 0) {
+                out.write(',');
+            }
+            // a fresh JsonWriter per element: the framing is ours, so it survives truncate + resume
+            GSON.toJson(result, new JsonWriter(out));
+            if (format == Format.NDJSON) {
+                out.write('\n');
+            }
+            recordsWritten++;
+        }
+
+        private void checkpoint(long inputOffset) throws IOException {
+            out.flush();
+            // output must be durable before the checkpoint that points past it
+            outChannel.force(false);
+            checkpointStore.save(new Checkpoint(inputOffset, outChannel.position(), recordsRead, recordsWritten));
+            sinceCheckpoint = 0;
+            lastCheckpointNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.gson.pipeline;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads newline-delimited JSON (JSON Lines): one value per line, no enclosing array.
+ * <p>
+ * Lines are handed out as raw bytes with their input offset, so each one can be parsed
+ * independently (or not at all, see {@link RawFieldPrefilter}). Because every line starts at a
+ * known byte offset, a file can be split into line-aligned {@link ByteRange}s and processed in
+ * parallel, or reading can resume at an offset reported earlier. {@code \r\n} line endings and
+ * blank lines are accepted.
+ */
+public class NdjsonReader implements AutoCloseable {
+
+    /**
+     * Half-open byte range {@code [start, end)} of an NDJSON file; both ends are line starts.
+     */
+    public record ByteRange(long start, long end) {
+    }
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final long end;
+    private byte[] buffer = new byte[DEFAULT_BUFFER_SIZE];
+    private int limit;
+    private int pos;
+    // input offset of buffer[0]
+    private long bufferBase;
+    private boolean eof;
+
+    /**
+     * @param in          input positioned at {@code startOffset}
+     * @param startOffset byte offset of the first line, used for reported offsets
+     * @param end         offset to stop at (a line start), or {@link Long#MAX_VALUE} for the whole input
+     */
+    public NdjsonReader(InputStream in, long startOffset, long end) {
+        this.in = in;
+        this.bufferBase = startOffset;
+        this.end = end;
+    }
+
+    public NdjsonReader(InputStream in) {
+        this(in, 0, Long.MAX_VALUE);
+    }
+
+    public static NdjsonReader open(Path file, long startOffset) throws IOException {
+        return open(file, new ByteRange(startOffset, Long.MAX_VALUE));
+    }
+
+    /**
+     * Opens {@code file} positioned directly at {@code range.start()} (no re-reading of the prefix).
+     */
+    public static NdjsonReader open(Path file, ByteRange range) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        channel.position(range.start());
+        return new NdjsonReader(Channels.newInputStream(channel), range.start(), range.end());
+    }
+
+    /**
+     * Splits {@code file} into at most {@code parts} line-aligned ranges of roughly equal size.
+     */
+    public static List<ByteRange> split(Path file, int parts) throws IOException {
+        List<ByteRange> ranges = new ArrayList<>(parts);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = 0;
+            for (int i = 1; i <= parts && start < size; i++) {
+                long end = i == parts ? size : nextLineStart(channel, size * i / parts, size);
+                if (end > start) {
+                    ranges.add(new ByteRange(start, end));
+                    start = end;
+                }
+            }
+        }
+        return ranges;
+    }
+
+    private static long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(8 * 1024);
+        long position = from;
+        while (position < size) {
+            chunk.clear();
+            int read = channel.read(chunk, position);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (chunk.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    /**
+     * Hands every non-blank line (without its line terminator) to {@code consumer}.
+     *
+     * @return the number of lines read
+     */
+    public long readLines(RawElementConsumer consumer) throws IOException {
+        long count = 0;
+        while (true) {
+            int newline = findNewline();
+            if (newline < 0 && pos == limit) {
+                return count; // nothing left after the last terminator
+            }
+            int lineStart = pos;
+            int lineEnd = newline < 0 ? limit : newline;
+            pos = newline < 0 ? limit : newline + 1;
+
+            int trimmedEnd = lineEnd;
+            if (trimmedEnd > lineStart && buffer[trimmedEnd - 1] == '\r') {
+                trimmedEnd--;
+            }
+            if (!isBlank(lineStart, trimmedEnd)) {
+                consumer.accept(buffer, lineStart, trimmedEnd - lineStart, bufferBase + lineStart);
+                count++;
+            }
+            if (newline < 0) {
+                return count; // last line without a trailing newline
+            }
+        }
+    }
+
+    /**
+     * @return offset of the next line to be read, i.e. where a resumed reader would start
+     */
+    public long position() {
+        return bufferBase + pos;
+    }
+
+    /**
+     * Returns the index of the next {@code '\n'} at or after {@link #pos}, refilling (and moving
+     * the pending line to the buffer start) as needed; -1 at end of input.
+     */
+    private int findNewline() throws IOException {
+        int scanFrom = pos;
+        while (true) {
+            for (int i = scanFrom; i < limit; i++) {
+                if (buffer[i] == '\n') return i;
+            }
+            int scanned = limit - pos;
+            if (!fill()) return -1;
+            scanFrom = pos + scanned;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (eof) return false;
+        if (pos > 0) {
+            System.arraycopy(buffer, pos, buffer, 0, limit - pos);
+            limit -= pos;
+            bufferBase += pos;
+            pos = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        long remaining = end - (bufferBase + limit);
+        if (remaining <= 0) {
+            eof = true;
+            return false;
+        }
+        int read = in.read(buffer, limit, (int) Math.min(buffer.length - limit, remaining));
+        if (read <= 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private boolean isBlank(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (!RawJsonArrayScanner.isWhitespace(buffer[i])) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.gson.pipeline;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonWriter;
+import org.example.gson.tree.CompactJson;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes newline-delimited JSON: every value goes on its own line, in compact form.
+ * <p>
+ * {@link #append(Path)} adds lines to the end of an existing file without rewriting it; if the
+ * file does not end with a newline a terminator is written first, so the new lines never get
+ * glued onto the previous one.
+ */
+public class NdjsonWriter implements Flushable, AutoCloseable {
+
+    /** serializeNulls: toJson(JsonElement, JsonWriter) otherwise drops members whose value is null */
+    private static final Gson GSON = new GsonBuilder().serializeNulls().create();
+
+    private final Writer out;
+    private final JsonWriter jsonWriter;
+    private long lines;
+
+    public NdjsonWriter(Writer out) {
+        this.out = out;
+        this.jsonWriter = new JsonWriter(out);
+        // lenient: a JsonWriter otherwise refuses a second top-level value
+        this.jsonWriter.setLenient(true);
+    }
+
+    public static NdjsonWriter create(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        return new NdjsonWriter(newWriter(channel));
+    }
+
+    public static NdjsonWriter append(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        channel.position(size);
+        if (size > 0) {
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.read(last, size - 1);
+            if (last.get(0) != '\n') {
+                channel.write(ByteBuffer.wrap(new byte[]{'\n'}));
+            }
+        }
+        return new NdjsonWriter(newWriter(channel));
+    }
+
+    private static Writer newWriter(FileChannel channel) {
+        return new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8),
+                64 * 1024);
+    }
+
+    public void write(JsonElement element) throws IOException {
+        GSON.toJson(element, jsonWriter);
+        endLine();
+    }
+
+    /**
+     * Writes a compact tree value ({@code CompactJsonObject}, {@code CompactJsonArray} or a primitive).
+     */
+    public void writeCompact(Object value) throws IOException {
+        CompactJson.write(jsonWriter, value);
+        endLine();
+    }
+
+    /**
+     * Copies an already encoded line (e.g. straight from an {@link NdjsonReader}) without parsing it.
+     */
+    public void writeRaw(byte[] buffer, int offset, int length) throws IOException {
+        out.write(new String(buffer, offset, length, StandardCharsets.UTF_8));
+        endLine();
+    }
+
+    private void endLine() throws IOException {
+        // JsonWriter writes straight through to `out`, so the terminator lands after the value
+        out.write('\n');
+        lines++;
+    }
+
+    public long lineCount() {
+        return lines;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        jsonWriter.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        // not jsonWriter.close(): it rejects a document without any value
+        out.close();
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.gson.pipeline;
+
+import org.example.gson.tree.CompactJsonObject;
+import org.example.gson.tree.CompactJsonParser;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * First stage of a filter pipeline over a top-level array of objects: elements are split out as
+ * raw bytes by {@link RawJsonArrayScanner}, rejected early by a {@link RawFieldPrefilter}, and
+ * only the candidates are parsed into {@link CompactJsonObject}s.
+ * <p>
+ * The same stage also runs over NDJSON input ({@link #run(NdjsonReader, ObjectConsumer)}), where
+ * every line is an element.
+ * <p>
+ * The consumer still has to apply the exact predicate, the prefilter only removes elements
+ * that cannot match.
+ */
+public class PrefilteredArrayStage {
+
+    @FunctionalInterface
+    public interface ObjectConsumer {
+        void accept(CompactJsonObject object) throws IOException;
+    }
+
+    private final RawFieldPrefilter prefilter;
+    private final CompactJsonParser parser = new CompactJsonParser();
+
+    private long scanned;
+    private long parsed;
+
+    public PrefilteredArrayStage(RawFieldPrefilter prefilter) {
+        this.prefilter = prefilter;
+    }
+
+    public void run(InputStream in, ObjectConsumer consumer) throws IOException {
+        new RawJsonArrayScanner(in).scan(filtering(consumer));
+    }
+
+    public void run(NdjsonReader in, ObjectConsumer consumer) throws IOException {
+        in.readLines(filtering(consumer));
+    }
+
+    private RawElementConsumer filtering(ObjectConsumer consumer) {
+        return (buffer, offset, length, inputOffset) -> {
+            scanned++;
+            if (!prefilter.mayMatch(buffer, offset, length)) {
+                return;
+            }
+            parsed++;
+            consumer.accept(parser.parseObject(buffer, offset, length));
+        };
+    }
+
+    public long scannedCount() {
+        return scanned;
+    }
+
+    public long parsedCount() {
+        return parsed;
+    }
+}
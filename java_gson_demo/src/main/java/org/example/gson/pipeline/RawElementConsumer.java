@@ -0,0 +1,17 @@
+package org.example.gson.pipeline;
+
+import java.io.IOException;
+
+/**
+ * Receives one JSON value as raw UTF-8 bytes, e.g. an array element or an NDJSON line.
+ */
+@FunctionalInterface
+public interface RawElementConsumer {
+    /**
+     * @param buffer      producer-owned buffer, only valid during the call
+     * @param offset      start of the value in {@code buffer}
+     * @param length      value length in bytes
+     * @param inputOffset byte offset of the value in the whole input
+     */
+    void accept(byte[] buffer, int offset, int length, long inputOffset) throws IOException;
+}
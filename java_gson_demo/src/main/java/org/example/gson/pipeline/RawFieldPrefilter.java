@@ -0,0 +1,105 @@
+package org.example.gson.pipeline;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Cheap byte-level check whether a raw JSON element <em>may</em> contain {@code "field": "value"}.
+ * <p>
+ * The answer is conservative: {@code false} means the element certainly does not match, so the
+ * expensive parse can be skipped; {@code true} means "hand it to the real parser", which makes
+ * the exact decision. The prefilter therefore answers {@code true} whenever the bytes are
+ * ambiguous:
+ * <ul>
+ *     <li>the element contains a backslash, so the field or value could be written with
+ *     unicode escapes;</li>
+ *     <li>the match is case-insensitive and the value contains a letter with a non-ASCII case
+ *     variant (e.g. {@code K} / KELVIN SIGN), and the element has non-ASCII bytes.</li>
+ * </ul>
+ * A match inside a nested object is still reported as a candidate; the parser rejects it.
+ */
+public class RawFieldPrefilter {
+
+    private final byte[] quotedField;
+    private final byte[] value;
+    private final boolean ignoreCase;
+    private final boolean nonAsciiAmbiguous;
+
+    public RawFieldPrefilter(String field, String value, boolean ignoreCase) {
+        this.quotedField = ("\"" + field + "\"").getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (ignoreCase) {
+            // the same ASCII-only fold as the input bytes get; String.toUpperCase() would depend on
+            // the default locale (e.g. "i" becomes a dotted capital I in Turkish)
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = upperAscii(bytes[i]);
+            }
+        }
+        this.value = bytes;
+        this.ignoreCase = ignoreCase;
+        this.nonAsciiAmbiguous = ignoreCase && hasNonAsciiCaseVariant(value);
+    }
+
+    public static RawFieldPrefilter equalsIgnoreCase(String field, String value) {
+        return new RawFieldPrefilter(field, value, true);
+    }
+
+    public boolean mayMatch(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        boolean ambiguous = false;
+        byte first = quotedField[0];
+
+        for (int i = offset; i < end; i++) {
+            byte b = buffer[i];
+            if (b == first) {
+                if (matchesAt(buffer, i, end)) return true;
+            } else if (b == '\\' || (b < 0 && nonAsciiAmbiguous)) {
+                ambiguous = true;
+            }
+        }
+        return ambiguous;
+    }
+
+    /**
+     * Checks for {@code "field" ws* : ws* "value"} starting at the quote at {@code start}.
+     */
+    private boolean matchesAt(byte[] buffer, int start, int end) {
+        int pos = start;
+        if (end - pos < quotedField.length) return false;
+        for (byte b : quotedField) {
+            if (buffer[pos++] != b) return false;
+        }
+
+        pos = skipWhitespace(buffer, pos, end);
+        if (pos == end || buffer[pos++] != ':') return false;
+        pos = skipWhitespace(buffer, pos, end);
+        if (pos == end || buffer[pos++] != '"') return false;
+
+        if (end - pos < value.length + 1) return false;
+        for (byte expected : value) {
+            byte actual = ignoreCase ? upperAscii(buffer[pos++]) : buffer[pos++];
+            if (actual != expected) return false;
+        }
+        return buffer[pos] == '"';
+    }
+
+    private static byte upperAscii(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
+
+    private static int skipWhitespace(byte[] buffer, int pos, int end) {
+        while (pos < end && RawJsonArrayScanner.isWhitespace(buffer[pos])) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean hasNonAsciiCaseVariant(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            // U+212A KELVIN SIGN, U+017F LONG S, U+0130 / U+0131 dotted/dotless I
+            if (c == 'k' || c == 's' || c == 'i') return true;
+            if (c > 0x7F) return true;
+        }
+        return false;
+    }
+}
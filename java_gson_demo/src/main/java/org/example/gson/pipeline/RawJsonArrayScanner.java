@@ -0,0 +1,173 @@
+package org.example.gson.pipeline;
+
+import com.google.gson.stream.MalformedJsonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Splits a top-level JSON array into the raw UTF-8 bytes of its elements without parsing them.
+ * <p>
+ * Only structure is tracked (nesting depth, whether we are inside a string, escapes), which is
+ * far cheaper than tokenizing; the elements are validated later by whichever parser receives them.
+ * Every element is reported together with its byte offset in the input, so a caller can record
+ * where it stopped and later {@linkplain #resume(InputStream, long) resume} at that element.
+ */
+public class RawJsonArrayScanner {
+
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private byte[] buffer;
+    private int limit;
+    private int pos;
+    // first byte that must survive the next refill (start of the current element)
+    private int mark;
+    // input offset of buffer[0]
+    private long bufferBase;
+    // started inside the array (at an element start) instead of before '['
+    private boolean resumed;
+
+    public RawJsonArrayScanner(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public RawJsonArrayScanner(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Creates a scanner that continues an array from an element start reported earlier.
+     *
+     * @param in          input already positioned at {@code elementOffset}
+     * @param elementOffset input offset of the element, as passed to {@link RawElementConsumer}
+     */
+    public static RawJsonArrayScanner resume(InputStream in, long elementOffset) {
+        RawJsonArrayScanner scanner = new RawJsonArrayScanner(in);
+        scanner.bufferBase = elementOffset;
+        scanner.resumed = true;
+        return scanner;
+    }
+
+    /**
+     * Reads the whole array (the rest of it, when resumed) and hands every element to {@code consumer}.
+     *
+     * @return the number of elements
+     */
+    public long scan(RawElementConsumer consumer) throws IOException {
+        if (!resumed) {
+            if (!skipWhitespace() || buffer[pos] != '[') {
+                throw new MalformedJsonException("Expected '[' at offset " + (bufferBase + pos));
+            }
+            pos++;
+        }
+
+        long count = 0;
+        while (true) {
+            if (!skipWhitespace()) {
+                throw new MalformedJsonException("Unterminated array");
+            }
+            byte b = buffer[pos];
+            if (b == ']') {
+                return count;
+            }
+            if (b == ',') {
+                if (count == 0) {
+                    throw new MalformedJsonException("Unexpected ',' at offset " + (bufferBase + pos));
+                }
+                pos++;
+                if (!skipWhitespace()) {
+                    throw new MalformedJsonException("Unterminated array");
+                }
+            } else if (count > 0) {
+                throw new MalformedJsonException("Expected ',' or ']' at offset " + (bufferBase + pos));
+            }
+
+            mark = pos;
+            scanElement();
+            consumer.accept(buffer, mark, pos - mark, bufferBase + mark);
+            mark = pos;
+            count++;
+        }
+    }
+
+    /**
+     * Advances {@link #pos} past the element starting at {@link #mark}.
+     */
+    private void scanElement() throws IOException {
+        int depth = 0;
+        boolean inString = false;
+        boolean escaped = false;
+
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw new MalformedJsonException("Unterminated element at offset " + (bufferBase + mark));
+            }
+            byte b = buffer[pos];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                    if (depth == 0) {
+                        pos++;
+                        return;
+                    }
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0) return; // end of a primitive element at the closing ']'
+                if (--depth == 0) {
+                    pos++;
+                    return;
+                }
+            } else if (depth == 0 && (b == ',' || isWhitespace(b))) {
+                return; // end of a number / literal
+            }
+            pos++;
+        }
+    }
+
+    private boolean skipWhitespace() throws IOException {
+        while (true) {
+            if (pos == limit) {
+                mark = pos; // nothing to keep
+                if (!fill()) return false;
+            }
+            if (!isWhitespace(buffer[pos])) return true;
+            pos++;
+        }
+    }
+
+    /**
+     * Reads more input, first discarding everything before {@link #mark}; the buffer only grows
+     * when a single element does not fit.
+     */
+    private boolean fill() throws IOException {
+        if (mark > 0) {
+            System.arraycopy(buffer, mark, buffer, 0, limit - mark);
+            limit -= mark;
+            pos -= mark;
+            bufferBase += mark;
+            mark = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        int read = in.read(buffer, limit, buffer.length - limit);
+        if (read <= 0) return false;
+        limit += read;
+        return true;
+    }
+
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
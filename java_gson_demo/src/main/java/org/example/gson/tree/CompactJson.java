@@ -0,0 +1,155 @@
+package org.example.gson.tree;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Conversions between the compact tree ({@link CompactJsonObject} / {@link CompactJsonArray})
+ * and Gson's {@link JsonElement} tree, plus direct writing to a {@link JsonWriter}
+ * so that the compact tree never has to be materialized as {@code JsonElement}s for output.
+ */
+public final class CompactJson {
+
+    private CompactJson() {
+    }
+
+    public static JsonElement toJsonElement(Object value) {
+        if (value == null) {
+            return JsonNull.INSTANCE;
+        }
+        if (value instanceof CompactJsonObject object) {
+            JsonObject result = new JsonObject();
+            for (int i = 0; i < object.size(); i++) {
+                result.add(object.keyAt(i), toJsonElement(object.valueAt(i)));
+            }
+            return result;
+        }
+        if (value instanceof CompactJsonArray array) {
+            JsonArray result = new JsonArray();
+            for (int i = 0; i < array.size(); i++) {
+                result.add(toJsonElement(array.get(i)));
+            }
+            return result;
+        }
+        if (value instanceof String string) {
+            return new JsonPrimitive(string);
+        }
+        if (value instanceof Number number) {
+            return new JsonPrimitive(number);
+        }
+        if (value instanceof Boolean bool) {
+            return new JsonPrimitive(bool);
+        }
+        throw new IllegalArgumentException("Not a compact JSON value: " + value.getClass());
+    }
+
+    public static Object fromJsonElement(JsonElement element) {
+        if (element == null || element.isJsonNull()) {
+            return null;
+        }
+        if (element.isJsonObject()) {
+            JsonObject object = element.getAsJsonObject();
+            int size = object.entrySet().size();
+            String[] keys = new String[size];
+            Object[] values = new Object[size];
+            // JsonObject keys are already distinct
+            int i = 0;
+            for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+                keys[i] = entry.getKey();
+                values[i++] = fromJsonElement(entry.getValue());
+            }
+            return new CompactJsonObject(keys, values);
+        }
+        if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            Object[] elements = new Object[array.size()];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = fromJsonElement(array.get(i));
+            }
+            return new CompactJsonArray(elements);
+        }
+        JsonPrimitive primitive = element.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return primitive.getAsBoolean();
+        }
+        if (primitive.isNumber()) {
+            return primitive.getAsNumber();
+        }
+        return primitive.getAsString();
+    }
+
+    public static void write(JsonWriter writer, Object value) throws IOException {
+        if (value == null) {
+            writer.nullValue();
+        } else if (value instanceof CompactJsonObject object) {
+            writer.beginObject();
+            for (int i = 0; i < object.size(); i++) {
+                writer.name(object.keyAt(i));
+                write(writer, object.valueAt(i));
+            }
+            writer.endObject();
+        } else if (value instanceof CompactJsonArray array) {
+            writer.beginArray();
+            for (int i = 0; i < array.size(); i++) {
+                write(writer, array.get(i));
+            }
+            writer.endArray();
+        } else if (value instanceof String string) {
+            writer.value(string);
+        } else if (value instanceof Number number) {
+            writer.value(number);
+        } else if (value instanceof Boolean bool) {
+            writer.value(bool);
+        } else {
+            throw new IllegalArgumentException("Not a compact JSON value: " + value.getClass());
+        }
+    }
+
+    public static String toJson(Object value) {
+        StringWriter stringWriter = new StringWriter();
+        try {
+            JsonWriter writer = new JsonWriter(stringWriter);
+            writer.setLenient(true); // allow top-level primitives
+            write(writer, value);
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stringWriter.toString();
+    }
+
+    /**
+     * Element-wise equality of tree values. Numbers compare by their text, since
+     * {@code LazilyParsedNumber} has no {@code equals} of its own.
+     */
+    static boolean valuesEqual(Object[] a, Object[] b) {
+        if (a.length != b.length) return false;
+        for (int i = 0; i < a.length; i++) {
+            Object x = a[i];
+            Object y = b[i];
+            if (x instanceof Number && y instanceof Number ? !x.toString().equals(y.toString()) : !Objects.equals(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** hash consistent with {@link #valuesEqual} */
+    static int valuesHash(Object[] values) {
+        int hash = 1;
+        for (Object value : values) {
+            hash = 31 * hash + (value instanceof Number ? value.toString().hashCode() : Objects.hashCode(value));
+        }
+        return hash;
+    }
+}
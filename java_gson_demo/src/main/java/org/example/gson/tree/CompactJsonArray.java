@@ -0,0 +1,52 @@
+package org.example.gson.tree;
+
+/**
+ * Immutable JSON array backed by a single {@code Object[]} (no {@code ArrayList} wrapper,
+ * no {@code JsonElement} per slot). Element types are the same as for {@link CompactJsonObject}.
+ */
+public final class CompactJsonArray {
+
+    public static final CompactJsonArray EMPTY = new CompactJsonArray(new Object[0]);
+
+    private final Object[] elements;
+
+    CompactJsonArray(Object[] elements) {
+        this.elements = elements;
+    }
+
+    public static CompactJsonArray of(Object... elements) {
+        return new CompactJsonArray(elements.clone());
+    }
+
+    public int size() {
+        return elements.length;
+    }
+
+    public boolean isEmpty() {
+        return elements.length == 0;
+    }
+
+    public Object get(int i) {
+        return elements[i];
+    }
+
+    public CompactJsonObject getObject(int i) {
+        return (CompactJsonObject) elements[i];
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        return obj instanceof CompactJsonArray that && CompactJson.valuesEqual(elements, that.elements);
+    }
+
+    @Override
+    public int hashCode() {
+        return CompactJson.valuesHash(elements);
+    }
+
+    @Override
+    public String toString() {
+        return CompactJson.toJson(this);
+    }
+}
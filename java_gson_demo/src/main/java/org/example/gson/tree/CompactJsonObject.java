@@ -0,0 +1,187 @@
+package org.example.gson.tree;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable JSON object stored as two flat arrays (keys / values) instead of a
+ * {@code LinkedTreeMap} with one node per entry.
+ * <p>
+ * Small objects (up to {@link #LINEAR_SCAN_LIMIT} entries, i.e. almost every log line)
+ * are looked up with a linear scan; keys produced by {@link CompactJsonParser} are interned,
+ * so the scan usually succeeds on a reference comparison before {@code equals} is needed.
+ * Larger objects get an open-addressing hash index built once in the constructor.
+ * <p>
+ * Values are {@link String}, {@link Number}, {@link Boolean}, {@code null},
+ * {@link CompactJsonObject} or {@link CompactJsonArray}.
+ */
+public final class CompactJsonObject {
+
+    static final int LINEAR_SCAN_LIMIT = 8;
+
+    private static final String[] NO_KEYS = new String[0];
+    private static final Object[] NO_VALUES = new Object[0];
+
+    public static final CompactJsonObject EMPTY = new CompactJsonObject(NO_KEYS, NO_VALUES);
+
+    private final String[] keys;
+    private final Object[] values;
+    // slot -> entry index + 1 (0 means empty); null for small objects
+    private final int[] index;
+
+    /**
+     * Arrays are taken as-is (no defensive copy); callers inside this package
+     * must not touch them afterwards, and the keys must be distinct.
+     */
+    CompactJsonObject(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        this.index = keys.length > LINEAR_SCAN_LIMIT ? buildIndex(keys) : null;
+    }
+
+    /**
+     * A key given more than once keeps its first position and its last value, like
+     * {@code JsonObject.add}.
+     */
+    public static CompactJsonObject of(String[] keys, Object[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values must have the same length");
+        }
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            entries.put(keys[i], values[i]);
+        }
+        if (entries.size() == keys.length) {
+            return new CompactJsonObject(keys.clone(), values.clone());
+        }
+        return new CompactJsonObject(entries.keySet().toArray(NO_KEYS), entries.values().toArray());
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    public String keyAt(int i) {
+        return keys[i];
+    }
+
+    public Object valueAt(int i) {
+        return values[i];
+    }
+
+    public boolean has(String key) {
+        return indexOf(key) >= 0;
+    }
+
+    /**
+     * @return the value for {@code key}, or {@code null} if it is absent or JSON {@code null}
+     */
+    public Object get(String key) {
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    public String getString(String key) {
+        Object value = get(key);
+        return value == null ? null : value.toString();
+    }
+
+    public CompactJsonObject getObject(String key) {
+        return (CompactJsonObject) get(key);
+    }
+
+    public CompactJsonArray getArray(String key) {
+        return (CompactJsonArray) get(key);
+    }
+
+    public int indexOf(String key) {
+        if (index == null) {
+            // identity pass first: interned keys hit here without touching the chars
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) return i;
+            }
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) return i;
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = spread(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) return -1;
+            String candidate = keys[entry - 1];
+            if (candidate == key || candidate.equals(key)) return entry - 1;
+        }
+    }
+
+    /**
+     * Returns a copy with {@code key} set to {@code value}; the entry keeps its position
+     * if it already exists, otherwise it is appended (same ordering as {@code JsonObject.add}).
+     */
+    public CompactJsonObject with(String key, Object value) {
+        int i = indexOf(key);
+        if (i >= 0) {
+            Object[] newValues = values.clone();
+            newValues[i] = value;
+            return new CompactJsonObject(keys, newValues);
+        }
+        String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+        Object[] newValues = Arrays.copyOf(values, values.length + 1);
+        newKeys[keys.length] = key;
+        newValues[values.length] = value;
+        return new CompactJsonObject(newKeys, newValues);
+    }
+
+    public CompactJsonObject without(String key) {
+        int i = indexOf(key);
+        if (i < 0) return this;
+        String[] newKeys = new String[keys.length - 1];
+        Object[] newValues = new Object[values.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, i);
+        System.arraycopy(values, 0, newValues, 0, i);
+        System.arraycopy(keys, i + 1, newKeys, i, keys.length - i - 1);
+        System.arraycopy(values, i + 1, newValues, i, values.length - i - 1);
+        return new CompactJsonObject(newKeys, newValues);
+    }
+
+    private static int[] buildIndex(String[] keys) {
+        int capacity = Integer.highestOneBit(keys.length * 2 - 1) << 1;
+        int[] index = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return index;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) return true;
+        if (!(obj instanceof CompactJsonObject that)) return false;
+        return Arrays.equals(keys, that.keys) && CompactJson.valuesEqual(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(Arrays.hashCode(keys), CompactJson.valuesHash(values));
+    }
+
+    @Override
+    public String toString() {
+        return CompactJson.toJson(this);
+    }
+}
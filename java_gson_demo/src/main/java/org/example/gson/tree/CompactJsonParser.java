@@ -0,0 +1,147 @@
+package org.example.gson.tree;
+
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.google.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the compact tree from a Gson {@link JsonReader}; a drop-in replacement for
+ * {@code new JsonParser().parse(reader)} inside the streaming pipelines.
+ * <p>
+ * Object keys are interned in a per-parser table, so a stream of log objects with the same
+ * shape shares a single {@code String} per key name and lookups hit the identity fast path.
+ * Numbers are kept as {@link LazilyParsedNumber} (the same as {@code JsonParser}), so no
+ * precision is lost and nothing is converted unless it is read.
+ * <p>
+ * Not thread-safe: use one parser per thread.
+ */
+public class CompactJsonParser {
+
+    private static final int MAX_INTERNED_KEYS = 4096;
+
+    private final Map<String, String> keyTable = new HashMap<>();
+
+    public Object parse(Reader json) throws IOException {
+        JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+        return parse(reader);
+    }
+
+    /**
+     * Parses one object from raw UTF-8 bytes, e.g. an element found by a byte-level scanner.
+     */
+    public CompactJsonObject parseObject(byte[] utf8, int offset, int length) throws IOException {
+        return parseObject(new JsonReader(new InputStreamReader(
+                new ByteArrayInputStream(utf8, offset, length), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Reads exactly one value (object, array or primitive) from {@code reader}.
+     */
+    public Object parse(JsonReader reader) throws IOException {
+        return switch (reader.peek()) {
+            case BEGIN_OBJECT -> parseObject(reader);
+            case BEGIN_ARRAY -> parseArray(reader);
+            case STRING -> reader.nextString();
+            case NUMBER -> new LazilyParsedNumber(reader.nextString());
+            case BOOLEAN -> reader.nextBoolean();
+            case NULL -> {
+                reader.nextNull();
+                yield null;
+            }
+            default -> throw new JsonSyntaxException("Unexpected token " + reader.peek() + " at " + reader.getPath());
+        };
+    }
+
+    public CompactJsonObject parseObject(JsonReader reader) throws IOException {
+        String[] keys = new String[CompactJsonObject.LINEAR_SCAN_LIMIT];
+        Object[] values = new Object[CompactJsonObject.LINEAR_SCAN_LIMIT];
+        int size = 0;
+        // only needed for large objects, small ones check duplicates with a scan
+        Map<String, Integer> positions = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = intern(reader.nextName());
+            Object value = parse(reader);
+
+            int existing;
+            if (positions == null) {
+                existing = indexOf(keys, size, key);
+            } else {
+                Integer position = positions.get(key);
+                existing = position == null ? -1 : position;
+            }
+            if (existing >= 0) {
+                // duplicate key: last one wins, like JsonObject
+                values[existing] = value;
+                continue;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+                if (positions == null) {
+                    positions = new HashMap<>();
+                    for (int i = 0; i < size; i++) {
+                        positions.put(keys[i], i);
+                    }
+                }
+            }
+            if (positions != null) {
+                positions.put(key, size);
+            }
+            keys[size] = key;
+            values[size++] = value;
+        }
+        reader.endObject();
+
+        if (size == 0) {
+            return CompactJsonObject.EMPTY;
+        }
+        return new CompactJsonObject(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+
+    public CompactJsonArray parseArray(JsonReader reader) throws IOException {
+        Object[] elements = new Object[8];
+        int size = 0;
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size * 2);
+            }
+            elements[size++] = parse(reader);
+        }
+        reader.endArray();
+
+        return size == 0 ? CompactJsonArray.EMPTY : new CompactJsonArray(Arrays.copyOf(elements, size));
+    }
+
+    private String intern(String key) {
+        String interned = keyTable.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        if (keyTable.size() < MAX_INTERNED_KEYS) {
+            // bounded so that documents with generated keys cannot grow the table forever
+            keyTable.put(key, key);
+        }
+        return key;
+    }
+
+    private static int indexOf(String[] keys, int size, String key) {
+        for (int i = 0; i < size; i++) {
+            if (keys[i] == key || keys[i].equals(key)) return i;
+        }
+        return -1;
+    }
+}
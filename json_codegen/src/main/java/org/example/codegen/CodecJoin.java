@@ -0,0 +1,25 @@
+package org.example.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Makes a {@code String} field one part of a combined property: the parts are written as one
+ * space-separated value under {@link #name()}; reading that value splits it on whitespace into
+ * as many parts as there are fields (the last one takes the rest, missing ones become
+ * {@code ""}). Each part is also read under its own field name.
+ * <pre>{@code
+ * @CodecJoin(name = "name", part = 0) private String firstName;
+ * @CodecJoin(name = "name", part = 1) private String lastName;
+ * }</pre>
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface CodecJoin {
+
+    String name();
+
+    int part();
+}
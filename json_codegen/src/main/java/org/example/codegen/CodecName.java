@@ -0,0 +1,22 @@
+package org.example.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * JSON name of a property: written as {@link #value()}, read from it or any of the aliases.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface CodecName {
+
+    String value();
+
+    /**
+     * Other names accepted when reading, e.g. the field name of an input format that differs
+     * from the output one.
+     */
+    String[] aliases() default {};
+}
@@ -0,0 +1,574 @@
+package org.example.codegen;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes Jackson {@code StdSerializer}/{@code StdDeserializer} sources for {@link GenerateCodec}
+ * beans and a {@code GeneratedCodecModule} per package that registers them.
+ * <p>
+ * The generated code calls getters and setters directly and streams tokens: no bean
+ * introspection, reflection or tree building at runtime. Supported property types are
+ * {@code String}, primitives and their wrappers, {@code LocalDate} (ISO {@code yyyy-MM-dd}),
+ * {@code Date} (per the mapper's date settings), other {@code @GenerateCodec} beans, and
+ * {@code List}s of those; any other non-generic type is handed to the mapper.
+ */
+@SupportedAnnotationTypes({"org.example.codegen.GenerateCodec", "org.example.codegen.CodecName",
+        "org.example.codegen.CodecJoin"})
+public class CodecProcessor extends AbstractProcessor {
+
+    private static final String GENERATED = "@javax.annotation.processing.Generated(\"" + CodecProcessor.class.getName() + "\")";
+    private static final String NULL = "p.hasToken(JsonToken.VALUE_NULL)";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Map<String, List<TypeElement>> byPackage = new TreeMap<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateCodec.class)) {
+            if (element.getKind() != ElementKind.CLASS || ((TypeElement) element).getNestingKind() != NestingKind.TOP_LEVEL) {
+                error(element, "@GenerateCodec applies to top-level classes");
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            List<Property> properties = properties(type);
+            if (properties == null) {
+                continue;
+            }
+            String pkg = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+            write(pkg, type.getSimpleName() + "_JsonSerializer", new SerializerWriter(type, properties).source(), type);
+            String deserializer = new DeserializerWriter(type, properties).source();
+            if (deserializer != null) {
+                write(pkg, type.getSimpleName() + "_JsonDeserializer", deserializer, type);
+            }
+            byPackage.computeIfAbsent(pkg, k -> new ArrayList<>()).add(type);
+        }
+        byPackage.forEach(this::writeModule);
+        return true;
+    }
+
+    // --- model ---
+
+    private static final class Property {
+        final VariableElement field;
+        final String name;
+        final TypeMirror type;
+        final String getter;
+        final String setter;
+        final String jsonName;
+        final List<String> readNames = new ArrayList<>();
+        final CodecJoin join;
+
+        Property(VariableElement field, String getter, String setter) {
+            this.field = field;
+            this.name = field.getSimpleName().toString();
+            this.type = field.asType();
+            this.getter = getter;
+            this.setter = setter;
+            this.join = field.getAnnotation(CodecJoin.class);
+            CodecName codecName = field.getAnnotation(CodecName.class);
+            this.jsonName = codecName != null ? codecName.value() : name;
+            readNames.add(jsonName);
+            if (codecName != null) {
+                readNames.addAll(List.of(codecName.aliases()));
+            }
+        }
+    }
+
+    /**
+     * @return the bean's properties in declaration order, or null after reporting errors
+     */
+    private List<Property> properties(TypeElement type) {
+        boolean ok = true;
+        if (!type.getModifiers().contains(Modifier.PUBLIC) || type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "@GenerateCodec class must be public and concrete");
+            ok = false;
+        }
+        boolean noArgConstructor = ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && c.getModifiers().contains(Modifier.PUBLIC));
+        if (!noArgConstructor) {
+            error(type, "@GenerateCodec class needs a public no-arg constructor");
+            ok = false;
+        }
+        Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC)) {
+                methods.putIfAbsent(method.getSimpleName() + "/" + method.getParameters().size(), method);
+            }
+        }
+        List<Property> properties = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            ExecutableElement getter = methods.get("get" + capitalized + "/0");
+            if (getter == null && field.asType().getKind() == TypeKind.BOOLEAN) {
+                getter = methods.get("is" + capitalized + "/0");
+            }
+            ExecutableElement setter = methods.get("set" + capitalized + "/1");
+            if (getter == null || !types().isSameType(getter.getReturnType(), field.asType())) {
+                error(field, "no public getter for property '" + name + "'");
+                ok = false;
+                continue;
+            }
+            if (setter == null || !types().isSameType(setter.getParameters().get(0).asType(), field.asType())) {
+                error(field, "no public setter for property '" + name + "'");
+                ok = false;
+                continue;
+            }
+            if (!supported(field, field.asType())) {
+                ok = false;
+                continue;
+            }
+            properties.add(new Property(field, getter.getSimpleName().toString(), setter.getSimpleName().toString()));
+        }
+        return ok ? properties : null;
+    }
+
+    private enum Kind { STRING, PRIMITIVE, BOXED, LOCAL_DATE, DATE, CODEC, LIST, OTHER }
+
+    private Kind kind(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return Kind.PRIMITIVE;
+        }
+        if (type.getKind() != TypeKind.DECLARED) {
+            return Kind.OTHER;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        switch (element.getQualifiedName().toString()) {
+            case "java.lang.String":
+                return Kind.STRING;
+            case "java.time.LocalDate":
+                return Kind.LOCAL_DATE;
+            case "java.util.Date":
+                return Kind.DATE;
+            case "java.util.List":
+                return Kind.LIST;
+            default:
+                break;
+        }
+        if (element.getAnnotation(GenerateCodec.class) != null) {
+            return Kind.CODEC;
+        }
+        try {
+            types().unboxedType(type);
+            return Kind.BOXED;
+        } catch (IllegalArgumentException notBoxed) {
+            return Kind.OTHER;
+        }
+    }
+
+    private boolean supported(Element field, TypeMirror type) {
+        Kind kind = kind(type);
+        if (kind == Kind.PRIMITIVE && type.getKind() == TypeKind.CHAR
+                || kind == Kind.BOXED && types().unboxedType(type).getKind() == TypeKind.CHAR) {
+            error(field, "char properties are not supported");
+            return false;
+        }
+        if (kind == Kind.LIST) {
+            List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+            if (arguments.size() != 1 || arguments.get(0).getKind() != TypeKind.DECLARED) {
+                error(field, "List properties need a concrete element type: " + type);
+                return false;
+            }
+            return supported(field, arguments.get(0));
+        }
+        if (kind == Kind.OTHER && type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty()) {
+            error(field, "unsupported generic type " + type + "; use List<...> or a @GenerateCodec class");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Honors Jackson's {@code @JsonIgnoreProperties(ignoreUnknown = true)} on the bean, looked up by
+     * name so the processor does not need jackson-annotations on its own classpath.
+     */
+    private static boolean ignoresUnknown(TypeElement type) {
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals("com.fasterxml.jackson.annotation.JsonIgnoreProperties")) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : annotation.getElementValues().entrySet()) {
+                    if (value.getKey().getSimpleName().contentEquals("ignoreUnknown")) {
+                        return Boolean.TRUE.equals(value.getValue().getValue());
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String codecName(TypeMirror type, String suffix) {
+        return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName() + suffix;
+    }
+
+    // --- serializer ---
+
+    private final class SerializerWriter {
+        private final TypeElement type;
+        private final List<Property> properties;
+        private final StringBuilder out = new StringBuilder();
+        private int variables;
+
+        SerializerWriter(TypeElement type, List<Property> properties) {
+            this.type = type;
+            this.properties = properties;
+        }
+
+        String source() {
+            String bean = type.getQualifiedName().toString();
+            String name = type.getSimpleName() + "_JsonSerializer";
+            out.append("package ").append(packageOf(type)).append(";\n\n")
+                    .append("import com.fasterxml.jackson.core.JsonGenerator;\n")
+                    .append("import com.fasterxml.jackson.databind.SerializerProvider;\n")
+                    .append("import com.fasterxml.jackson.databind.ser.std.StdSerializer;\n\n")
+                    .append("import java.io.IOException;\n\n")
+                    .append(GENERATED).append('\n')
+                    .append("public final class ").append(name).append(" extends StdSerializer<").append(bean).append("> {\n\n")
+                    .append("    public static final ").append(name).append(" INSTANCE = new ").append(name).append("();\n\n")
+                    .append("    public ").append(name).append("() {\n")
+                    .append("        super(").append(bean).append(".class);\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    public void serialize(").append(bean).append(" value, JsonGenerator gen, SerializerProvider provider) throws IOException {\n")
+                    .append("        gen.writeStartObject(value);\n");
+            Set<String> joined = new HashSet<>();
+            for (Property property : properties) {
+                if (property.join == null) {
+                    out.append("        gen.writeFieldName(\"").append(escape(property.jsonName)).append("\");\n");
+                    writeValue("        ", "value." + property.getter + "()", property.type);
+                } else if (joined.add(property.join.name())) {
+                    StringBuilder parts = new StringBuilder();
+                    for (Property part : joinParts(properties, property.join.name())) {
+                        parts.append(parts.length() == 0 ? "" : " + \" \" + ").append("value.").append(part.getter).append("()");
+                    }
+                    out.append("        gen.writeStringField(\"").append(escape(property.join.name())).append("\", ")
+                            .append(parts).append(");\n");
+                }
+            }
+            out.append("        gen.writeEndObject();\n")
+                    .append("    }\n")
+                    .append("}\n");
+            return out.toString();
+        }
+
+        private void writeValue(String indent, String expression, TypeMirror type) {
+            switch (kind(type)) {
+                case STRING:
+                    out.append(indent).append("gen.writeString(").append(expression).append(");\n");
+                    return;
+                case PRIMITIVE:
+                    if (type.getKind() == TypeKind.BOOLEAN) {
+                        out.append(indent).append("gen.writeBoolean(").append(expression).append(");\n");
+                    } else if (type.getKind() == TypeKind.BYTE) {
+                        out.append(indent).append("gen.writeNumber((int) ").append(expression).append(");\n");
+                    } else {
+                        out.append(indent).append("gen.writeNumber(").append(expression).append(");\n");
+                    }
+                    return;
+                case OTHER:
+                    out.append(indent).append("provider.defaultSerializeValue(").append(expression).append(", gen);\n");
+                    return;
+                default:
+                    break;
+            }
+            String v = "v" + ++variables;
+            out.append(indent).append(type).append(' ').append(v).append(" = ").append(expression).append(";\n")
+                    .append(indent).append("if (").append(v).append(" == null) {\n")
+                    .append(indent).append("    gen.writeNull();\n")
+                    .append(indent).append("} else {\n");
+            String inner = indent + "    ";
+            switch (kind(type)) {
+                case BOXED:
+                    writeValue(inner, v, types().unboxedType(type));
+                    break;
+                case LOCAL_DATE:
+                    out.append(inner).append("gen.writeString(").append(v).append(".toString());\n");
+                    break;
+                case DATE:
+                    out.append(inner).append("provider.defaultSerializeDateValue(").append(v).append(", gen);\n");
+                    break;
+                case CODEC:
+                    out.append(inner).append(codecName(type, "_JsonSerializer")).append(".INSTANCE.serialize(")
+                            .append(v).append(", gen, provider);\n");
+                    break;
+                case LIST:
+                    TypeMirror element = ((DeclaredType) type).getTypeArguments().get(0);
+                    String e = "e" + variables;
+                    out.append(inner).append("gen.writeStartArray(").append(v).append(", ").append(v).append(".size());\n")
+                            .append(inner).append("for (").append(element).append(' ').append(e).append(" : ").append(v).append(") {\n");
+                    writeValue(inner + "    ", e, element);
+                    out.append(inner).append("}\n")
+                            .append(inner).append("gen.writeEndArray();\n");
+                    break;
+                default:
+                    throw new AssertionError(type);
+            }
+            out.append(indent).append("}\n");
+        }
+    }
+
+    // --- deserializer ---
+
+    private final class DeserializerWriter {
+        private final TypeElement type;
+        private final List<Property> properties;
+        private final List<String> helpers = new ArrayList<>();
+        private final Map<String, String> cases = new LinkedHashMap<>();
+        private boolean ok = true;
+
+        DeserializerWriter(TypeElement type, List<Property> properties) {
+            this.type = type;
+            this.properties = properties;
+        }
+
+        /**
+         * @return the source, or null after reporting errors
+         */
+        String source() {
+            String bean = type.getQualifiedName().toString();
+            String name = type.getSimpleName() + "_JsonDeserializer";
+            Set<String> joined = new HashSet<>();
+            for (Property property : properties) {
+                String assign = "bean." + property.setter + "(" + readExpression(property.type) + ");";
+                if (property.join == null) {
+                    addCase(property.field, property.readNames, assign);
+                    continue;
+                }
+                addCase(property.field, List.of(property.name), assign);
+                if (joined.add(property.join.name())) {
+                    addJoinCase(property.field, joinParts(properties, property.join.name()));
+                }
+            }
+            if (!ok) {
+                return null;
+            }
+            StringBuilder out = new StringBuilder();
+            out.append("package ").append(packageOf(type)).append(";\n\n")
+                    .append("import com.fasterxml.jackson.core.JsonParser;\n")
+                    .append("import com.fasterxml.jackson.core.JsonToken;\n")
+                    .append("import com.fasterxml.jackson.databind.DeserializationContext;\n")
+                    .append("import com.fasterxml.jackson.databind.deser.std.StdDeserializer;\n\n")
+                    .append("import java.io.IOException;\n\n")
+                    .append(GENERATED).append('\n')
+                    .append("public final class ").append(name).append(" extends StdDeserializer<").append(bean).append("> {\n\n")
+                    .append("    public static final ").append(name).append(" INSTANCE = new ").append(name).append("();\n\n")
+                    .append("    public ").append(name).append("() {\n")
+                    .append("        super(").append(bean).append(".class);\n")
+                    .append("    }\n\n")
+                    .append("    @Override\n")
+                    .append("    public ").append(bean).append(" deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {\n")
+                    .append("        String field;\n")
+                    .append("        if (p.isExpectedStartObjectToken()) {\n")
+                    .append("            field = p.nextFieldName();\n")
+                    .append("        } else if (p.hasToken(JsonToken.FIELD_NAME)) {\n")
+                    .append("            field = p.currentName();\n")
+                    .append("        } else {\n")
+                    .append("            return (").append(bean).append(") ctxt.handleUnexpectedToken(").append(bean).append(".class, p);\n")
+                    .append("        }\n")
+                    .append("        ").append(bean).append(" bean = new ").append(bean).append("();\n")
+                    .append("        for (; field != null; field = p.nextFieldName()) {\n")
+                    .append("            p.nextToken();\n")
+                    .append("            switch (field) {\n");
+            cases.forEach((label, body) -> out.append("                case ").append(label).append(" -> ").append(body).append('\n'));
+            out.append(ignoresUnknown(type)
+                            ? "                default -> p.skipChildren();\n"
+                            : "                default -> handleUnknownProperty(p, ctxt, bean, field);\n")
+                    .append("            }\n")
+                    .append("        }\n")
+                    .append("        return bean;\n")
+                    .append("    }\n");
+            for (String helper : helpers) {
+                out.append('\n').append(helper);
+            }
+            out.append("}\n");
+            return out.toString();
+        }
+
+        private void addCase(Element field, List<String> names, String body) {
+            StringBuilder label = new StringBuilder();
+            for (String name : names) {
+                if (cases.keySet().stream().anyMatch(existing -> existing.contains("\"" + escape(name) + "\""))) {
+                    error(field, "JSON name '" + name + "' is read by two properties");
+                    ok = false;
+                }
+                label.append(label.length() == 0 ? "" : ", ").append('"').append(escape(name)).append('"');
+            }
+            cases.put(label.toString(), body);
+        }
+
+        private void addJoinCase(Element field, List<Property> parts) {
+            for (int i = 0; i < parts.size(); i++) {
+                if (parts.get(i).join.part() != i || kind(parts.get(i).type) != Kind.STRING) {
+                    error(field, "@CodecJoin(name = \"" + parts.get(0).join.name()
+                            + "\") needs String parts numbered 0.." + (parts.size() - 1));
+                    ok = false;
+                    return;
+                }
+            }
+            StringBuilder body = new StringBuilder("{\n")
+                    .append("                    String text = ").append(NULL).append(" ? null : _parseString(p, ctxt);\n")
+                    .append("                    String[] parts = text == null ? new String[0] : text.trim().split(\"\\\\s+\", ")
+                    .append(parts.size()).append(");\n");
+            for (int i = 0; i < parts.size(); i++) {
+                body.append("                    bean.").append(parts.get(i).setter).append("(parts.length > ").append(i)
+                        .append(" ? parts[").append(i).append("] : \"\");\n");
+            }
+            body.append("                }");
+            addCase(field, List.of(parts.get(0).join.name()), body.toString());
+        }
+
+        private String readExpression(TypeMirror type) {
+            switch (kind(type)) {
+                case STRING:
+                    return NULL + " ? null : _parseString(p, ctxt)";
+                case PRIMITIVE:
+                    String kind = type.getKind().name();
+                    return "_parse" + kind.charAt(0) + kind.substring(1).toLowerCase() + "Primitive(p, ctxt)";
+                case BOXED:
+                    return NULL + " ? null : (" + type + ") " + readExpression(types().unboxedType(type));
+                case LOCAL_DATE:
+                    return NULL + " ? null : " + helper("readLocalDate", "java.time.LocalDate", null,
+                            "        String text = p.getText().trim();\n"
+                                    + "        try {\n"
+                                    + "            return java.time.LocalDate.parse(text);\n"
+                                    + "        } catch (java.time.format.DateTimeParseException e) {\n"
+                                    + "            throw ctxt.weirdStringException(text, java.time.LocalDate.class, e.getMessage());\n"
+                                    + "        }\n");
+                case DATE:
+                    return NULL + " ? null : " + helper("readDate", "java.util.Date", null,
+                            "        if (p.hasToken(JsonToken.VALUE_NUMBER_INT)) {\n"
+                                    + "            return new java.util.Date(p.getLongValue());\n"
+                                    + "        }\n"
+                                    + "        String text = p.getText().trim();\n"
+                                    + "        try {\n"
+                                    + "            return ctxt.parseDate(text);\n"
+                                    + "        } catch (IllegalArgumentException e) {\n"
+                                    + "            throw ctxt.weirdStringException(text, java.util.Date.class, e.getMessage());\n"
+                                    + "        }\n");
+                case CODEC:
+                    return NULL + " ? null : " + codecName(type, "_JsonDeserializer") + ".INSTANCE.deserialize(p, ctxt)";
+                case LIST:
+                    TypeMirror element = ((DeclaredType) type).getTypeArguments().get(0);
+                    // first: reading a nested list adds its own helper, which must not get this one's name
+                    String readElement = readExpression(element);
+                    return NULL + " ? null : " + helper("readList" + (helpers.size() + 1), type.toString(),
+                            "@SuppressWarnings(\"unchecked\")",
+                            "        if (!p.isExpectedStartArrayToken()) {\n"
+                                    + "            return (" + type + ") ctxt.handleUnexpectedToken(java.util.List.class, p);\n"
+                                    + "        }\n"
+                                    + "        " + type + " list = new java.util.ArrayList<>();\n"
+                                    + "        while (p.nextToken() != JsonToken.END_ARRAY) {\n"
+                                    + "            list.add(" + readElement + ");\n"
+                                    + "        }\n"
+                                    + "        return list;\n");
+                default:
+                    return NULL + " ? null : ctxt.readValue(p, " + types().erasure(type) + ".class)";
+            }
+        }
+
+        /**
+         * Adds a reader method (once per name) and returns its call.
+         */
+        private String helper(String name, String returnType, String annotation, String body) {
+            String method = (annotation == null ? "" : "    " + annotation + "\n") + "    private " + returnType + " " + name + "(JsonParser p, DeserializationContext ctxt) throws IOException {\n"
+                    + body + "    }\n";
+            if (!helpers.contains(method)) {
+                helpers.add(method);
+            }
+            return name + "(p, ctxt)";
+        }
+    }
+
+    // --- module ---
+
+    private void writeModule(String pkg, List<TypeElement> types) {
+        StringBuilder out = new StringBuilder();
+        out.append("package ").append(pkg).append(";\n\n")
+                .append("import com.fasterxml.jackson.databind.module.SimpleModule;\n\n")
+                .append("/**\n")
+                .append(" * Registers the compile-time generated serializers and deserializers of this package.\n")
+                .append(" */\n")
+                .append(GENERATED).append('\n')
+                .append("public final class GeneratedCodecModule extends SimpleModule {\n\n")
+                .append("    public GeneratedCodecModule() {\n")
+                .append("        super(\"GeneratedCodecModule\");\n");
+        for (TypeElement type : types) {
+            String simple = type.getSimpleName().toString();
+            out.append("        addSerializer(").append(simple).append(".class, ").append(simple).append("_JsonSerializer.INSTANCE);\n")
+                    .append("        addDeserializer(").append(simple).append(".class, ").append(simple).append("_JsonDeserializer.INSTANCE);\n");
+        }
+        out.append("    }\n")
+                .append("}\n");
+        write(pkg, "GeneratedCodecModule", out.toString(), types.toArray(new Element[0]));
+    }
+
+    // --- utilities ---
+
+    private static List<Property> joinParts(List<Property> properties, String joinName) {
+        List<Property> parts = new ArrayList<>();
+        for (Property property : properties) {
+            if (property.join != null && property.join.name().equals(joinName)) {
+                parts.add(property);
+            }
+        }
+        parts.sort((a, b) -> Integer.compare(a.join.part(), b.join.part()));
+        return parts;
+    }
+
+    private String packageOf(TypeElement type) {
+        return processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    }
+
+    private void write(String pkg, String simpleName, String source, Element... originating) {
+        try (Writer writer = processingEnv.getFiler().createSourceFile(pkg + "." + simpleName, originating).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            error(originating[0], "cannot write " + simpleName + ": " + e.getMessage());
+        }
+    }
+
+    private Types types() {
+        return processingEnv.getTypeUtils();
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.codegen;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code <Type>_JsonSerializer} and {@code <Type>_JsonDeserializer} for the annotated
+ * bean at compile time, plus a {@code GeneratedCodecModule} per package that registers them.
+ * <p>
+ * Every non-static, non-transient field is a property and needs a getter and a setter; the class
+ * needs a no-arg constructor. Property names default to the field names; see {@link CodecName}
+ * and {@link CodecJoin}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateCodec {
+}
@@ -3,6 +3,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.readvalue.Name;
+import org.example.readvalue.TolerantArrayReader;
 
 import java.io.FileReader;
 import java.io.IOException;
@@ -83,6 +84,29 @@ void main() {
             out.printf("Error while deserializing: %s", e.getMessage());
         }
 
+        // one bad element (unknown age, missing comma) does not fail the whole array:
+        // the bad elements are reported with their byte offset and the rest is read
+        out.printf("%n%n%s%n%n", "Deserializing from JSON array, skipping invalid elements");
+
+        Path invalidListFilePath = Path.of(ClassLoader.getSystemResource(INVALID_LIST_FILE).toURI());
+        TolerantArrayReader<Name> tolerantReader = new TolerantArrayReader<>(mapper.readerFor(Name.class));
+        long valid = tolerantReader.read(invalidListFilePath,
+                value -> out.printf(FIRST_NAME_S_LAST_NAME_S_N, value.firstName(), value.lastName()),
+                error -> out.printf("Skipped element %d at byte %d: %s%n%n",
+                        error.index(), error.offset(), error.message()));
+        out.printf("%d valid elements%n", valid);
+
+        // one element per line, broken in the ways a rescan has to recover from: a missing comma
+        // between elements, junk right after a broken element, an unbalanced bracket, an
+        // unterminated string; elements 2, 3, 4, 6 and 8 are skipped, the other five are read
+        out.println();
+        Path invalidLinesFilePath = Path.of(ClassLoader.getSystemResource(INVALID_LINES_FILE).toURI());
+        valid = tolerantReader.read(invalidLinesFilePath,
+                value -> out.printf(FIRST_NAME_S_LAST_NAME_S_N, value.firstName(), value.lastName()),
+                error -> out.printf("Skipped element %d at byte %d: %s%n%n",
+                        error.index(), error.offset(), error.message()));
+        out.printf("%d valid elements%n", valid);
+
 
         // should not fail while finding age (not defined) property
         // configured to ignore unknown properties
@@ -125,3 +149,5 @@ public static final String JSON_ARRAY = "[{\"firstName\": \"James\", \"lastName\
 public static final String FILE_NAME = "name.json";
 public static final String NAME_LIST_FILE_NAME = "nameList.json";
 public static final String INVALID_FILE = "invalidJson.json";
+public static final String INVALID_LIST_FILE = "invalidNameList.json";
+public static final String INVALID_LINES_FILE = "invalidNameLines.json";
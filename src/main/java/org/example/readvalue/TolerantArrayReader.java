@@ -0,0 +1,316 @@
+package org.example.readvalue;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.exc.StreamReadException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Reads a large JSON array element by element, so that one bad element costs that element
+ * instead of the whole {@code readValue}.
+ * <p>
+ * An element that cannot be bound (unknown property, wrong type, ...) is reported and the
+ * parser skips its remaining tokens, which is what {@link MappingIterator} does anyway. After a
+ * syntax error the tokenizer cannot be trusted, so the bytes are rescanned from the start of the
+ * broken element, tracking only brackets and strings, up to the comma that ends it; a new parser
+ * continues from there. If the brackets never add up again (a missing or extra bracket) or a
+ * string is still open at a line break (which JSON strings cannot contain), the rescan resyncs at
+ * the next line break instead, so one-element-per-line arrays lose only the broken line. When
+ * that lands inside a longer element, a syntax error before the first element of the new parser
+ * is taken as the rest of the broken element and not reported again. Only an element that does
+ * not end within {@value #MAX_ELEMENT_BYTES} bytes and has no line break to resync at gives up on
+ * the rest of the input, and that is reported as one more error. The input must be UTF-8.
+ */
+public final class TolerantArrayReader<T> {
+
+    /** how far the rescan looks for the end of a broken element; also bounds the bytes kept for it */
+    static final int MAX_ELEMENT_BYTES = 8 * 1024 * 1024;
+
+    /**
+     * @param index   position of the bad element in the array
+     * @param offset  byte offset in the input where it starts
+     * @param message why it was rejected
+     */
+    public record RecordError(long index, long offset, String message) {
+    }
+
+    private final ObjectReader reader;
+
+    /**
+     * @param reader reads one element, e.g. {@code mapper.readerFor(Name.class)}
+     */
+    public TolerantArrayReader(ObjectReader reader) {
+        this.reader = reader;
+    }
+
+    public long read(Path file, Consumer<? super T> records, Consumer<? super RecordError> errors) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return read(in, records, errors);
+        }
+    }
+
+    /**
+     * Passes every element that reads fine to {@code records} and every one that does not to
+     * {@code errors}, in input order. Does not close {@code in}.
+     *
+     * @return the number of elements passed to {@code records}
+     */
+    public long read(InputStream in, Consumer<? super T> records, Consumer<? super RecordError> errors)
+            throws IOException {
+        RecordInput input = new RecordInput(in);
+        long shift = 0;                 // byte offset in the input = shift + byte offset in the current parser
+        long index = 0;
+        long count = 0;
+        boolean continuation = false;   // the current parser started at a line break inside a broken element
+        while (true) {
+            long resumeFrom;            // where to rescan from if the tokenizer fails now
+            boolean afterElement = false; // resumeFrom is the end of an element, so a comma comes first
+            boolean first = true;       // no element started in this parser yet
+            boolean skipping = false;   // the last element failed and MappingIterator is skipping its rest
+            try (MappingIterator<T> values = reader.readValues(input)) {
+                JsonParser p = values.getParser();
+                // past the '[' (the real one, or the one a new parser gets)
+                resumeFrom = shift + p.getCurrentLocation().getByteOffset();
+                input.keepFrom(resumeFrom);
+                while (true) {
+                    long start;
+                    try {
+                        if (!values.hasNextValue()) {
+                            return count;
+                        }
+                        start = shift + p.getTokenLocation().getByteOffset();
+                    } catch (JsonProcessingException e) {
+                        if (!isSyntaxError(e)) {
+                            throw e;
+                        }
+                        if (!skipping && !(continuation && first)) {
+                            // the element after resumeFrom is broken; rescan it from its first byte
+                            resumeFrom = input.skipSeparator(resumeFrom, afterElement);
+                            errors.accept(new RecordError(index, resumeFrom, e.getOriginalMessage()));
+                            index++;
+                        }
+                        break;
+                    }
+                    first = false;
+                    skipping = false;
+                    resumeFrom = start;
+                    afterElement = false;
+                    input.keepFrom(start);
+                    try {
+                        records.accept(values.nextValue());
+                        count++;
+                        resumeFrom = shift + p.getCurrentLocation().getByteOffset();
+                        afterElement = true;
+                        input.keepFrom(resumeFrom);
+                    } catch (JsonProcessingException e) {
+                        errors.accept(new RecordError(index, start, e.getOriginalMessage()));
+                        if (isSyntaxError(e)) {
+                            index++;
+                            break;
+                        }
+                        skipping = true;
+                    }
+                    index++;
+                }
+            }
+            long next = input.skipElement(resumeFrom);
+            if (next == RecordInput.END) {
+                return count;
+            }
+            if (next == RecordInput.ABANDONED) {
+                errors.accept(new RecordError(index, resumeFrom,
+                        "element does not end and there is no line break to resync at; rest of the input skipped"));
+                return count;
+            }
+            continuation = input.resyncedAtLineBreak();
+            // the new parser sees '[' followed by the byte at next
+            input.restart();
+            shift = next - 1;
+        }
+    }
+
+    /** true if the tokenizer failed, possibly inside a deserializer that wrapped the error */
+    private static boolean isSyntaxError(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof StreamReadException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The input as the parsers read it, keeping the bytes from a given offset onward so they can
+     * be scanned again after a syntax error. Closing it does not close the underlying stream.
+     */
+    private static final class RecordInput extends InputStream {
+        static final long END = -1;
+        static final long ABANDONED = -2;
+
+        private final InputStream source;
+        /** input bytes [bufferStart, bufferStart + limit) */
+        private byte[] buffer = new byte[16 * 1024];
+        private long bufferStart;
+        private int limit;
+        private int next;
+        private long keepFrom;
+        private boolean openBracket;
+        private boolean resyncedAtLineBreak;
+
+        RecordInput(InputStream source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (openBracket) {
+                openBracket = false;
+                b[off] = '[';
+                return 1;
+            }
+            if (next == limit && !fill()) {
+                return -1;
+            }
+            int n = Math.min(len, limit - next);
+            System.arraycopy(buffer, next, b, off, n);
+            next += n;
+            return n;
+        }
+
+        /** bytes before {@code offset} are no longer needed */
+        void keepFrom(long offset) {
+            keepFrom = offset;
+        }
+
+        /** the next read returns '[' and then continues with the input */
+        void restart() {
+            openBracket = true;
+        }
+
+        /**
+         * @return the offset of the first byte at or after {@code offset} that is not whitespace
+         * or, with {@code comma}, the one comma separating array elements
+         */
+        long skipSeparator(long offset, boolean comma) throws IOException {
+            next = (int) (offset - bufferStart);
+            while (next < limit || fill()) {
+                byte c = buffer[next];
+                if (c == ',' && comma) {
+                    comma = false;
+                } else if (c != ' ' && c != '\t' && c != '\n' && c != '\r') {
+                    break;
+                }
+                next++;
+            }
+            return bufferStart + next;
+        }
+
+        /**
+         * Scans from {@code offset} to the comma that ends the element there. Falls back to the
+         * first line break after {@code offset} if a string is still open at a line break, or if
+         * the input ends or {@link #MAX_ELEMENT_BYTES} pass before the brackets add up; the next
+         * read continues at the returned offset.
+         *
+         * @return the offset to continue at, {@link #END} if the array ends first, or
+         * {@link #ABANDONED} if there is nowhere to continue
+         */
+        long skipElement(long offset) throws IOException {
+            next = (int) (offset - bufferStart);
+            keepFrom = offset;
+            long lineBreak = -1;
+            int depth = 0;
+            boolean inString = false;
+            boolean escaped = false;
+            resyncedAtLineBreak = false;
+            while (next < limit || fill()) {
+                if (bufferStart + next - offset > MAX_ELEMENT_BYTES) {
+                    break;
+                }
+                byte c = buffer[next++];
+                if (c == '\n' && lineBreak < 0) {
+                    lineBreak = bufferStart + next;
+                    // from here on only the bytes after the line break may be needed again
+                    keepFrom = lineBreak;
+                }
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (c == '\\') {
+                        escaped = true;
+                    } else if (c == '"') {
+                        inString = false;
+                    } else if (c == '\n') {
+                        break;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    if (depth > 0) {
+                        depth--;
+                    } else if (c == ']') {
+                        return END;
+                    }
+                    // a '}' closing nothing is ignored
+                } else if (c == ',' && depth == 0) {
+                    return bufferStart + next;
+                }
+            }
+            if (lineBreak < 0) {
+                return ABANDONED;
+            }
+            next = (int) (lineBreak - bufferStart);
+            resyncedAtLineBreak = true;
+            return lineBreak;
+        }
+
+        /** whether the last {@link #skipElement} had to fall back to a line break */
+        boolean resyncedAtLineBreak() {
+            return resyncedAtLineBreak;
+        }
+
+        private boolean fill() throws IOException {
+            if (limit == buffer.length) {
+                int drop = (int) Math.min(Math.max(keepFrom - bufferStart, 0), next);
+                if (drop > 0) {
+                    System.arraycopy(buffer, drop, buffer, 0, limit - drop);
+                    bufferStart += drop;
+                    limit -= drop;
+                    next -= drop;
+                }
+                if (limit == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+            }
+            int n = source.read(buffer, limit, buffer.length - limit);
+            if (n <= 0) {
+                return false;
+            }
+            limit += n;
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // the caller owns the source
+        }
+    }
+}